@@ -0,0 +1,178 @@
+package br.ucsal.compiladores.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.tools.ProgramGenerator;
+
+// Fontes sintéticos para os benchmarks, no formato dos arquivos de testes/*.251. A semente é fixa: a
+// mesma forma e o mesmo tamanho geram sempre o mesmo texto, para que execuções sejam comparáveis.
+final class Corpora {
+    static final String IDENTIFIERS = "identificadores";
+    static final String COMMENTS = "comentarios";
+    static final String STRINGS = "strings";
+    static final String TRUNCATION = "truncamento";
+    static final String SAMPLES = "testes";
+    static final String PROGRAM = "programa";
+
+    private static final String FILTERED_CHARS = "~@#^";
+
+    private Corpora() {
+    }
+
+    static String build(String shape, int targetChars) {
+        Random random = new Random(251);
+        StringBuilder sb = new StringBuilder(targetChars + 256);
+        if (shape.equals(SAMPLES)) {
+            List<String> samples = readSamples();
+            for (int i = 0; sb.length() < targetChars; i++) {
+                sb.append(samples.get(i % samples.size())).append('\n');
+            }
+            return sb.toString();
+        }
+
+        if (shape.equals(PROGRAM)) {
+            return buildProgram(targetChars);
+        }
+
+        sb.append("PROGRAM Benchmark;\n");
+        while (sb.length() < targetChars) {
+            switch (shape) {
+                case IDENTIFIERS:
+                    appendIdentifierLine(sb, random);
+                    break;
+                case COMMENTS:
+                    appendCommentBlock(sb, random);
+                    break;
+                case STRINGS:
+                    appendStringLine(sb, random);
+                    break;
+                case TRUNCATION:
+                    appendTruncationLine(sb, random);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Corpus desconhecido: " + shape);
+            }
+        }
+        sb.append("ENDPROGRAM\n");
+        return sb.toString();
+    }
+
+    // Programa sem erros sintáticos do ProgramGenerator. Cada função tem em média pouco mais de 1 KB, então
+    // cerca de um terço do texto fica em funções e o restante em comandos do programa principal
+    private static String buildProgram(int targetChars) {
+        ProgramGenerator.Settings settings = new ProgramGenerator.Settings();
+        settings.targetBytes = targetChars;
+        settings.functions = Math.max(1, targetChars / 4096);
+        StringWriter out = new StringWriter(targetChars + 1024);
+        try {
+            new ProgramGenerator(settings, out).generate();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    // Atribuições e expressões com poucos literais: quase todo token é identificador
+    private static void appendIdentifierLine(StringBuilder sb, Random random) {
+        sb.append("    ").append(identifier(random)).append(" := ").append(identifier(random));
+        int operands = 1 + random.nextInt(5);
+        for (int i = 0; i < operands; i++) {
+            sb.append(" + ").append(identifier(random));
+        }
+        sb.append(";\n");
+    }
+
+    private static void appendCommentBlock(StringBuilder sb, Random random) {
+        sb.append("    // ").append(words(random, 8 + random.nextInt(8))).append('\n');
+        sb.append("    /*\n");
+        int lines = 2 + random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            sb.append("      ").append(words(random, 6 + random.nextInt(10))).append('\n');
+        }
+        sb.append("    */\n");
+        sb.append("    ").append(identifier(random)).append(" := ").append(random.nextInt(1000))
+                .append("; // ").append(words(random, 4)).append('\n');
+    }
+
+    private static void appendStringLine(StringBuilder sb, Random random) {
+        sb.append("    PRINT \"").append(words(random, 20 + random.nextInt(40))).append("\", ")
+                .append(identifier(random)).append(";\n");
+    }
+
+    // Identificadores e números acima de MAX_ATOM_EFFECTIVE_LENGTH, com caracteres a serem filtrados
+    private static void appendTruncationLine(StringBuilder sb, Random random) {
+        sb.append("    ").append(longAtom(random, true)).append(" := ").append(longAtom(random, false))
+                .append(" + ").append(longAtom(random, true)).append(";\n");
+    }
+
+    private static String identifier(Random random) {
+        // Distribuição concentrada: alguns nomes se repetem muito, outros aparecem poucas vezes
+        int id = (int) Math.abs(random.nextGaussian() * 200);
+        return "var" + (id % 3 == 0 ? "_" : "") + id;
+    }
+
+    private static String longAtom(Random random, boolean identifier) {
+        int length = Constants.MAX_ATOM_EFFECTIVE_LENGTH + 1 + random.nextInt(24);
+        StringBuilder atom = new StringBuilder(length + 4);
+        if (identifier) {
+            atom.append("id");
+            while (atom.length() < length) {
+                if (random.nextInt(12) == 0) {
+                    atom.append(FILTERED_CHARS.charAt(random.nextInt(FILTERED_CHARS.length())));
+                }
+                atom.append((char) ('a' + random.nextInt(26)));
+            }
+        } else {
+            atom.append(1 + random.nextInt(9));
+            while (atom.length() < length) {
+                atom.append(random.nextInt(10));
+            }
+        }
+        return atom.toString();
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            int length = 2 + random.nextInt(9);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return sb.toString();
+    }
+
+    // Os exemplos do repositório; o benchmark deve ser executado a partir da raiz do projeto
+    private static List<String> readSamples() {
+        Path directory = Paths.get(System.getProperty("benchmark.testes", "testes"));
+        List<String> samples = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + Constants.FILE_EXTENSION)) {
+            for (Path file : files) {
+                samples.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler os exemplos em " + directory.toAbsolutePath()
+                    + " (use -Dbenchmark.testes=DIRETÓRIO)", e);
+        }
+        if (samples.isEmpty()) {
+            throw new IllegalStateException("Nenhum arquivo " + Constants.FILE_EXTENSION + " em " + directory);
+        }
+        Collections.sort(samples);
+        return samples;
+    }
+}
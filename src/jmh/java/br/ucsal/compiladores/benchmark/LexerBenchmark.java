@@ -0,0 +1,90 @@
+package br.ucsal.compiladores.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.ucsal.compiladores.lexer.Lexer;
+import br.ucsal.compiladores.lexer.Token;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+import br.ucsal.compiladores.utils.TextSourceReader;
+
+// Vazão do Lexer sobre o fonte em memória (sem E/S de disco). Além de ops/s, os contadores auxiliares
+// "megabytes" e "tokens" saem normalizados por segundo, ou seja, MB/s e tokens/s, com MB de 1024 * 1024
+// bytes como em --stats. Com -prof gc, a alocação por token é gc.alloc.rate.norm dividido pela
+// quantidade de tokens impressa na preparação.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LexerBenchmark {
+    @Param({ Corpora.IDENTIFIERS, Corpora.COMMENTS, Corpora.STRINGS, Corpora.TRUNCATION, Corpora.SAMPLES })
+    public String corpus;
+
+    @Param({ "1048576" })
+    public int sizeChars;
+
+    private String text;
+    private double megabytesPerOp;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        text = Corpora.build(corpus, sizeChars);
+        long bytes = text.getBytes(StandardCharsets.UTF_8).length;
+        megabytesPerOp = bytes / (1024.0 * 1024);
+        int tokens = lex().size();
+        System.out.println("Corpus " + corpus + ": " + bytes + " bytes, " + tokens + " tokens por operação");
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public double megabytes;
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+            tokens = 0;
+        }
+    }
+
+    // Caminho usado pelo Parser: tokens em arrays paralelos
+    @Benchmark
+    public TokenBuffer tokenizeToBuffer(Counters counters) {
+        TokenBuffer tokens = lex();
+        counters.megabytes += megabytesPerOp;
+        counters.tokens += tokens.size();
+        return tokens;
+    }
+
+    // API de lista, com um objeto Token por átomo
+    @Benchmark
+    public List<Token> tokenize(Counters counters) {
+        List<Token> tokens = new Lexer(new TextSourceReader("Benchmark", text), new SymbolTable()).tokenize();
+        counters.megabytes += megabytesPerOp;
+        counters.tokens += tokens.size();
+        return tokens;
+    }
+
+    private TokenBuffer lex() {
+        return new Lexer(new TextSourceReader("Benchmark", text), new SymbolTable()).tokenizeToBuffer();
+    }
+}
@@ -0,0 +1,83 @@
+package br.ucsal.compiladores.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.ucsal.compiladores.lexer.Lexer;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenStream;
+import br.ucsal.compiladores.parser.Ast;
+import br.ucsal.compiladores.parser.ParseListener;
+import br.ucsal.compiladores.parser.Parser;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+import br.ucsal.compiladores.utils.TextSourceReader;
+
+// Parser.check() sobre tokens já lidos: o Lexer fica fora da medição. Os atributos que a análise grava
+// na tabela de símbolos são os mesmos a cada execução, então a tabela é preparada uma vez só.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+    @Param({ "16384", "262144", "4194304" })
+    public int sizeChars;
+
+    @Param({ "false", "true" })
+    public boolean parallelFunctions;
+
+    private TokenBuffer tokens;
+    private SymbolTable symbolTable;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        String text = Corpora.build(Corpora.PROGRAM, sizeChars);
+        symbolTable = new SymbolTable();
+        tokens = new Lexer(new TextSourceReader("Benchmark", text), symbolTable).tokenizeToBuffer();
+        Parser parser = parser();
+        parser.check();
+        if (parser.getErrorCount() != 0) {
+            throw new IllegalStateException("Corpus com " + parser.getErrorCount() + " erros sintáticos");
+        }
+        System.out.println("Programa de " + text.length() + " caracteres, " + tokens.size() + " tokens");
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tokens = 0;
+        }
+    }
+
+    @Benchmark
+    public Ast check(Counters counters) {
+        Parser parser = parser();
+        parser.check();
+        counters.tokens += tokens.size();
+        return parser.getAst();
+    }
+
+    private Parser parser() {
+        Parser parser = new Parser(TokenStream.of(tokens), symbolTable, ParseListener.SILENT);
+        parser.setParallelFunctions(parallelFunctions);
+        return parser;
+    }
+}
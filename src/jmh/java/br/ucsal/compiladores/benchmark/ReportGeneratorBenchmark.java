@@ -0,0 +1,104 @@
+package br.ucsal.compiladores.benchmark;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.ucsal.compiladores.lexer.Lexer;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenStream;
+import br.ucsal.compiladores.parser.ParseListener;
+import br.ucsal.compiladores.parser.Parser;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+import br.ucsal.compiladores.utils.LexReportWriter;
+import br.ucsal.compiladores.utils.ReportGenerator;
+import br.ucsal.compiladores.utils.TextSourceReader;
+
+// Gravação dos relatórios de um programa já analisado. Os arquivos vão para /dev/shm quando existe
+// (ou para -Dbenchmark.dir), para medir formatação e escrita sem a variação do disco.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportGeneratorBenchmark {
+    @Param({ "16384", "262144", "4194304" })
+    public int sizeChars;
+
+    private Path directory;
+    private TokenBuffer tokens;
+    private ReportGenerator generator;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        String text = Corpora.build(Corpora.PROGRAM, sizeChars);
+        SymbolTable symbolTable = new SymbolTable();
+        tokens = new Lexer(new TextSourceReader("Benchmark", text), symbolTable).tokenizeToBuffer();
+        new Parser(TokenStream.of(tokens), symbolTable, ParseListener.SILENT).check();
+
+        Path base = Paths.get(System.getProperty("benchmark.dir",
+                Files.isDirectory(Paths.get("/dev/shm")) ? "/dev/shm" : System.getProperty("java.io.tmpdir")));
+        directory = Files.createTempDirectory(base, "relatorios");
+        generator = new ReportGenerator(symbolTable, tokens, directory.resolve("Benchmark.251").toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tokens = 0;
+        }
+    }
+
+    @Benchmark
+    public Path generateLexReport(Counters counters) throws IOException {
+        counters.tokens += tokens.size();
+        return generator.generateLexReport();
+    }
+
+    // O mesmo relatório pela thread de escrita usada por Parser.run()
+    @Benchmark
+    public Path pipelinedLexReport(Counters counters) throws IOException {
+        LexReportWriter writer = generator.openLexReport();
+        writer.appendCompleted(tokens);
+        counters.tokens += tokens.size();
+        return writer.finish();
+    }
+
+    @Benchmark
+    public Path generateTabReport() throws IOException {
+        return generator.generateTabReport();
+    }
+}
@@ -0,0 +1,89 @@
+package br.ucsal.compiladores.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.ucsal.compiladores.lexer.TokenType;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+
+// Cada operação insere todas as ocorrências numa tabela nova. distinctRatio é a fração de ocorrências
+// com nome novo: 0.001 é um programa que repete poucos nomes, 1.0 só tem nomes distintos. Com o custo
+// por ocorrência constante, as ocorrências/s não caem quando occurrences cresce.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SymbolTableBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int occurrences;
+
+    @Param({ "0.001", "0.1", "1.0" })
+    public double distinctRatio;
+
+    private String[] keys;
+    private char[][] lexemes;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        int distinct = Math.max(1, (int) (occurrences * distinctRatio));
+        Random random = new Random(251);
+        keys = new String[occurrences];
+        lexemes = new char[occurrences][];
+        for (int i = 0; i < occurrences; i++) {
+            // Os primeiros usos de cada nome aparecem em ordem; os demais repetem nomes já vistos
+            int id = i < distinct ? i : random.nextInt(distinct);
+            keys[i] = "IDENTIFICADOR_" + id;
+            lexemes[i] = keys[i].toCharArray();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long occurrences;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            occurrences = 0;
+        }
+    }
+
+    @Benchmark
+    public SymbolTable addOrGetSymbolByString(Counters counters) {
+        SymbolTable table = new SymbolTable();
+        for (int i = 0; i < keys.length; i++) {
+            table.addOrGetSymbol(keys[i], keys[i], TokenType.IDN_VARIABLE, keys[i].length(), i + 1);
+        }
+        counters.occurrences += keys.length;
+        return table;
+    }
+
+    // Variante usada pelo Lexer: a String só é criada quando o nome é novo
+    @Benchmark
+    public SymbolTable addOrGetSymbolByChars(Counters counters) {
+        SymbolTable table = new SymbolTable();
+        for (int i = 0; i < lexemes.length; i++) {
+            char[] lexeme = lexemes[i];
+            table.addOrGetSymbol(lexeme, lexeme.length, lexeme.length, TokenType.IDN_VARIABLE, lexeme.length,
+                    i + 1);
+        }
+        counters.occurrences += lexemes.length;
+        return table;
+    }
+}
@@ -1,11 +1,17 @@
 package br.ucsal.compiladores;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
+import br.ucsal.compiladores.batch.BatchChecker;
+import br.ucsal.compiladores.cache.ResultCache;
 import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.daemon.CheckerDaemon;
 import br.ucsal.compiladores.parser.Parser;
 
 public class App {
@@ -20,9 +26,26 @@ public class App {
             this.directoryPath = directoryPath;
             this.inputFilePath = inputFilePath;
         }
+
+        // absolutePath deve terminar com a extensão .251
+        public static FileInputDetails of(Path absolutePath) {
+            String fileNameWithExt = absolutePath.getFileName().toString();
+            String baseFileName = fileNameWithExt.substring(0, fileNameWithExt.length() - 4);
+            Path parentDir = absolutePath.getParent();
+            String directoryPath = (parentDir != null) ? parentDir.toString() : ".";
+            return new FileInputDetails(baseFileName, directoryPath, absolutePath.toString());
+        }
     }
 
     public static void main(String[] args) {
+        if (args.length > 0) {
+            int status = runCommandLine(args);
+            if (status != 0) {
+                System.exit(status);
+            }
+            return;
+        }
+
         System.out.println("Static Checker em execução!");
         Scanner scanner = new Scanner(System.in);
         FileInputDetails fileDetails = null;
@@ -53,6 +76,142 @@ public class App {
         }
     }
 
+    private static int runCommandLine(String[] args) {
+        if (args[0].equals("--daemon")) {
+            return runDaemon(args);
+        }
+        return runBatch(args);
+    }
+
+    private static void printUsage() {
+        System.err.println("Uso: java -jar staticchecker.jar   (menu interativo)");
+        System.err.println("     java -jar staticchecker.jar [--jobs N] [--cache DIRETÓRIO [--cache-max-mb N]]"
+                + " [--stats] ARQUIVO|DIRETÓRIO|GLOB...");
+        System.err.println("     java -jar staticchecker.jar --daemon [--port N | --socket CAMINHO]");
+    }
+
+    // Sai com 0 quando nenhum arquivo tem erros, 1 quando algum tem e 2 para uso inválido
+    private static int runBatch(String[] args) {
+        int jobs = Runtime.getRuntime().availableProcessors();
+        String cacheDirectory = null;
+        long cacheMaxBytes = Constants.CACHE_DEFAULT_MAX_BYTES;
+        boolean stats = false;
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--jobs") && i + 1 < args.length) {
+                try {
+                    jobs = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    jobs = 0;
+                }
+                if (jobs < 1) {
+                    System.err.println("Quantidade de arquivos simultâneos inválida: " + args[i]);
+                    return 2;
+                }
+            } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                cacheDirectory = args[++i];
+            } else if (args[i].equals("--cache-max-mb") && i + 1 < args.length) {
+                try {
+                    cacheMaxBytes = Long.parseLong(args[++i]) * 1024 * 1024;
+                } catch (NumberFormatException e) {
+                    cacheMaxBytes = 0;
+                }
+                if (cacheMaxBytes <= 0) {
+                    System.err.println("Tamanho máximo do cache inválido: " + args[i]);
+                    return 2;
+                }
+            } else if (args[i].equals("--stats")) {
+                stats = true;
+            } else if (args[i].startsWith("--")) {
+                printUsage();
+                return 2;
+            } else {
+                inputs.add(args[i]);
+            }
+        }
+        if (inputs.isEmpty()) {
+            printUsage();
+            return 2;
+        }
+
+        List<Path> sources;
+        try {
+            sources = BatchChecker.collectSources(inputs);
+        } catch (IOException e) {
+            System.err.println("Erro: " + e.getMessage());
+            return 2;
+        }
+        if (sources.isEmpty()) {
+            System.err.println("Nenhum arquivo " + Constants.FILE_EXTENSION + " encontrado.");
+            return 2;
+        }
+
+        ResultCache cache = null;
+        if (cacheDirectory != null) {
+            try {
+                cache = ResultCache.open(Paths.get(cacheDirectory), cacheMaxBytes);
+            } catch (IOException e) {
+                System.err.println("Cache indisponível, verificando sem cache: " + e.getMessage());
+            }
+        }
+
+        try {
+            BatchChecker checker = new BatchChecker(jobs, System.out, cache);
+            checker.setCollectStats(stats);
+            BatchChecker.Summary summary = checker.check(sources);
+            if (summary.getStats() != null) {
+                System.out.print(summary.getStats().format());
+            }
+            System.out.println(summary);
+            return summary.getErrors() > 0 ? 1 : 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Verificação interrompida.");
+            return 1;
+        }
+    }
+
+    private static int runDaemon(String[] args) {
+        int port = Constants.DAEMON_DEFAULT_PORT;
+        String socketPath = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--port") && i + 1 < args.length) {
+                try {
+                    port = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    System.err.println("Porta inválida: " + args[i]);
+                    return 2;
+                }
+            } else if (args[i].equals("--socket") && i + 1 < args.length) {
+                socketPath = args[++i];
+            } else {
+                printUsage();
+                return 2;
+            }
+        }
+
+        try (CheckerDaemon daemon = socketPath != null ? CheckerDaemon.onSocket(Paths.get(socketPath))
+                : CheckerDaemon.onPort(port)) {
+            System.out.println("Static Checker aguardando requisições em " + daemon.getAddress());
+            daemon.serve();
+        } catch (IOException e) {
+            System.err.println("Erro no modo daemon: " + e.getMessage());
+            return 1;
+        }
+        return 0;
+    }
+
+    // Caminho informado pelo usuário (relativo ou absoluto, extensão .251 opcional) como caminho absoluto
+    public static Path resolveSourcePath(String userInputPath) {
+        Path potentialPath;
+        if (userInputPath.toLowerCase().endsWith(Constants.FILE_EXTENSION)) {
+            potentialPath = Paths.get(userInputPath);
+        } else {
+            potentialPath = Paths.get(userInputPath + Constants.FILE_EXTENSION);
+        }
+        return potentialPath.toAbsolutePath();
+    }
+
     private static void displayMenu() {
         System.out.println("\nEscolha uma opção para o arquivo fonte:");
         System.out.println("1. Usar arquivo de teste padrão ('Teste.251' no diretório atual)");
@@ -109,14 +268,7 @@ public class App {
                     return null;
                 }
 
-                Path potentialPath;
-                if (userInputPath.toLowerCase().endsWith(Constants.FILE_EXTENSION)) {
-                    potentialPath = Paths.get(userInputPath);
-                } else {
-                    potentialPath = Paths.get(userInputPath + Constants.FILE_EXTENSION);
-                }
-
-                Path absolutePathToTest = potentialPath.toAbsolutePath();
+                Path absolutePathToTest = resolveSourcePath(userInputPath);
 
                 if (!Files.isRegularFile(absolutePathToTest)) {
                     System.err.println(
@@ -124,16 +276,8 @@ public class App {
                     return null;
                 }
 
-                inputFilePath = absolutePathToTest.toString();
-                String fileNameWithExt = absolutePathToTest.getFileName().toString();
-
-                baseFileName = fileNameWithExt.substring(0, fileNameWithExt.length() - 4);
-
-                Path parentDir = absolutePathToTest.getParent();
-                directoryPath = (parentDir != null) ? parentDir.toString() : ".";
-
-                System.out.println("Usando arquivo: " + inputFilePath);
-                return new FileInputDetails(baseFileName, directoryPath, inputFilePath);
+                System.out.println("Usando arquivo: " + absolutePathToTest);
+                return FileInputDetails.of(absolutePathToTest);
 
             case 4:
                 return null;
@@ -0,0 +1,306 @@
+package br.ucsal.compiladores.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import br.ucsal.compiladores.App;
+import br.ucsal.compiladores.App.FileInputDetails;
+import br.ucsal.compiladores.cache.ResultCache;
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.parser.ParseListener;
+import br.ucsal.compiladores.parser.Parser;
+import br.ucsal.compiladores.stats.CheckStats;
+import br.ucsal.compiladores.stats.StatsSummary;
+
+// Modo em lote: verifica muitos arquivos .251 sem o menu, uma thread virtual por arquivo. O semáforo
+// limita quantos arquivos estão em análise ao mesmo tempo (e, com isso, quantos buffers de tokens e
+// tabelas de símbolos ocupam memória); as threads seguintes só são criadas quando uma vaga abre.
+public class BatchChecker {
+    private final int maxInFlight;
+    private final PrintStream out;
+    private final ResultCache cache;
+    private boolean collectStats;
+
+    public BatchChecker(int maxInFlight, PrintStream out) {
+        this(maxInFlight, out, null);
+    }
+
+    // Com cache, arquivos cujo conteúdo já foi verificado não são analisados de novo
+    public BatchChecker(int maxInFlight, PrintStream out, ResultCache cache) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException(
+                    "Quantidade de arquivos simultâneos deve ser positiva: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        this.out = out;
+        this.cache = cache;
+    }
+
+    // Com estatísticas, cada arquivo analisado imprime o tempo de cada fase, com ou sem erros, e o
+    // Summary traz os percentis do lote. Arquivos reaproveitados do cache não entram nos percentis
+    public void setCollectStats(boolean collectStats) {
+        this.collectStats = collectStats;
+    }
+
+    public static class Summary {
+        private final int files;
+        private final int filesWithErrors;
+        private final int errors;
+        private final int cacheHits;
+        private final StatsSummary stats;
+
+        Summary(int files, int filesWithErrors, int errors, int cacheHits, StatsSummary stats) {
+            this.files = files;
+            this.filesWithErrors = filesWithErrors;
+            this.errors = errors;
+            this.cacheHits = cacheHits;
+            this.stats = stats;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public int getFilesWithErrors() {
+            return filesWithErrors;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+
+        public int getCacheHits() {
+            return cacheHits;
+        }
+
+        // null quando o lote foi verificado sem estatísticas
+        public StatsSummary getStats() {
+            return stats;
+        }
+
+        @Override
+        public String toString() {
+            return "Arquivos verificados: " + files + ", com erros: " + filesWithErrors + ", total de erros: "
+                    + errors + ", reaproveitados do cache: " + cacheHits;
+        }
+    }
+
+    // Cada entrada pode ser um arquivo (extensão .251 opcional), um diretório (percorrido recursivamente)
+    // ou um padrão glob como "fontes/**.251". Arquivos repetidos entre entradas são verificados uma vez.
+    public static List<Path> collectSources(List<String> inputs) throws IOException {
+        Set<Path> sources = new LinkedHashSet<>();
+        for (String input : inputs) {
+            int globStart = indexOfGlob(input);
+            if (globStart >= 0) {
+                sources.addAll(matchGlob(input, globStart));
+                continue;
+            }
+            Path path = Paths.get(input).toAbsolutePath().normalize();
+            if (Files.isDirectory(path)) {
+                sources.addAll(walk(path, BatchChecker::isSource));
+                continue;
+            }
+            path = App.resolveSourcePath(input).normalize();
+            if (!Files.isRegularFile(path)) {
+                throw new IOException("Arquivo não encontrado ou não é um arquivo regular em: " + path);
+            }
+            sources.add(path);
+        }
+        return new ArrayList<>(sources);
+    }
+
+    // Os erros de cada arquivo são impressos juntos, assim que o arquivo termina; arquivos sem erros só
+    // geram saída com estatísticas. Os relatórios .LEX e .TAB são gerados ao lado de cada arquivo, como no modo interativo.
+    public Summary check(List<Path> sources) throws InterruptedException {
+        long start = System.nanoTime();
+        Semaphore slots = new Semaphore(maxInFlight);
+        FileResult[] results = new FileResult[sources.size()];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < results.length; i++) {
+                FileResult result = new FileResult(sources.get(i), cache, collectStats);
+                results[i] = result;
+                slots.acquire();
+                executor.execute(() -> {
+                    try {
+                        result.check();
+                        report(result);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        int filesWithErrors = 0;
+        int errors = 0;
+        int cacheHits = 0;
+        List<CheckStats> stats = new ArrayList<>();
+        for (FileResult result : results) {
+            if (result.stats != null) {
+                stats.add(result.stats);
+            }
+            if (!result.messages.isEmpty()) {
+                filesWithErrors++;
+                errors += result.messages.size();
+            }
+            if (result.fromCache) {
+                cacheHits++;
+            }
+        }
+        return new Summary(results.length, filesWithErrors, errors, cacheHits,
+                collectStats ? new StatsSummary(stats, elapsedNanos) : null);
+    }
+
+    private void report(FileResult result) {
+        if (result.messages.isEmpty() && result.stats == null) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        int count = result.messages.size();
+        sb.append(result.source).append(": ").append(count).append(count == 1 ? " erro" : " erros")
+                .append(System.lineSeparator());
+        for (String message : result.messages) {
+            sb.append("  ").append(message).append(System.lineSeparator());
+        }
+        if (result.stats != null) {
+            sb.append(result.stats.format());
+        }
+        synchronized (out) {
+            out.print(sb);
+            out.flush();
+        }
+    }
+
+    private static boolean isSource(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(Constants.FILE_EXTENSION);
+    }
+
+    private static int indexOfGlob(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // O diretório base é a parte do padrão antes do primeiro componente com curinga; o restante é
+    // comparado com o caminho relativo a ele. Só arquivos .251 são considerados
+    private static List<Path> matchGlob(String pattern, int globStart) throws IOException {
+        int separator = Math.max(pattern.lastIndexOf('/', globStart),
+                pattern.lastIndexOf(File.separatorChar, globStart));
+        Path base = Paths.get(separator < 0 ? "." : pattern.substring(0, separator + 1)).toAbsolutePath().normalize();
+        if (!Files.isDirectory(base)) {
+            throw new IOException("Diretório não encontrado para o padrão " + pattern + ": " + base);
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern.substring(separator + 1));
+        return walk(base, file -> isSource(file) && matcher.matches(base.relativize(file)));
+    }
+
+    private static List<Path> walk(Path root, PathMatcher filter) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).filter(filter::matches).sorted().collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Um Parser por arquivo: o Parser guarda o estado da análise e não é compartilhado entre threads
+    private static final class FileResult implements ParseListener {
+        private final Path source;
+        private final ResultCache cache;
+        private final boolean collectStats;
+        private final List<String> messages = new ArrayList<>();
+        private boolean fromCache;
+        private CheckStats stats;
+
+        FileResult(Path source, ResultCache cache, boolean collectStats) {
+            this.source = source;
+            this.cache = cache;
+            this.collectStats = collectStats;
+        }
+
+        void check() {
+            try {
+                if (cache == null) {
+                    parse();
+                    return;
+                }
+                // Lidos antes do hash: uma alteração do fonte durante a análise muda a data ou o tamanho
+                BasicFileAttributes before = Files.readAttributes(source, BasicFileAttributes.class);
+                long key = cache.keyOf(source);
+                try (ResultCache.Entry entry = cache.lookup(key)) {
+                    if (entry != null) {
+                        entry.restoreReports(source.toString());
+                        messages.addAll(entry.getDiagnostics());
+                        fromCache = true;
+                        return;
+                    }
+                }
+                Parser parser = parse();
+                // Só resultados completos vão para o cache: a análise chegou ao fim e o fonte não mudou desde o
+                // cálculo do hash (mesma data de modificação e tamanho, sem ler e calcular o hash de novo)
+                if (!parser.hasFailed() && unchanged(before)) {
+                    cache.store(key, messages, source.toString());
+                }
+            } catch (IOException e) {
+                messages.add("Erro de E/S: " + e.getMessage());
+            } catch (RuntimeException e) {
+                messages.add("Erro inesperado durante a análise: " + e.getMessage());
+            } catch (OutOfMemoryError e) {
+                // A memória da análise já foi liberada ao sair dela; o arquivo não pode contar como sem erros
+                messages.add("Erro: memória insuficiente para analisar o arquivo.");
+            }
+        }
+
+        private boolean unchanged(BasicFileAttributes before) throws IOException {
+            BasicFileAttributes after = Files.readAttributes(source, BasicFileAttributes.class);
+            return after.lastModifiedTime().equals(before.lastModifiedTime()) && after.size() == before.size();
+        }
+
+        private Parser parse() {
+            Parser parser = new Parser(this);
+            parser.setCollectStats(collectStats);
+            parser.run(FileInputDetails.of(source));
+            stats = parser.getStats();
+            return parser;
+        }
+
+        @Override
+        public boolean isTracing() {
+            return false;
+        }
+
+        @Override
+        public void print(String text) {
+        }
+
+        @Override
+        public void println(String text) {
+        }
+
+        @Override
+        public void error(String message) {
+            messages.add(message);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package br.ucsal.compiladores.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.utils.ReportGenerator;
+import br.ucsal.compiladores.utils.XxHash64;
+
+// Cache em disco do resultado de cada fonte: mensagens de erro e conteúdo dos relatórios .LEX e .TAB.
+// A chave é o XXH64 dos bytes do fonte, com semente derivada da versão do checker e do nome do arquivo
+// (o nome aparece no cabeçalho dos relatórios). Cada entrada é um arquivo próprio, escrito num arquivo
+// temporário e movido atomicamente para o nome final, então vários processos podem compartilhar o
+// diretório: quem lê vê a entrada inteira ou não vê nada. Quando o tamanho total passa do limite, as
+// entradas usadas há mais tempo (data de modificação, renovada a cada acerto) são apagadas.
+public class ResultCache {
+    private static final int MAGIC = 0x32353144;
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final int MAX_ENTRY_SHARE = 4;
+    private static final int COMPARE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    private ResultCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    public static ResultCache open(Path directory, long maxBytes) throws IOException {
+        Files.createDirectories(directory);
+        ResultCache cache = new ResultCache(directory, maxBytes);
+        long total = 0;
+        for (EntryFile entry : cache.listEntries()) {
+            total += entry.size;
+        }
+        cache.totalBytes.set(total);
+        return cache;
+    }
+
+    // Mantém a entrada aberta: os relatórios são copiados direto dela para o disco, sem passar pela memória,
+    // e continuam legíveis mesmo que outro processo apague a entrada antes de restoreReports()
+    public static class Entry implements Closeable {
+        private final List<String> diagnostics;
+        private final FileChannel channel;
+        private final long lexOffset;
+        private final long lexLength;
+        private final long tabOffset;
+        private final long tabLength;
+
+        Entry(List<String> diagnostics, FileChannel channel, long lexOffset, long lexLength, long tabOffset,
+                long tabLength) {
+            this.diagnostics = diagnostics;
+            this.channel = channel;
+            this.lexOffset = lexOffset;
+            this.lexLength = lexLength;
+            this.tabOffset = tabOffset;
+            this.tabLength = tabLength;
+        }
+
+        public List<String> getDiagnostics() {
+            return diagnostics;
+        }
+
+        // Regrava os relatórios ao lado do fonte; um relatório que já tem o conteúdo certo não é tocado
+        public void restoreReports(String inputFilePath) throws IOException {
+            restore(ReportGenerator.reportPath(inputFilePath, Constants.LEXICAL_REPORT_EXTENSION), lexOffset,
+                    lexLength);
+            restore(ReportGenerator.reportPath(inputFilePath, Constants.SYMBOL_TABLE_REPORT_EXTENSION), tabOffset,
+                    tabLength);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private void restore(Path report, long offset, long length) throws IOException {
+            if (Files.isRegularFile(report) && Files.size(report) == length && sameContent(report, offset, length)) {
+                return;
+            }
+            try (FileChannel out = FileChannel.open(report, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (long copied = 0; copied < length;) {
+                    copied += channel.transferTo(offset + copied, length - copied, out);
+                }
+            }
+        }
+
+        private boolean sameContent(Path report, long offset, long length) throws IOException {
+            ByteBuffer expected = ByteBuffer.allocate(COMPARE_BUFFER_SIZE);
+            ByteBuffer actual = ByteBuffer.allocate(COMPARE_BUFFER_SIZE);
+            try (FileChannel in = FileChannel.open(report, StandardOpenOption.READ)) {
+                long position = 0;
+                while (position < length) {
+                    int chunk = (int) Math.min(COMPARE_BUFFER_SIZE, length - position);
+                    expected.clear().limit(chunk);
+                    actual.clear().limit(chunk);
+                    readFully(channel, expected, offset + position);
+                    readFully(in, actual, position);
+                    if (!expected.flip().equals(actual.flip())) {
+                        return false;
+                    }
+                    position += chunk;
+                }
+            }
+            return true;
+        }
+    }
+
+    public long keyOf(Path source) throws IOException {
+        String identity = Constants.CHECKER_VERSION + '\0' + source.getFileName();
+        long hash = XxHash64.hash(identity.getBytes(StandardCharsets.UTF_8), 0);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Constants.MAPPED_READ_THRESHOLD_BYTES) {
+                return XxHash64.hash(Files.readAllBytes(source), hash);
+            }
+            // Fontes grandes: o hash de cada segmento mapeado é a semente do seguinte
+            for (long position = 0; position < size; position += Constants.MAPPED_SEGMENT_SIZE) {
+                long length = Math.min(Constants.MAPPED_SEGMENT_SIZE, size - position);
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                hash = XxHash64.hash(segment, hash);
+            }
+            return hash;
+        }
+    }
+
+    // null quando a entrada não existe ou está ilegível (entradas corrompidas são descartadas). A entrada
+    // devolvida precisa ser fechada
+    public Entry lookup(long key) {
+        Path file = entryPath(key);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            // O leitor com buffer lê adiante; a posição das seções é contada pelo que foi consumido
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            if (in.readInt() != MAGIC || in.readLong() != key) {
+                throw new IOException("Entrada inválida: " + file);
+            }
+            int count = in.readInt();
+            long position = Integer.BYTES + Long.BYTES + Integer.BYTES;
+            List<String> diagnostics = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] diagnostic = readBytes(in);
+                diagnostics.add(new String(diagnostic, StandardCharsets.UTF_8));
+                position += Integer.BYTES + diagnostic.length;
+            }
+            long lexLength = in.readLong();
+            long lexOffset = position + Long.BYTES;
+            ByteBuffer length = ByteBuffer.allocate(Long.BYTES);
+            readFully(channel, length, lexOffset + lexLength);
+            long tabLength = length.getLong(0);
+            long tabOffset = lexOffset + lexLength + Long.BYTES;
+            if (lexLength < 0 || tabLength < 0 || tabOffset + tabLength != channel.size()) {
+                throw new IOException("Entrada truncada: " + file);
+            }
+            Entry entry = new Entry(Collections.unmodifiableList(diagnostics), channel, lexOffset, lexLength,
+                    tabOffset, tabLength);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry;
+        } catch (NoSuchFileException e) {
+            closeQuietly(channel);
+            return null;
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    // Guarda o resultado de uma análise recém-concluída, com os relatórios que ela gerou, copiados direto
+    // para a entrada. Falhas ao gravar não afetam a verificação: a entrada simplesmente não fica no cache.
+    // Entradas maiores que 1/MAX_ENTRY_SHARE do limite também não são guardadas, para que uma só não
+    // force a limpeza de todas as outras.
+    public void store(long key, List<String> diagnostics, String inputFilePath) {
+        Path temporary = null;
+        try {
+            Path lexReport = ReportGenerator.reportPath(inputFilePath, Constants.LEXICAL_REPORT_EXTENSION);
+            Path tabReport = ReportGenerator.reportPath(inputFilePath, Constants.SYMBOL_TABLE_REPORT_EXTENSION);
+            long lexLength = Files.size(lexReport);
+            long tabLength = Files.size(tabReport);
+            if (lexLength + tabLength > maxBytes / MAX_ENTRY_SHARE) {
+                return;
+            }
+
+            temporary = Files.createTempFile(directory, Long.toHexString(key), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeLong(key);
+                out.writeInt(diagnostics.size());
+                for (String diagnostic : diagnostics) {
+                    writeBytes(out, diagnostic.getBytes(StandardCharsets.UTF_8));
+                }
+                copyReport(lexReport, lexLength, out);
+                copyReport(tabReport, tabLength, out);
+            }
+            long size = Files.size(temporary);
+            Files.move(temporary, entryPath(key), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            temporary = null;
+
+            if (totalBytes.addAndGet(size) > maxBytes) {
+                evict();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Cache indisponível ou cheio: segue sem a entrada
+        } finally {
+            if (temporary != null) {
+                deleteQuietly(temporary);
+            }
+        }
+    }
+
+    // O tamanho vai antes do conteúdo; um relatório alterado durante a cópia invalida a entrada
+    private static void copyReport(Path report, long length, DataOutputStream out) throws IOException {
+        out.writeLong(length);
+        if (Files.copy(report, out) != length) {
+            throw new IOException("Relatório alterado durante a cópia: " + report);
+        }
+    }
+
+    // Recontagem a partir do diretório, que também reflete o que outros processos gravaram ou apagaram.
+    // Apaga até sobrar 90% do limite, para não repetir a varredura a cada nova entrada.
+    private synchronized void evict() throws IOException {
+        List<EntryFile> entries = listEntries();
+        long total = 0;
+        for (EntryFile entry : entries) {
+            total += entry.size;
+        }
+        long target = maxBytes - maxBytes / 10;
+        entries.sort(Comparator.comparingLong(entry -> entry.lastUsed));
+        for (int i = 0; i < entries.size() && total > target; i++) {
+            deleteQuietly(entries.get(i).path);
+            total -= entries.get(i).size;
+        }
+        totalBytes.set(total);
+    }
+
+    private List<EntryFile> listEntries() throws IOException {
+        List<EntryFile> entries = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    entries.add(new EntryFile(file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                } catch (NoSuchFileException e) {
+                    // Apagada por outro processo durante a listagem
+                }
+            }
+        }
+        return entries;
+    }
+
+    private Path entryPath(long key) {
+        return directory.resolve(String.format("%016x", key) + ENTRY_SUFFIX);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new EOFException("Tamanho inválido: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Fim inesperado da entrada");
+            }
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nada a fazer: a entrada já foi descartada
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Será removida numa próxima limpeza
+        }
+    }
+
+    private static final class EntryFile {
+        final Path path;
+        final long size;
+        final long lastUsed;
+
+        EntryFile(Path path, long size, long lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
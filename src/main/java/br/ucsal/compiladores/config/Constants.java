@@ -14,6 +14,8 @@ public class Constants {
     };
 
     public static final String PROJECT_NAME = "CangaCode2025-1";
+    // Faz parte da chave do cache de resultados: mudar sempre que mensagens ou relatórios mudarem
+    public static final String CHECKER_VERSION = "1.0";
     public static final String FILE_EXTENSION = ".251";
     public static final String LEXICAL_REPORT_EXTENSION = ".LEX";
     public static final String SYMBOL_TABLE_REPORT_EXTENSION = ".TAB";
@@ -21,6 +23,26 @@ public class Constants {
     public static final int MAX_ATOM_EFFECTIVE_LENGTH = 32;
     public static final int MAX_SYMBOL_LEXEME_STORAGE_LENGTH = 35;
 
+    public static final long MAPPED_READ_THRESHOLD_BYTES = 8L * 1024 * 1024;
+    public static final long MAPPED_SEGMENT_SIZE = 1L << 30;
+    public static final int STREAMING_WINDOW_SIZE = 64 * 1024;
+    public static final int STREAMING_READ_HEAP_DIVISOR = 2;
+    public static final int TOKEN_LOOKAHEAD = 4;
+    public static final long PARALLEL_LEX_THRESHOLD_BYTES = 8L * 1024 * 1024;
+    public static final long PARALLEL_LEX_MIN_CHUNK_BYTES = 1024 * 1024;
+    public static final int PARALLEL_PARSE_MIN_FUNCTIONS = 64;
+    public static final long PARALLEL_PARSE_THRESHOLD_BYTES = 64 * 1024;
+    // Heap estimado para os tokens e a AST de cada byte do fonte lido por inteiro (medido: ~24)
+    public static final int READ_AHEAD_HEAP_PER_SOURCE_BYTE = 32;
+    public static final int TRACE_BATCH_CHARS = 8 * 1024;
+    public static final int TRACE_QUEUE_CAPACITY = 256;
+    public static final int REPORT_BATCH_CHARS = 64 * 1024;
+    public static final int LEX_REPORT_QUEUE_CAPACITY = 64;
+    public static final int LEX_REPORT_SYNC_TOKENS = 1024;
+    public static final int DAEMON_DEFAULT_PORT = 25100;
+    public static final long CACHE_DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    public static final int JFR_SLOW_FUNCTIONS = 10;
+
     public static final Set<Character> DELIMITERS_OR_TOKEN_STARTERS = Set.of(
             ' ', '\t', '\n', '\r', FileHandler.END_OF_FILE_CHAR,
             ';', ',', ':', '(', ')', '[', ']', '{', '}',
@@ -0,0 +1,67 @@
+package br.ucsal.compiladores.daemon;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import br.ucsal.compiladores.App.FileInputDetails;
+import br.ucsal.compiladores.parser.ParseListener;
+import br.ucsal.compiladores.parser.Parser;
+
+// Atende as requisições de uma conexão do daemon. O Parser é criado uma vez e reaproveitado em todas
+// as verificações da conexão; as mensagens de erro saem direto para o cliente, uma por linha, assim que
+// o Parser as produz.
+final class Checker implements ParseListener {
+    private final Writer out;
+    private final Parser parser;
+
+    Checker(Writer out) {
+        this.out = out;
+        this.parser = new Parser(this);
+    }
+
+    // Gera também os relatórios .LEX e .TAB ao lado do arquivo, como no modo interativo
+    int checkFile(FileInputDetails fileDetails) {
+        parser.run(fileDetails);
+        return parser.getErrorCount();
+    }
+
+    int checkSource(String name, String source) {
+        return parser.checkText(name, source);
+    }
+
+    @Override
+    public boolean isTracing() {
+        return false;
+    }
+
+    @Override
+    public void print(String text) {
+    }
+
+    @Override
+    public void println(String text) {
+    }
+
+    @Override
+    public void error(String message) {
+        write(CheckerDaemon.ERROR + " " + message.replace("\n", "\\n") + "\n");
+    }
+
+    @Override
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(String line) {
+        try {
+            out.write(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package br.ucsal.compiladores.daemon;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import br.ucsal.compiladores.App;
+import br.ucsal.compiladores.App.FileInputDetails;
+
+// Modo daemon: uma JVM de vida longa atende verificações por um socket local (porta TCP no loopback ou
+// socket de domínio Unix), sem pagar a partida da JVM e o JIT frio a cada arquivo. Protocolo de linhas
+// em UTF-8, uma requisição por vez em cada conexão (conexões diferentes são atendidas em paralelo):
+//
+//   CHECK <caminho>          analisa o arquivo (extensão .251 opcional) e gera os relatórios
+//   SOURCE <linhas> [nome]   analisa as <linhas> linhas seguintes, sem gerar relatórios
+//   PING                     responde PONG
+//   QUIT                     encerra a conexão
+//   SHUTDOWN                 encerra o daemon
+//
+// CHECK e SOURCE respondem com uma linha "ERROR <mensagem>" por erro, na ordem em que são encontrados,
+// e terminam com "DONE <quantidade de erros>"; um CHECK que não chega ao fim (erro de E/S) conta como um
+// erro a mais. Requisições inválidas, ou que falham no meio da análise, terminam com "FAIL <motivo>".
+public class CheckerDaemon implements Closeable {
+    static final String ERROR = "ERROR";
+
+    private final ServerSocketChannel server;
+    private final Path socketPath;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "checker-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private CheckerDaemon(ServerSocketChannel server, Path socketPath) {
+        this.server = server;
+        this.socketPath = socketPath;
+    }
+
+    // Porta 0 escolhe uma porta livre; getAddress() informa qual
+    public static CheckerDaemon onPort(int port) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        try {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        return new CheckerDaemon(server, null);
+    }
+
+    public static CheckerDaemon onSocket(Path socketPath) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException e) {
+            server.close();
+            throw new IOException("Não foi possível criar o socket " + socketPath + ": " + e.getMessage(), e);
+        }
+        return new CheckerDaemon(server, socketPath);
+    }
+
+    public SocketAddress getAddress() throws IOException {
+        return server.getLocalAddress();
+    }
+
+    // Aceita conexões até close() ou SHUTDOWN
+    public void serve() throws IOException {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            connections.execute(() -> handle(channel));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        connections.shutdownNow();
+        server.close();
+        if (socketPath != null) {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    private void handle(SocketChannel channel) {
+        try (SocketChannel connection = channel;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(Channels.newInputStream(connection), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(Channels.newOutputStream(connection), StandardCharsets.UTF_8))) {
+            Checker checker = new Checker(out);
+            String line;
+            while ((line = in.readLine()) != null) {
+                boolean keepOpen;
+                try {
+                    keepOpen = respond(line, in, out, checker);
+                } catch (UncheckedIOException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    // Falha do verificador numa requisição: responde e continua atendendo a conexão
+                    out.write("FAIL Erro inesperado durante a análise: "
+                            + String.valueOf(e.getMessage()).replace("\n", "\\n") + "\n");
+                    keepOpen = true;
+                }
+                out.flush();
+                if (!keepOpen) {
+                    break;
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // Cliente desconectou no meio da resposta: nada a fazer além de fechar a conexão
+        }
+    }
+
+    private boolean respond(String line, BufferedReader in, BufferedWriter out, Checker checker) throws IOException {
+        String request = line.trim();
+        int space = request.indexOf(' ');
+        String command = (space >= 0 ? request.substring(0, space) : request).toUpperCase();
+        String argument = space >= 0 ? request.substring(space + 1).trim() : "";
+
+        switch (command) {
+            case "CHECK":
+                checkFile(argument, out, checker);
+                return true;
+            case "SOURCE":
+                checkSource(argument, in, out, checker);
+                return true;
+            case "PING":
+                out.write("PONG\n");
+                return true;
+            case "QUIT":
+                return false;
+            case "SHUTDOWN":
+                out.write("BYE\n");
+                out.flush();
+                server.close();
+                return false;
+            case "":
+                return true;
+            default:
+                out.write("FAIL Comando desconhecido: " + command + "\n");
+                return true;
+        }
+    }
+
+    private static void checkFile(String userInputPath, BufferedWriter out, Checker checker) throws IOException {
+        if (userInputPath.isEmpty()) {
+            out.write("FAIL Caminho do arquivo não pode ser vazio.\n");
+            return;
+        }
+        Path path = App.resolveSourcePath(userInputPath);
+        if (!Files.isRegularFile(path)) {
+            out.write("FAIL Arquivo não encontrado ou não é um arquivo regular em: " + path + "\n");
+            return;
+        }
+        int errors = checker.checkFile(FileInputDetails.of(path));
+        out.write("DONE " + errors + "\n");
+    }
+
+    private static void checkSource(String argument, BufferedReader in, BufferedWriter out, Checker checker)
+            throws IOException {
+        String[] parts = argument.split("\\s+", 2);
+        int lineCount;
+        try {
+            lineCount = Integer.parseInt(parts[0]);
+        } catch (NumberFormatException e) {
+            lineCount = -1;
+        }
+        if (lineCount < 0) {
+            out.write("FAIL Quantidade de linhas inválida: " + parts[0] + "\n");
+            return;
+        }
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            String sourceLine = in.readLine();
+            if (sourceLine == null) {
+                throw new IOException("Conexão encerrada no meio do fonte");
+            }
+            source.append(sourceLine).append('\n');
+        }
+        String name = parts.length > 1 ? parts[1] : "fonte";
+        int errors = checker.checkSource(name, source.toString());
+        out.write("DONE " + errors + "\n");
+    }
+}
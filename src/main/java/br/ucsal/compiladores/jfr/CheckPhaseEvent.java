@@ -0,0 +1,29 @@
+package br.ucsal.compiladores.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("br.ucsal.compiladores.CheckPhase")
+@Label("Fase da verificação")
+@Description("Leitura, léxico, sintático ou gravação de relatório de um fonte")
+@Category("Static Checker")
+@StackTrace(false)
+public class CheckPhaseEvent extends Event {
+    @Label("Arquivo")
+    String filePath;
+
+    @Label("Fase")
+    String phase;
+
+    @Label("Tamanho do arquivo")
+    @DataAmount
+    long bytes;
+
+    @Label("Tokens do arquivo")
+    int tokens;
+}
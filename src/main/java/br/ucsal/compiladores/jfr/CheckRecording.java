@@ -0,0 +1,115 @@
+package br.ucsal.compiladores.jfr;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenStream;
+import br.ucsal.compiladores.lexer.TokenType;
+import br.ucsal.compiladores.stats.CheckPhase;
+
+// Eventos do JFR de uma chamada de Parser.run(). Sem gravação em andamento os eventos ficam desabilitados
+// e o custo é o de alguns objetos por arquivo. Cada fase é encerrada quando termina, mas os eventos só
+// são gravados no fim, quando o tamanho do fonte e a quantidade de tokens são conhecidos (e sem pilha,
+// que seria sempre a de commit()). Uma verificação que falha também grava os eventos, só das fases
+// concluídas e com as contagens do ponto da falha. Das funções, só as JFR_SLOW_FUNCTIONS mais lentas.
+public final class CheckRecording {
+    private final FileCheckEvent file = new FileCheckEvent();
+    private final CheckPhaseEvent[] phases = new CheckPhaseEvent[CheckPhase.values().length];
+    private CheckPhaseEvent current = new CheckPhaseEvent();
+    private final boolean functionsEnabled = new SlowFunctionEvent().isEnabled();
+    // A raiz é a mais rápida das guardadas e sai quando chega uma mais lenta
+    private final PriorityQueue<SlowFunctionEvent> slowest = new PriorityQueue<>(
+            Comparator.comparingLong(event -> event.elapsedNanos));
+
+    public CheckRecording() {
+        file.begin();
+        current.begin();
+    }
+
+    public void phaseFinished(CheckPhase phase) {
+        current.end();
+        current.phase = phase.getLabel();
+        phases[phase.ordinal()] = current;
+        current = new CheckPhaseEvent();
+        current.begin();
+    }
+
+    // Descarta o tempo desde a última fase (ex.: rastro impresso entre o léxico e a análise)
+    public void restartPhase() {
+        current.begin();
+    }
+
+    // null quando o evento de função está desabilitado. Pode ser chamado de qualquer thread, com o cursor
+    // no FUNCTYPE: a linha e o nome são lidos aqui, porque sem retainTokens() o início da função já terá
+    // saído do buffer quando ela terminar
+    public SlowFunctionEvent startFunction(TokenStream stream) {
+        if (!functionsEnabled) {
+            return null;
+        }
+        SlowFunctionEvent event = new SlowFunctionEvent();
+        event.start = stream.getPosition();
+        event.line = stream.getLine();
+        // FUNCTYPE tipo : nome — numa declaração com erro o nome pode faltar
+        stream.peekType(Constants.TOKEN_LOOKAHEAD - 1);
+        TokenBuffer tokens = stream.getBuffer();
+        for (int i = event.start + 1; i < tokens.size() && i <= event.start + 3; i++) {
+            if (tokens.getType(i) == TokenType.IDN_VARIABLE) {
+                event.nameIndex = i;
+                event.function = tokens.getLexeme(i);
+                break;
+            }
+        }
+        event.begin();
+        event.startNanos = System.nanoTime();
+        return event;
+    }
+
+    // end é a posição do token seguinte à função
+    public void stopFunction(SlowFunctionEvent event, int end) {
+        event.end();
+        event.elapsedNanos = System.nanoTime() - event.startNanos;
+        event.tokens = end - event.start;
+        if (event.nameIndex >= end) {
+            event.function = null;
+        }
+    }
+
+    // Só da thread que chamou run(), com as funções que entraram na análise
+    public void addFunction(SlowFunctionEvent event) {
+        if (event == null) {
+            return;
+        }
+        slowest.offer(event);
+        if (slowest.size() > Constants.JFR_SLOW_FUNCTIONS) {
+            slowest.poll();
+        }
+    }
+
+    // bytes é -1 quando o arquivo nem chegou a ser aberto
+    public void commit(String filePath, long bytes, int tokens, int symbols, int diagnostics, boolean failed) {
+        for (CheckPhaseEvent phase : phases) {
+            if (phase != null) {
+                phase.filePath = filePath;
+                phase.bytes = bytes;
+                phase.tokens = tokens;
+                phase.commit();
+            }
+        }
+        for (SlowFunctionEvent function : slowest) {
+            function.filePath = filePath;
+            function.bytes = bytes;
+            function.commit();
+        }
+        slowest.clear();
+        file.end();
+        file.filePath = filePath;
+        file.bytes = bytes;
+        file.tokens = tokens;
+        file.symbols = symbols;
+        file.diagnostics = diagnostics;
+        file.failed = failed;
+        file.commit();
+    }
+}
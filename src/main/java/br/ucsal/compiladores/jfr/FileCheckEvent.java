@@ -0,0 +1,36 @@
+package br.ucsal.compiladores.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("br.ucsal.compiladores.FileCheck")
+@Label("Verificação de arquivo")
+@Description("Parser.run() de um fonte, da abertura do arquivo à gravação dos relatórios")
+@Category("Static Checker")
+@StackTrace(false)
+public class FileCheckEvent extends Event {
+    @Label("Arquivo")
+    String filePath;
+
+    @Label("Tamanho")
+    @DataAmount
+    long bytes;
+
+    @Label("Tokens")
+    int tokens;
+
+    @Label("Símbolos")
+    int symbols;
+
+    @Label("Diagnósticos")
+    int diagnostics;
+
+    @Label("Falhou")
+    @Description("A verificação não chegou ao fim (ex.: erro de E/S); as contagens são as do ponto da falha")
+    boolean failed;
+}
@@ -0,0 +1,39 @@
+package br.ucsal.compiladores.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("br.ucsal.compiladores.SlowFunction")
+@Label("Função lenta")
+@Description("Uma das funções do bloco FUNCTIONS que mais demoraram para ser analisadas no arquivo")
+@Category("Static Checker")
+@StackTrace(false)
+public class SlowFunctionEvent extends Event {
+    @Label("Arquivo")
+    String filePath;
+
+    @Label("Tamanho do arquivo")
+    @DataAmount
+    long bytes;
+
+    @Label("Função")
+    String function;
+
+    @Label("Linha")
+    int line;
+
+    @Label("Tokens da função")
+    int tokens;
+
+    // Campos transient não são gravados pelo JFR: servem só para escolher as mais lentas e para contar
+    // os tokens da função
+    transient int start;
+    transient int nameIndex;
+    transient long startNanos;
+    transient long elapsedNanos;
+}
@@ -0,0 +1,61 @@
+package br.ucsal.compiladores.lexer;
+
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.utils.SourceReader;
+
+public final class CharClass {
+    public static final byte END_OF_FILE = 0;
+    public static final byte WHITESPACE = 1;
+    public static final byte LETTER = 2;
+    public static final byte DIGIT = 3;
+    public static final byte UNDERSCORE = 4;
+    public static final byte DOT = 5;
+    public static final byte DOUBLE_QUOTE = 6;
+    public static final byte SINGLE_QUOTE = 7;
+    public static final byte SLASH = 8;
+    public static final byte SYMBOL = 9;
+    public static final byte FILTERED = 10;
+
+    public static final int COUNT = 11;
+
+    private static final byte[] ASCII_CLASSES = new byte[128];
+
+    static {
+        for (int c = 0; c < ASCII_CLASSES.length; c++) {
+            ASCII_CLASSES[c] = FILTERED;
+        }
+        for (char c : Constants.DELIMITERS_OR_TOKEN_STARTERS) {
+            ASCII_CLASSES[c] = SYMBOL;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            ASCII_CLASSES[c] = LETTER;
+            ASCII_CLASSES[Character.toUpperCase(c)] = LETTER;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            ASCII_CLASSES[c] = DIGIT;
+        }
+        ASCII_CLASSES[' '] = WHITESPACE;
+        ASCII_CLASSES['\t'] = WHITESPACE;
+        ASCII_CLASSES['\n'] = WHITESPACE;
+        ASCII_CLASSES['\r'] = WHITESPACE;
+        ASCII_CLASSES[SourceReader.END_OF_FILE_CHAR] = END_OF_FILE;
+        ASCII_CLASSES['_'] = UNDERSCORE;
+        ASCII_CLASSES['.'] = DOT;
+        ASCII_CLASSES['"'] = DOUBLE_QUOTE;
+        ASCII_CLASSES['\''] = SINGLE_QUOTE;
+        ASCII_CLASSES['/'] = SLASH;
+    }
+
+    private CharClass() {
+    }
+
+    public static byte of(char c) {
+        if (c < 128) {
+            return ASCII_CLASSES[c];
+        }
+        if (Character.isLetter(c)) {
+            return LETTER;
+        }
+        return Character.isDigit(c) ? DIGIT : FILTERED;
+    }
+}
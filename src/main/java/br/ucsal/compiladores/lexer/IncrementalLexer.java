@@ -0,0 +1,143 @@
+package br.ucsal.compiladores.lexer;
+
+import br.ucsal.compiladores.symbolTable.SymbolRegistry;
+import br.ucsal.compiladores.utils.TextSourceReader;
+
+// Mantém os tokens de um texto em memória atualizados após edições. A reanálise começa um token antes
+// do último que inicia antes da edição (um token pode depender do caractere seguinte) e para no primeiro
+// token novo, depois do trecho inserido, que comece onde um token antigo começava: dali em diante o texto
+// é o mesmo e os tokens antigos são reaproveitados, só com offset, linha e coluna deslocados.
+public class IncrementalLexer {
+    private final String name;
+    private final TokenBuffer tokens;
+    private final SymbolRegistry symbols;
+
+    public IncrementalLexer(String name, TokenBuffer tokens, SymbolRegistry symbols) {
+        this.name = name;
+        this.tokens = tokens;
+        this.symbols = symbols;
+    }
+
+    public static TokenBuffer tokenize(String name, CharSequence text, SymbolRegistry symbols) {
+        return new Lexer(new TextSourceReader(name, text), symbols).tokenizeToBuffer();
+    }
+
+    // text já contém a edição: removedLength caracteres em offset foram trocados por insertedLength
+    public Damage applyEdit(CharSequence text, int offset, int removedLength, int insertedLength) {
+        int last = lastTokenStartingBefore(offset);
+        int first = Math.max(0, last - 1);
+        TextSourceReader reader = last < 0 ? new TextSourceReader(name, text)
+                : new TextSourceReader(name, text, (int) tokens.getOffset(first), tokens.getLine(first),
+                        tokens.getColumn(first));
+        Lexer lexer = new Lexer(reader, symbols);
+
+        long editEnd = (long) offset + insertedLength;
+        long offsetShift = (long) insertedLength - removedLength;
+        TokenBuffer relexed = new TokenBuffer(16);
+        int resync = tokens.size();
+        while (true) {
+            int index = relexed.size();
+            if (lexer.lexInto(relexed) == TokenType.END_OF_FILE) {
+                break;
+            }
+            long tokenOffset = relexed.getOffset(index);
+            if (tokenOffset >= editEnd) {
+                int old = findTokenStartingAt(tokenOffset - offsetShift, first);
+                if (old >= 0) {
+                    resync = old;
+                    int lineShift = relexed.getLine(index) - tokens.getLine(old);
+                    int columnShift = relexed.getColumn(index) - tokens.getColumn(old);
+                    relexed.truncate(index);
+                    return splice(first, resync, relexed, offsetShift, lineShift, columnShift);
+                }
+            }
+        }
+        return splice(first, resync, relexed, offsetShift, 0, 0);
+    }
+
+    // Os tokens reaproveitados da linha do ponto de reencontro mudam de coluna; eles entram no trecho
+    // danificado para que quem guardou a coluna (mensagens de erro) também seja refeito
+    private Damage splice(int first, int resync, TokenBuffer relexed, long offsetShift, int lineShift,
+            int columnShift) {
+        int oldEnd = resync;
+        if (columnShift != 0) {
+            int resyncLine = tokens.getLine(resync);
+            while (oldEnd < tokens.size() && tokens.getLine(oldEnd) == resyncLine) {
+                oldEnd++;
+            }
+        }
+        int columnShiftLine = resync < tokens.size() ? tokens.getLine(resync) : -1;
+        tokens.replaceRange(first, resync, relexed, offsetShift, lineShift, columnShiftLine, columnShift);
+        int newEnd = first + relexed.size() + (oldEnd - resync);
+        return new Damage(first, oldEnd, newEnd, relexed.size());
+    }
+
+    private int lastTokenStartingBefore(long offset) {
+        int low = tokens.getFirstIndex();
+        int high = tokens.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (tokens.getOffset(middle) < offset) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    private int findTokenStartingAt(long offset, int from) {
+        int low = from;
+        int high = tokens.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleOffset = tokens.getOffset(middle);
+            if (middleOffset == offset) {
+                return middle;
+            }
+            if (middleOffset < offset) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return -1;
+    }
+
+    // Trecho de tokens refeito: [first, oldEnd) antes da edição virou [first, newEnd) depois dela
+    public static final class Damage {
+        private final int first;
+        private final int oldEnd;
+        private final int newEnd;
+        private final int relexedTokens;
+
+        Damage(int first, int oldEnd, int newEnd, int relexedTokens) {
+            this.first = first;
+            this.oldEnd = oldEnd;
+            this.newEnd = newEnd;
+            this.relexedTokens = relexedTokens;
+        }
+
+        public int getFirst() {
+            return first;
+        }
+
+        public int getOldEnd() {
+            return oldEnd;
+        }
+
+        public int getNewEnd() {
+            return newEnd;
+        }
+
+        public int getRelexedTokens() {
+            return relexedTokens;
+        }
+
+        public int getTokenShift() {
+            return newEnd - oldEnd;
+        }
+    }
+}
@@ -2,48 +2,148 @@ package br.ucsal.compiladores.lexer;
 
 import br.ucsal.compiladores.config.Constants;
 import br.ucsal.compiladores.reserved.ReservedTable;
-import br.ucsal.compiladores.symbolTable.SymbolTable;
-import br.ucsal.compiladores.utils.FileHandler;
+import br.ucsal.compiladores.symbolTable.SymbolRegistry;
+import br.ucsal.compiladores.utils.SourceReader;
 import java.util.ArrayList;
 import java.util.List;
 
 public class Lexer {
-    private final FileHandler fileHandler;
+    // Ações do laço de identificadores, indexadas por CharClass
+    private static final byte IDENT_STOP = 0;
+    private static final byte IDENT_APPEND = 1;
+    private static final byte IDENT_SKIP = 2;
+    private static final byte[] IDENT_ACTIONS = new byte[CharClass.COUNT];
+
+    // Autômato de constantes numéricas: estado x classe do caractere -> próximo estado
+    private static final int NUM_INT = 0;
+    private static final int NUM_FRACTION = 1;
+    private static final int NUM_EXPONENT = 2;
+    private static final int NUM_EXPONENT_SIGN = 3;
+    private static final int NUM_EXPONENT_DIGITS = 4;
+    private static final int NUM_ACCEPT = 5;
+    private static final int NUM_REJECT_EXPONENT = 6;
+    private static final int NUM_DOT_LOOKAHEAD = 7;
+
+    private static final int NUM_IN_DIGIT = 0;
+    private static final int NUM_IN_DOT = 1;
+    private static final int NUM_IN_EXPONENT_MARK = 2;
+    private static final int NUM_IN_SIGN = 3;
+    private static final int NUM_IN_OTHER = 4;
+
+    private static final int[][] NUMBER_TRANSITIONS = {
+            // DIGIT, DOT, E, SIGN, OTHER
+            { NUM_INT, NUM_DOT_LOOKAHEAD, NUM_ACCEPT, NUM_ACCEPT, NUM_ACCEPT },
+            { NUM_FRACTION, NUM_ACCEPT, NUM_EXPONENT, NUM_ACCEPT, NUM_ACCEPT },
+            { NUM_EXPONENT_DIGITS, NUM_REJECT_EXPONENT, NUM_REJECT_EXPONENT, NUM_EXPONENT_SIGN, NUM_REJECT_EXPONENT },
+            { NUM_EXPONENT_DIGITS, NUM_REJECT_EXPONENT, NUM_REJECT_EXPONENT, NUM_REJECT_EXPONENT,
+                    NUM_REJECT_EXPONENT },
+            { NUM_EXPONENT_DIGITS, NUM_ACCEPT, NUM_ACCEPT, NUM_ACCEPT, NUM_ACCEPT },
+    };
+
+    // Símbolos reservados: tipo do símbolo isolado e tipo quando seguido de '='
+    private static final TokenType[] SINGLE_SYMBOLS = new TokenType[128];
+    private static final String[] SINGLE_SYMBOL_LEXEMES = new String[128];
+    private static final TokenType[] SYMBOLS_WITH_EQUALS = new TokenType[128];
+    private static final String[] SYMBOL_WITH_EQUALS_LEXEMES = new String[128];
+
+    static {
+        IDENT_ACTIONS[CharClass.LETTER] = IDENT_APPEND;
+        IDENT_ACTIONS[CharClass.DIGIT] = IDENT_APPEND;
+        IDENT_ACTIONS[CharClass.UNDERSCORE] = IDENT_APPEND;
+        IDENT_ACTIONS[CharClass.FILTERED] = IDENT_SKIP;
+
+        single(';', TokenType.SRS_SEMICOLON);
+        single(',', TokenType.SRS_COMMA);
+        single('(', TokenType.SRS_LEFT_PARENTHESIS);
+        single(')', TokenType.SRS_RIGHT_PARENTHESIS);
+        single('[', TokenType.SRS_LEFT_BRACKET);
+        single(']', TokenType.SRS_RIGHT_BRACKET);
+        single('{', TokenType.SRS_LEFT_BRACE);
+        single('}', TokenType.SRS_RIGHT_BRACE);
+        single('+', TokenType.SRS_PLUS);
+        single('-', TokenType.SRS_MINUS);
+        single('*', TokenType.SRS_MULTIPLICATION);
+        single('/', TokenType.SRS_DIVISION);
+        single('%', TokenType.SRS_MODULO);
+        single('?', TokenType.SRS_QUESTION_MARK);
+        single(':', TokenType.SRS_COLON);
+        single('#', TokenType.SRS_NOT_EQUAL);
+        single('<', TokenType.SRS_LESS_THAN);
+        single('>', TokenType.SRS_GREATER_THAN);
+        single('=', TokenType.UNKNOWN);
+        single('!', TokenType.UNKNOWN);
+        single('.', TokenType.UNKNOWN);
+
+        withEquals(':', TokenType.SRS_ASSIGNMENT);
+        withEquals('=', TokenType.SRS_EQUAL_COMPARISON);
+        withEquals('!', TokenType.SRS_NOT_EQUAL);
+        withEquals('<', TokenType.SRS_LESS_THAN_OR_EQUAL);
+        withEquals('>', TokenType.SRS_GREATER_THAN_OR_EQUAL);
+    }
+
+    private static void single(char c, TokenType type) {
+        SINGLE_SYMBOLS[c] = type;
+        SINGLE_SYMBOL_LEXEMES[c] = String.valueOf(c);
+    }
+
+    private static void withEquals(char c, TokenType type) {
+        SYMBOLS_WITH_EQUALS[c] = type;
+        SYMBOL_WITH_EQUALS_LEXEMES[c] = c + "=";
+    }
+
+    private final SourceReader fileHandler;
     private final ReservedTable reservedTable;
-    private final SymbolTable symbolTable;
+    private final SymbolRegistry symbolTable;
+
+    // Destino e deslocamento do token em análise (válidos durante lexInto)
+    private TokenBuffer output;
+    private long tokenOffset;
+    // Buffer de trabalho reaproveitado entre tokens: o lexema é copiado daqui direto para o TokenBuffer
+    private final char[] lexemeChars = new char[Math.max(Constants.MAX_SYMBOL_LEXEME_STORAGE_LENGTH,
+            Constants.MAX_ATOM_EFFECTIVE_LENGTH)];
 
-    public Lexer(FileHandler fileHandler, SymbolTable symbolTable) {
+    public Lexer(SourceReader fileHandler, SymbolRegistry symbolTable) {
         this.fileHandler = fileHandler;
-        this.reservedTable = new ReservedTable();
+        this.reservedTable = ReservedTable.getInstance();
         this.symbolTable = symbolTable;
     }
 
+    public TokenStream stream() {
+        return new TokenStream(this, new TokenBuffer());
+    }
+
+    public TokenBuffer tokenizeToBuffer() {
+        TokenBuffer tokens = new TokenBuffer();
+        while (lexInto(tokens) != TokenType.END_OF_FILE) {
+        }
+        return tokens;
+    }
+
     public List<Token> tokenize() {
-        List<Token> tokens = new ArrayList<>();
-        Token token;
-        do {
-            token = getNextToken();
-            tokens.add(token);
-        } while (token.getType() != TokenType.END_OF_FILE);
+        TokenBuffer buffer = tokenizeToBuffer();
+        List<Token> tokens = new ArrayList<>(buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            tokens.add(buffer.getToken(i));
+        }
         return tokens;
     }
 
-    private void skipWhitespaceAndComments() {
+    // Descarta espaços, comentários e caracteres filtrados entre átomos
+    private void skipTrivia() {
         while (true) {
             char currentChar = fileHandler.getCurrentChar();
-            if (currentChar == FileHandler.END_OF_FILE_CHAR)
-                break;
-            if (currentChar == ' ' || currentChar == '\t' || currentChar == '\n' || currentChar == '\r') {
+            byte charClass = CharClass.of(currentChar);
+            if (charClass == CharClass.WHITESPACE || charClass == CharClass.FILTERED) {
                 fileHandler.advance();
                 continue;
             }
-            if (currentChar == '/') {
+            if (charClass == CharClass.SLASH) {
                 char peekChar = fileHandler.peek();
                 if (peekChar == '/') {
                     int commentLineStart = fileHandler.getCurrentLineNumber();
                     fileHandler.advance();
                     fileHandler.advance();
-                    while (fileHandler.getCurrentChar() != FileHandler.END_OF_FILE_CHAR
+                    while (fileHandler.getCurrentChar() != SourceReader.END_OF_FILE_CHAR
                             && fileHandler.getCurrentLineNumber() == commentLineStart) {
                         fileHandler.advance();
                     }
@@ -53,7 +153,7 @@ public class Lexer {
                     fileHandler.advance();
                     while (true) {
                         char insideBlockChar = fileHandler.getCurrentChar();
-                        if (insideBlockChar == FileHandler.END_OF_FILE_CHAR)
+                        if (insideBlockChar == SourceReader.END_OF_FILE_CHAR)
                             break;
                         if (insideBlockChar == '*' && fileHandler.peek() == '/') {
                             fileHandler.advance();
@@ -69,386 +169,232 @@ public class Lexer {
         }
     }
 
-    private boolean isCharToFilter(char c) {
-        if (c == FileHandler.END_OF_FILE_CHAR)
-            return false;
-        if (Character.isLetterOrDigit(c) || c == '_')
-            return false;
-        if (c == '"' || c == '\'')
-            return false;
-        if (c == '.')
-            return false;
-        return !Constants.DELIMITERS_OR_TOKEN_STARTERS.contains(c);
-    }
-
-    private Token getNextToken() {
-        skipWhitespaceAndComments();
-
-        while (isCharToFilter(fileHandler.getCurrentChar())) {
-            fileHandler.advance();
-            skipWhitespaceAndComments();
-        }
+    // Analisa o próximo token, acrescenta-o ao buffer e devolve seu tipo
+    TokenType lexInto(TokenBuffer output) {
+        this.output = output;
+        skipTrivia();
 
+        tokenOffset = fileHandler.getCurrentOffset();
         int tokenLine = fileHandler.getCurrentLineNumber();
         int tokenColumn = fileHandler.getCurrentColumnNumber();
         char currentChar = fileHandler.getCurrentChar();
 
-        if (currentChar == FileHandler.END_OF_FILE_CHAR) {
-            return new Token(TokenType.END_OF_FILE, "", tokenLine, tokenColumn);
+        switch (CharClass.of(currentChar)) {
+            case CharClass.END_OF_FILE:
+                return emit(TokenType.END_OF_FILE, "", tokenLine, tokenColumn);
+            case CharClass.LETTER:
+            case CharClass.UNDERSCORE:
+                return scanIdentifierOrKeyword(tokenLine, tokenColumn, currentChar);
+            case CharClass.DIGIT:
+                return scanNumber(tokenLine, tokenColumn, currentChar, NUM_INT);
+            case CharClass.DOT:
+                if (CharClass.of(fileHandler.peek()) == CharClass.DIGIT) {
+                    return scanNumber(tokenLine, tokenColumn, currentChar, NUM_FRACTION);
+                }
+                return scanSymbol(tokenLine, tokenColumn, currentChar);
+            case CharClass.DOUBLE_QUOTE:
+                return scanStringLiteral(tokenLine, tokenColumn, currentChar);
+            case CharClass.SINGLE_QUOTE:
+                return scanCharLiteral(tokenLine, tokenColumn, currentChar);
+            default:
+                return scanSymbol(tokenLine, tokenColumn, currentChar);
         }
-
-        Token token;
-
-        token = tryParseIdentifierOrKeyword(tokenLine, tokenColumn, currentChar);
-        if (token != null)
-            return token;
-
-        token = tryParseNumber(tokenLine, tokenColumn, currentChar);
-        if (token != null)
-            return token;
-
-        token = tryParseStringLiteral(tokenLine, tokenColumn, currentChar);
-        if (token != null)
-            return token;
-
-        token = tryParseCharLiteral(tokenLine, tokenColumn, currentChar);
-        if (token != null)
-            return token;
-
-        return parseSymbolOrUnknown(tokenLine, tokenColumn, fileHandler.getCurrentChar());
     }
 
-    private Token tryParseIdentifierOrKeyword(int tokenLine, int tokenColumn, char currentChar) {
-        if (Character.isLetter(currentChar) || currentChar == '_') {
-            StringBuilder sb = new StringBuilder();
-            @SuppressWarnings("unused")
-            int originalLengthCounter = 0;
-            char currentLocalChar = currentChar;
+    private TokenType scanIdentifierOrKeyword(int tokenLine, int tokenColumn, char currentChar) {
+        int originalLength = 0;
+        boolean asciiOnly = true;
+        char currentLocalChar = currentChar;
 
-            while (true) {
-                if (Character.isLetterOrDigit(currentLocalChar) || currentLocalChar == '_') {
-                    sb.append(currentLocalChar);
-                    fileHandler.advance();
-                    currentLocalChar = fileHandler.getCurrentChar();
-                    originalLengthCounter++;
-                } else if (isCharToFilter(currentLocalChar)) {
-                    fileHandler.advance();
-                    currentLocalChar = fileHandler.getCurrentChar();
-                    originalLengthCounter++;
-                } else {
-                    break;
+        while (true) {
+            byte action = IDENT_ACTIONS[CharClass.of(currentLocalChar)];
+            if (action == IDENT_STOP) {
+                break;
+            }
+            if (action == IDENT_APPEND) {
+                if (originalLength < lexemeChars.length) {
+                    lexemeChars[originalLength] = currentLocalChar;
                 }
+                asciiOnly &= currentLocalChar < 128;
+                originalLength++;
             }
+            fileHandler.advance();
+            currentLocalChar = fileHandler.getCurrentChar();
+        }
 
-            String fullRawLexemeCollected = sb.toString();
-            int finalOriginalLength = fullRawLexemeCollected.length();
+        int storedLength = Math.min(originalLength, Constants.MAX_SYMBOL_LEXEME_STORAGE_LENGTH);
+        if (!asciiOnly) {
+            return emitNonAsciiIdentifier(tokenLine, tokenColumn, storedLength, originalLength);
+        }
 
-            String effectiveLexemeForTokenAndKey = fullRawLexemeCollected;
-            if (finalOriginalLength > Constants.MAX_ATOM_EFFECTIVE_LENGTH) {
-                effectiveLexemeForTokenAndKey = fullRawLexemeCollected.substring(0,
-                        Constants.MAX_ATOM_EFFECTIVE_LENGTH);
+        // Caixa alta feita no próprio buffer: só o trecho que será guardado (até 35 caracteres) é dobrado
+        for (int i = 0; i < storedLength; i++) {
+            char c = lexemeChars[i];
+            if (c >= 'a' && c <= 'z') {
+                lexemeChars[i] = (char) (c - ('a' - 'A'));
             }
-            String upperEffectiveLexeme = effectiveLexemeForTokenAndKey.toUpperCase();
+        }
+        int effectiveLength = Math.min(originalLength, Constants.MAX_ATOM_EFFECTIVE_LENGTH);
 
-            String displayLexemeForSymbol = fullRawLexemeCollected;
-            if (finalOriginalLength > Constants.MAX_SYMBOL_LEXEME_STORAGE_LENGTH) {
-                displayLexemeForSymbol = fullRawLexemeCollected.substring(0,
-                        Constants.MAX_SYMBOL_LEXEME_STORAGE_LENGTH);
-            }
-            String upperDisplayLexeme = displayLexemeForSymbol.toUpperCase();
-
-            TokenType reservedType = reservedTable.getTokenType(upperEffectiveLexeme);
-            if (reservedType != null) {
-                return new Token(reservedType, upperEffectiveLexeme, tokenLine, tokenColumn);
-            } else {
-                int symbolIndex = symbolTable.addOrGetSymbol(
-                        upperEffectiveLexeme,
-                        upperDisplayLexeme,
-                        TokenType.IDN_VARIABLE,
-                        finalOriginalLength,
-                        tokenLine);
-                return new Token(TokenType.IDN_VARIABLE, upperEffectiveLexeme, tokenLine, tokenColumn, symbolIndex);
-            }
+        TokenType reservedType = reservedTable.getTokenType(lexemeChars, 0, effectiveLength);
+        if (reservedType != null) {
+            return emit(reservedType, effectiveLength, tokenLine, tokenColumn, TokenBuffer.NO_SYMBOL);
         }
-        return null;
+        int symbolIndex = symbolTable.addOrGetSymbol(
+                lexemeChars,
+                effectiveLength,
+                storedLength,
+                TokenType.IDN_VARIABLE,
+                originalLength,
+                tokenLine,
+                tokenOffset);
+        return emit(TokenType.IDN_VARIABLE, effectiveLength, tokenLine, tokenColumn, symbolIndex);
     }
 
-    private Token tryParseNumber(int tokenLine, int tokenColumn, char currentChar) {
-        if (Character.isDigit(currentChar) || (currentChar == '.' && Character.isDigit(fileHandler.peek()))) {
-            StringBuilder sb = new StringBuilder();
-            TokenType currentNumberType = TokenType.IDN_INT_CONST;
-            char currentLocalChar = currentChar;
-
-            if (currentLocalChar == '.') {
-                sb.append(currentLocalChar);
-                fileHandler.advance();
-                currentLocalChar = fileHandler.getCurrentChar();
-                currentNumberType = TokenType.IDN_REAL_CONST;
-            }
+    // Letras fora do ASCII podem mudar de tamanho em caixa alta (ex.: 'ß' -> "SS"), então seguem por String
+    private TokenType emitNonAsciiIdentifier(int tokenLine, int tokenColumn, int storedLength, int originalLength) {
+        String rawLexeme = new String(lexemeChars, 0, storedLength);
+        String upperEffectiveLexeme = rawLexeme
+                .substring(0, Math.min(storedLength, Constants.MAX_ATOM_EFFECTIVE_LENGTH)).toUpperCase();
+        String upperDisplayLexeme = rawLexeme.toUpperCase();
 
-            while (Character.isDigit(currentLocalChar)) {
-                sb.append(currentLocalChar);
-                fileHandler.advance();
-                currentLocalChar = fileHandler.getCurrentChar();
-            }
+        TokenType reservedType = reservedTable.getTokenType(upperEffectiveLexeme);
+        if (reservedType != null) {
+            return emit(reservedType, upperEffectiveLexeme, tokenLine, tokenColumn);
+        }
+        int symbolIndex = symbolTable.addOrGetSymbol(
+                upperEffectiveLexeme,
+                upperDisplayLexeme,
+                TokenType.IDN_VARIABLE,
+                originalLength,
+                tokenLine,
+                tokenOffset);
+        return emit(TokenType.IDN_VARIABLE, upperEffectiveLexeme, tokenLine, tokenColumn, symbolIndex);
+    }
 
-            if (currentLocalChar == '.' && currentNumberType == TokenType.IDN_INT_CONST
-                    && Character.isDigit(fileHandler.peek())) {
-                currentNumberType = TokenType.IDN_REAL_CONST;
-                sb.append(currentLocalChar);
-                fileHandler.advance();
-                currentLocalChar = fileHandler.getCurrentChar();
-                while (Character.isDigit(currentLocalChar)) {
-                    sb.append(currentLocalChar);
-                    fileHandler.advance();
-                    currentLocalChar = fileHandler.getCurrentChar();
-                }
-            }
+    private TokenType emit(TokenType type, String lexeme, int tokenLine, int tokenColumn) {
+        return emit(type, lexeme, tokenLine, tokenColumn, TokenBuffer.NO_SYMBOL);
+    }
 
-            if (currentNumberType == TokenType.IDN_REAL_CONST && (currentLocalChar == 'e' || currentLocalChar == 'E')) {
-                StringBuilder exponentPartAttempt = new StringBuilder();
-                exponentPartAttempt.append(currentLocalChar);
+    private TokenType emit(TokenType type, String lexeme, int tokenLine, int tokenColumn, int symbolIndex) {
+        output.add(type, lexeme, tokenLine, tokenColumn, tokenOffset, symbolIndex);
+        return type;
+    }
 
-                fileHandler.advance();
-                char charAfterE = fileHandler.getCurrentChar();
+    // Emite os primeiros caracteres do buffer de trabalho, já truncados ao tamanho efetivo do átomo
+    private TokenType emit(TokenType type, int lexemeLength, int tokenLine, int tokenColumn, int symbolIndex) {
+        output.add(type, lexemeChars, 0, Math.min(lexemeLength, Constants.MAX_ATOM_EFFECTIVE_LENGTH), tokenLine,
+                tokenColumn, tokenOffset, symbolIndex);
+        return type;
+    }
 
-                if (charAfterE == '+' || charAfterE == '-') {
-                    exponentPartAttempt.append(charAfterE);
-                    fileHandler.advance();
-                    charAfterE = fileHandler.getCurrentChar();
-                }
+    // Acrescenta ao buffer de trabalho; além do tamanho efetivo só o comprimento continua sendo contado
+    private int appendLexemeChar(int lexemeLength, char c) {
+        if (lexemeLength < Constants.MAX_ATOM_EFFECTIVE_LENGTH) {
+            lexemeChars[lexemeLength] = c;
+        }
+        return lexemeLength + 1;
+    }
 
-                if (Character.isDigit(charAfterE)) {
-                    while (Character.isDigit(charAfterE)) {
-                        exponentPartAttempt.append(charAfterE);
-                        fileHandler.advance();
-                        charAfterE = fileHandler.getCurrentChar();
-                    }
-                    sb.append(exponentPartAttempt.toString());
-                }
-            }
+    private static int numberInputOf(char c) {
+        if (c == 'e' || c == 'E')
+            return NUM_IN_EXPONENT_MARK;
+        if (c == '+' || c == '-')
+            return NUM_IN_SIGN;
+        if (c == '.')
+            return NUM_IN_DOT;
+        return CharClass.of(c) == CharClass.DIGIT ? NUM_IN_DIGIT : NUM_IN_OTHER;
+    }
 
-            String fullNumericLexeme = sb.toString();
-            if (fullNumericLexeme.isEmpty()) {
-                return null;
-            }
+    private TokenType scanNumber(int tokenLine, int tokenColumn, char currentChar, int startState) {
+        int length = 0;
+        int state = startState;
+        int lengthBeforeExponent = 0;
 
-            String tokenNumericLexeme = fullNumericLexeme;
-            if (fullNumericLexeme.length() > Constants.MAX_ATOM_EFFECTIVE_LENGTH) {
-                tokenNumericLexeme = fullNumericLexeme.substring(0, Constants.MAX_ATOM_EFFECTIVE_LENGTH);
-            }
-            return new Token(currentNumberType, tokenNumericLexeme, tokenLine, tokenColumn);
+        if (startState == NUM_FRACTION) {
+            length = appendLexemeChar(length, currentChar);
+            fileHandler.advance();
         }
-        return null;
-    }
 
-    private Token tryParseStringLiteral(int tokenLine, int tokenColumn, char currentChar) {
-        if (currentChar == '"') {
-            StringBuilder sb = new StringBuilder();
-            sb.append(currentChar);
-            fileHandler.advance();
+        while (true) {
             char currentLocalChar = fileHandler.getCurrentChar();
+            int nextState = NUMBER_TRANSITIONS[state][numberInputOf(currentLocalChar)];
 
-            while (currentLocalChar != '"' &&
-                    currentLocalChar != FileHandler.END_OF_FILE_CHAR &&
-                    fileHandler.getCurrentLineNumber() == tokenLine) {
-                sb.append(currentLocalChar);
-                fileHandler.advance();
-                currentLocalChar = fileHandler.getCurrentChar();
-            }
-
-            String tokenStringLexeme;
-            TokenType type;
-            if (currentLocalChar == '"') {
-                sb.append(currentLocalChar);
-                fileHandler.advance();
-                tokenStringLexeme = sb.toString();
-                type = TokenType.IDN_STRING_CONST;
-            } else {
-                tokenStringLexeme = sb.toString();
-                type = TokenType.UNKNOWN;
+            if (nextState == NUM_DOT_LOOKAHEAD) {
+                if (CharClass.of(fileHandler.peek()) != CharClass.DIGIT) {
+                    break;
+                }
+                nextState = NUM_FRACTION;
+            } else if (nextState == NUM_ACCEPT) {
+                break;
+            } else if (nextState == NUM_REJECT_EXPONENT) {
+                length = lengthBeforeExponent;
+                break;
+            } else if (nextState == NUM_EXPONENT) {
+                lengthBeforeExponent = length;
             }
 
-            if (tokenStringLexeme.length() > Constants.MAX_ATOM_EFFECTIVE_LENGTH) {
-                tokenStringLexeme = tokenStringLexeme.substring(0, Constants.MAX_ATOM_EFFECTIVE_LENGTH);
-            }
-            return new Token(type, tokenStringLexeme, tokenLine, tokenColumn);
+            length = appendLexemeChar(length, currentLocalChar);
+            fileHandler.advance();
+            state = nextState;
         }
-        return null;
+
+        TokenType numberType = (state == NUM_INT) ? TokenType.IDN_INT_CONST : TokenType.IDN_REAL_CONST;
+        return emit(numberType, length, tokenLine, tokenColumn, TokenBuffer.NO_SYMBOL);
     }
 
-    private Token tryParseCharLiteral(int tokenLine, int tokenColumn, char currentChar) {
-        if (currentChar == '\'') {
-            StringBuilder sb = new StringBuilder();
-            sb.append(currentChar);
+    private TokenType scanStringLiteral(int tokenLine, int tokenColumn, char currentChar) {
+        int length = appendLexemeChar(0, currentChar);
+        fileHandler.advance();
+        char currentLocalChar = fileHandler.getCurrentChar();
+
+        while (currentLocalChar != '"' &&
+                currentLocalChar != SourceReader.END_OF_FILE_CHAR &&
+                fileHandler.getCurrentLineNumber() == tokenLine) {
+            length = appendLexemeChar(length, currentLocalChar);
             fileHandler.advance();
-            char charInside = fileHandler.getCurrentChar();
+            currentLocalChar = fileHandler.getCurrentChar();
+        }
 
-            if (Character.isLetter(charInside) && fileHandler.getCurrentLineNumber() == tokenLine) {
-                sb.append(charInside);
-                fileHandler.advance();
-                if (fileHandler.getCurrentChar() == '\'' && fileHandler.getCurrentLineNumber() == tokenLine) {
-                    sb.append(fileHandler.getCurrentChar());
-                    fileHandler.advance();
-                    return new Token(TokenType.IDN_CHAR_CONST, sb.toString(), tokenLine, tokenColumn);
-                } else {
-                    return new Token(TokenType.UNKNOWN, sb.toString(), tokenLine, tokenColumn);
-                }
-            } else {
-                return new Token(TokenType.UNKNOWN, sb.toString(), tokenLine, tokenColumn);
-            }
+        TokenType type = TokenType.UNKNOWN;
+        if (currentLocalChar == '"') {
+            length = appendLexemeChar(length, currentLocalChar);
+            fileHandler.advance();
+            type = TokenType.IDN_STRING_CONST;
         }
-        return null;
+        return emit(type, length, tokenLine, tokenColumn, TokenBuffer.NO_SYMBOL);
     }
 
-    private Token parseSymbolOrUnknown(int tokenLine, int tokenColumn, char currentChar) {
-        String symbolLexeme = "";
-        TokenType symbolType = TokenType.UNKNOWN;
+    private TokenType scanCharLiteral(int tokenLine, int tokenColumn, char currentChar) {
+        int length = appendLexemeChar(0, currentChar);
+        fileHandler.advance();
+        char charInside = fileHandler.getCurrentChar();
 
-        switch (currentChar) {
-            case ';':
-                symbolLexeme = ";";
-                symbolType = TokenType.SRS_SEMICOLON;
-                fileHandler.advance();
-                break;
-            case ',':
-                symbolLexeme = ",";
-                symbolType = TokenType.SRS_COMMA;
-                fileHandler.advance();
-                break;
-            case '(':
-                symbolLexeme = "(";
-                symbolType = TokenType.SRS_LEFT_PARENTHESIS;
-                fileHandler.advance();
-                break;
-            case ')':
-                symbolLexeme = ")";
-                symbolType = TokenType.SRS_RIGHT_PARENTHESIS;
-                fileHandler.advance();
-                break;
-            case '[':
-                symbolLexeme = "[";
-                symbolType = TokenType.SRS_LEFT_BRACKET;
-                fileHandler.advance();
-                break;
-            case ']':
-                symbolLexeme = "]";
-                symbolType = TokenType.SRS_RIGHT_BRACKET;
-                fileHandler.advance();
-                break;
-            case '{':
-                symbolLexeme = "{";
-                symbolType = TokenType.SRS_LEFT_BRACE;
-                fileHandler.advance();
-                break;
-            case '}':
-                symbolLexeme = "}";
-                symbolType = TokenType.SRS_RIGHT_BRACE;
-                fileHandler.advance();
-                break;
-            case '+':
-                symbolLexeme = "+";
-                symbolType = TokenType.SRS_PLUS;
-                fileHandler.advance();
-                break;
-            case '-':
-                symbolLexeme = "-";
-                symbolType = TokenType.SRS_MINUS;
-                fileHandler.advance();
-                break;
-            case '*':
-                symbolLexeme = "*";
-                symbolType = TokenType.SRS_MULTIPLICATION;
-                fileHandler.advance();
-                break;
-            case '/':
-                symbolLexeme = "/";
-                symbolType = TokenType.SRS_DIVISION;
-                fileHandler.advance();
-                break;
-            case '%':
-                symbolLexeme = "%";
-                symbolType = TokenType.SRS_MODULO;
-                fileHandler.advance();
-                break;
-            case '?':
-                symbolLexeme = "?";
-                symbolType = TokenType.SRS_QUESTION_MARK;
-                fileHandler.advance();
-                break;
-            case ':':
-                if (fileHandler.peek() == '=') {
-                    fileHandler.advance();
-                    fileHandler.advance();
-                    symbolLexeme = ":=";
-                    symbolType = TokenType.SRS_ASSIGNMENT;
-                } else {
-                    fileHandler.advance();
-                    symbolLexeme = ":";
-                    symbolType = TokenType.SRS_COLON;
-                }
-                break;
-            case '=':
-                if (fileHandler.peek() == '=') {
-                    fileHandler.advance();
-                    fileHandler.advance();
-                    symbolLexeme = "==";
-                    symbolType = TokenType.SRS_EQUAL_COMPARISON;
-                } else {
-                    symbolLexeme = String.valueOf(currentChar).toUpperCase();
-                    fileHandler.advance();
-                }
-                break;
-            case '!':
-                if (fileHandler.peek() == '=') {
-                    fileHandler.advance();
-                    fileHandler.advance();
-                    symbolLexeme = "!=";
-                    symbolType = TokenType.SRS_NOT_EQUAL;
-                } else {
-                    symbolLexeme = String.valueOf(currentChar).toUpperCase();
-                    fileHandler.advance();
-                }
-                break;
-            case '#':
+        if (CharClass.of(charInside) == CharClass.LETTER && fileHandler.getCurrentLineNumber() == tokenLine) {
+            length = appendLexemeChar(length, charInside);
+            fileHandler.advance();
+            if (fileHandler.getCurrentChar() == '\'' && fileHandler.getCurrentLineNumber() == tokenLine) {
+                length = appendLexemeChar(length, fileHandler.getCurrentChar());
                 fileHandler.advance();
-                symbolLexeme = "#";
-                symbolType = TokenType.SRS_NOT_EQUAL;
-                break;
-            case '<':
-                if (fileHandler.peek() == '=') {
-                    fileHandler.advance();
-                    fileHandler.advance();
-                    symbolLexeme = "<=";
-                    symbolType = TokenType.SRS_LESS_THAN_OR_EQUAL;
-                } else {
-                    fileHandler.advance();
-                    symbolLexeme = "<";
-                    symbolType = TokenType.SRS_LESS_THAN;
-                }
-                break;
-            case '>':
-                if (fileHandler.peek() == '=') {
-                    fileHandler.advance();
-                    fileHandler.advance();
-                    symbolLexeme = ">=";
-                    symbolType = TokenType.SRS_GREATER_THAN_OR_EQUAL;
-                } else {
-                    fileHandler.advance();
-                    symbolLexeme = ">";
-                    symbolType = TokenType.SRS_GREATER_THAN;
-                }
-                break;
-            case '.':
-                symbolLexeme = ".";
+                return emit(TokenType.IDN_CHAR_CONST, length, tokenLine, tokenColumn, TokenBuffer.NO_SYMBOL);
+            }
+        }
+        return emit(TokenType.UNKNOWN, length, tokenLine, tokenColumn, TokenBuffer.NO_SYMBOL);
+    }
+
+    private TokenType scanSymbol(int tokenLine, int tokenColumn, char currentChar) {
+        if (currentChar < 128 && SINGLE_SYMBOLS[currentChar] != null) {
+            TokenType pairedType = SYMBOLS_WITH_EQUALS[currentChar];
+            if (pairedType != null && fileHandler.peek() == '=') {
                 fileHandler.advance();
-                symbolType = TokenType.UNKNOWN;
-                break;
-            default:
-                symbolLexeme = String.valueOf(currentChar).toUpperCase();
                 fileHandler.advance();
-                break;
+                return emit(pairedType, SYMBOL_WITH_EQUALS_LEXEMES[currentChar], tokenLine, tokenColumn);
+            }
+            fileHandler.advance();
+            return emit(SINGLE_SYMBOLS[currentChar], SINGLE_SYMBOL_LEXEMES[currentChar], tokenLine,
+                    tokenColumn);
         }
-        return new Token(symbolType, symbolLexeme, tokenLine, tokenColumn);
+        fileHandler.advance();
+        return emit(TokenType.UNKNOWN, String.valueOf(currentChar).toUpperCase(), tokenLine, tokenColumn);
     }
 }
@@ -0,0 +1,253 @@
+package br.ucsal.compiladores.lexer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.symbolTable.ConcurrentSymbolTable;
+import br.ucsal.compiladores.symbolTable.SymbolRegistry;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+import br.ucsal.compiladores.utils.MappedFileHandler;
+import br.ucsal.compiladores.utils.SourceReader;
+
+// Divide o arquivo mapeado em blocos que começam em início de linha fora de comentário de bloco,
+// analisa cada bloco com um Lexer próprio no pool fork/join e junta os resultados na ordem do arquivo.
+// Strings, comentários de linha e literais de caractere nunca atravessam uma quebra de linha, então só
+// o comentário de bloco precisa ser acompanhado pela pré-varredura. Todos os blocos registram os
+// identificadores numa ConcurrentSymbolTable; no fim ela é passada para a tabela do chamador na ordem de
+// primeira ocorrência e os índices provisórios dos tokens são traduzidos.
+public class ParallelLexer {
+    private static final int SCAN_NORMAL = 0;
+    private static final int SCAN_STRING = 1;
+    private static final int SCAN_LINE_COMMENT = 2;
+    private static final int SCAN_BLOCK_COMMENT = 3;
+    // A cada quantos tokens um bloco confere se a análise foi abandonada
+    private static final int CANCEL_CHECK_MASK = 4096 - 1;
+
+    private final String filePath;
+    private final SymbolTable symbolTable;
+    private final long chunkBytes;
+
+    public ParallelLexer(String filePath, SymbolTable symbolTable) {
+        this(filePath, symbolTable, 0);
+    }
+
+    ParallelLexer(String filePath, SymbolTable symbolTable, long chunkBytes) {
+        this.filePath = filePath;
+        this.symbolTable = symbolTable;
+        this.chunkBytes = chunkBytes;
+    }
+
+    public static boolean shouldSplit(String filePath) throws IOException {
+        return Runtime.getRuntime().availableProcessors() > 1
+                && Files.size(Paths.get(filePath)) >= Constants.PARALLEL_LEX_THRESHOLD_BYTES;
+    }
+
+    public TokenBuffer tokenize() throws IOException {
+        MappedByteBuffer[] segments = MappedFileHandler.mapSegments(filePath);
+        long size = MappedFileHandler.sizeOf(segments);
+        List<Chunk> chunks = findChunks(segments, size, effectiveChunkBytes(size));
+
+        ConcurrentSymbolTable chunkSymbols = new ConcurrentSymbolTable();
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<Future<ChunkResult>> results = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            results.add(ForkJoinPool.commonPool().submit(() -> lexChunk(segments, chunk, chunkSymbols, abandoned)));
+        }
+
+        TokenBuffer merged = null;
+        long offsetShift = 0;
+        try {
+            for (int i = 0; i < results.size(); i++) {
+                ChunkResult result = await(results.get(i));
+                if (merged == null) {
+                    merged = new TokenBuffer(result.tokens.size() * results.size());
+                }
+                boolean lastChunk = i == results.size() - 1;
+                int count = lastChunk ? result.tokens.size() : result.tokens.size() - 1;
+                merged.appendFrom(result.tokens, count, offsetShift, null);
+                offsetShift += result.length;
+            }
+        } finally {
+            // Se um bloco falhou, os que ainda não terminaram param em vez de continuar lendo o arquivo
+            abandoned.set(true);
+            for (Future<ChunkResult> result : results) {
+                result.cancel(false);
+            }
+        }
+        merged.remapSymbols(chunkSymbols.mergeInto(symbolTable));
+        return merged;
+    }
+
+    private long effectiveChunkBytes(long size) {
+        if (chunkBytes > 0) {
+            return chunkBytes;
+        }
+        long perWorker = size / (ForkJoinPool.getCommonPoolParallelism() * 4L);
+        return Math.max(Constants.PARALLEL_LEX_MIN_CHUNK_BYTES, perWorker);
+    }
+
+    // Pré-varredura byte a byte: só caracteres ASCII mudam o estado, e bytes de sequências UTF-8
+    // multibyte nunca estão nessa faixa
+    private static List<Chunk> findChunks(MappedByteBuffer[] segments, long size, long chunkBytes) {
+        List<Chunk> chunks = new ArrayList<>();
+        long chunkStart = 0;
+        int chunkLine = 1;
+        int line = 1;
+        int state = SCAN_NORMAL;
+
+        for (long position = 0; position < size; position++) {
+            int b = byteAt(segments, position);
+            if (b == SourceReader.END_OF_FILE_CHAR) {
+                // O Lexer encerra a análise no primeiro '\0'; o resto do arquivo não é dividido
+                break;
+            }
+
+            boolean lineBreak = b == '\n'
+                    || b == '\r' && (position + 1 >= size || byteAt(segments, position + 1) != '\n');
+            if (lineBreak) {
+                line++;
+                if (state != SCAN_BLOCK_COMMENT) {
+                    state = SCAN_NORMAL;
+                    if (b == '\n' && position + 1 - chunkStart >= chunkBytes && position + 1 < size) {
+                        chunks.add(new Chunk(chunkStart, position + 1, chunkLine));
+                        chunkStart = position + 1;
+                        chunkLine = line;
+                    }
+                }
+                continue;
+            }
+
+            switch (state) {
+                case SCAN_NORMAL:
+                    if (b == '"') {
+                        state = SCAN_STRING;
+                    } else if (b == '/' && position + 1 < size) {
+                        int next = byteAt(segments, position + 1);
+                        if (next == '/') {
+                            state = SCAN_LINE_COMMENT;
+                            position++;
+                        } else if (next == '*') {
+                            state = SCAN_BLOCK_COMMENT;
+                            position++;
+                        }
+                    }
+                    break;
+                case SCAN_STRING:
+                    if (b == '"') {
+                        state = SCAN_NORMAL;
+                    }
+                    break;
+                case SCAN_BLOCK_COMMENT:
+                    if (b == '*' && position + 1 < size && byteAt(segments, position + 1) == '/') {
+                        state = SCAN_NORMAL;
+                        position++;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        chunks.add(new Chunk(chunkStart, -1, chunkLine));
+        return chunks;
+    }
+
+    private static int byteAt(MappedByteBuffer[] segments, long position) {
+        MappedByteBuffer segment = segments[(int) (position / Constants.MAPPED_SEGMENT_SIZE)];
+        return segment.get((int) (position % Constants.MAPPED_SEGMENT_SIZE)) & 0xFF;
+    }
+
+    private ChunkResult lexChunk(MappedByteBuffer[] segments, Chunk chunk, ConcurrentSymbolTable symbols,
+            AtomicBoolean abandoned) {
+        MappedFileHandler reader = new MappedFileHandler(filePath, segments, chunk.start, chunk.end, chunk.line);
+        Lexer lexer = new Lexer(reader, new ChunkSymbols(symbols, chunk.start));
+        TokenBuffer tokens = new TokenBuffer();
+        while (lexer.lexInto(tokens) != TokenType.END_OF_FILE) {
+            if ((tokens.size() & CANCEL_CHECK_MASK) == 0 && abandoned.get()) {
+                throw new CancellationException();
+            }
+        }
+        // O EOF do bloco fica logo após o último caractere normalizado, ou seja, no tamanho do bloco
+        long length = tokens.getOffset(tokens.size() - 1);
+        return new ChunkResult(tokens, length);
+    }
+
+    private static ChunkResult await(Future<ChunkResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Análise léxica paralela interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static final class Chunk {
+        final long start;
+        final long end;
+        final int line;
+
+        Chunk(long start, long end, int line) {
+            this.start = start;
+            this.end = end;
+            this.line = line;
+        }
+    }
+
+    private static final class ChunkResult {
+        final TokenBuffer tokens;
+        final long length;
+
+        ChunkResult(TokenBuffer tokens, long length) {
+            this.tokens = tokens;
+            this.length = length;
+        }
+    }
+
+    // O Lexer do bloco conta a posição a partir do início do bloco. Somar o byte inicial mantém a ordem entre
+    // blocos: o bloco normaliza no máximo um caractere por byte, então nunca alcança o início do seguinte
+    private static final class ChunkSymbols implements SymbolRegistry {
+        private final ConcurrentSymbolTable symbols;
+        private final long start;
+
+        ChunkSymbols(ConcurrentSymbolTable symbols, long start) {
+            this.symbols = symbols;
+            this.start = start;
+        }
+
+        @Override
+        public int addOrGetSymbol(String effectiveKeyLexeme, String displayLexeme, TokenType tokenType,
+                int originalLength, int lineNumber, long position) {
+            return symbols.addOrGetSymbol(effectiveKeyLexeme, displayLexeme, tokenType, originalLength, lineNumber,
+                    start + position);
+        }
+
+        @Override
+        public int addOrGetSymbol(char[] lexeme, int keyLength, int displayLength, TokenType tokenType,
+                int originalLength, int lineNumber, long position) {
+            return symbols.addOrGetSymbol(lexeme, keyLength, displayLength, tokenType, originalLength, lineNumber,
+                    start + position);
+        }
+    }
+}
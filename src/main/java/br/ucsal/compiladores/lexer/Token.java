@@ -41,6 +41,10 @@ public class Token {
 
     @Override
     public String toString() {
+        return describe(type, lexeme, line, column, symbolIndex);
+    }
+
+    static String describe(TokenType type, String lexeme, int line, int column, Integer symbolIndex) {
         String symbolIdxStr = (symbolIndex != null) ? ", IndexTabSimb: " + symbolIndex : "";
         return String.format("Lexeme: %s, Código: %s%s, Linha: %d, Coluna: %d",
                 lexeme, type.name(), symbolIdxStr, line, column);
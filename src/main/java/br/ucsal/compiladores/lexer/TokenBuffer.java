@@ -0,0 +1,322 @@
+package br.ucsal.compiladores.lexer;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Armazena os tokens em vetores paralelos de primitivos (um por atributo), sem um objeto por token.
+// Os índices são absolutos: discardBefore() libera o prefixo já consumido sem renumerar os tokens.
+public class TokenBuffer {
+    private static final TokenType[] TYPES = TokenType.values();
+    public static final int NO_SYMBOL = 0;
+
+    private byte[] types;
+    private int[] lines;
+    private int[] columns;
+    private long[] offsets;
+    private int[] textStarts;
+    private int[] textLengths;
+    private int[] symbolIndices;
+    private char[] text;
+
+    private int firstIndex;
+    private int count;
+    private int textSize;
+
+    public TokenBuffer() {
+        this(256);
+    }
+
+    public TokenBuffer(int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        this.types = new byte[capacity];
+        this.lines = new int[capacity];
+        this.columns = new int[capacity];
+        this.offsets = new long[capacity];
+        this.textStarts = new int[capacity];
+        this.textLengths = new int[capacity];
+        this.symbolIndices = new int[capacity];
+        this.text = new char[capacity * 4];
+    }
+
+    public static TokenBuffer of(List<Token> tokens) {
+        TokenBuffer buffer = new TokenBuffer(tokens.size());
+        for (Token token : tokens) {
+            Integer symbolIndex = token.getSymbolIndex();
+            buffer.add(token.getType(), token.getLexeme(), token.getLine(), token.getColumn(), -1,
+                    symbolIndex != null ? symbolIndex : NO_SYMBOL);
+        }
+        return buffer;
+    }
+
+    public int add(TokenType type, CharSequence lexeme, int line, int column, long offset, int symbolIndex) {
+        int lexemeLength = lexeme.length();
+        int slot = reserve(lexemeLength);
+        int start = textStarts[slot];
+        for (int i = 0; i < lexemeLength; i++) {
+            text[start + i] = lexeme.charAt(i);
+        }
+        return commit(slot, type, lexemeLength, line, column, offset, symbolIndex);
+    }
+
+    public int add(TokenType type, char[] lexeme, int lexemeOffset, int lexemeLength, int line, int column,
+            long offset, int symbolIndex) {
+        int slot = reserve(lexemeLength);
+        System.arraycopy(lexeme, lexemeOffset, text, textStarts[slot], lexemeLength);
+        return commit(slot, type, lexemeLength, line, column, offset, symbolIndex);
+    }
+
+    // Acrescenta os count primeiros tokens (a partir do primeiro retido) de outro buffer, deslocando os
+    // offsets e traduzindo os índices da tabela de símbolos por symbolRemap (null mantém os índices)
+    public void appendFrom(TokenBuffer other, int count, long offsetShift, int[] symbolRemap) {
+        while (this.count + count > types.length) {
+            growTokens();
+        }
+        int textLength = count > 0 ? other.textStarts[count - 1] + other.textLengths[count - 1] : 0;
+        if (textSize + textLength > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textSize + textLength));
+        }
+
+        System.arraycopy(other.types, 0, types, this.count, count);
+        System.arraycopy(other.lines, 0, lines, this.count, count);
+        System.arraycopy(other.columns, 0, columns, this.count, count);
+        System.arraycopy(other.textLengths, 0, textLengths, this.count, count);
+        System.arraycopy(other.text, 0, text, textSize, textLength);
+        for (int i = 0; i < count; i++) {
+            int slot = this.count + i;
+            offsets[slot] = other.offsets[i] + offsetShift;
+            textStarts[slot] = other.textStarts[i] + textSize;
+            int symbolIndex = other.symbolIndices[i];
+            symbolIndices[slot] = symbolIndex != NO_SYMBOL && symbolRemap != null ? symbolRemap[symbolIndex]
+                    : symbolIndex;
+        }
+        this.count += count;
+        textSize += textLength;
+    }
+
+    // Traduz os índices da tabela de símbolos dos tokens retidos (ex.: provisórios -> definitivos)
+    public void remapSymbols(int[] symbolRemap) {
+        for (int i = 0; i < count; i++) {
+            if (symbolIndices[i] != NO_SYMBOL) {
+                symbolIndices[i] = symbolRemap[symbolIndices[i]];
+            }
+        }
+    }
+
+    // Troca os tokens [from, to) por todos os de replacement. Os seguintes são deslocados em offsetShift e
+    // lineShift; os que estavam na linha columnShiftLine também têm a coluna deslocada em columnShift
+    public void replaceRange(int from, int to, TokenBuffer replacement, long offsetShift, int lineShift,
+            int columnShiftLine, int columnShift) {
+        int fromSlot = from - firstIndex;
+        int toSlot = to - firstIndex;
+        if (fromSlot < 0 || toSlot < fromSlot || toSlot > count) {
+            throw new IndexOutOfBoundsException("Trecho [" + from + ", " + to + ") fora da janela [" + firstIndex
+                    + ", " + size() + ")");
+        }
+        int added = replacement.count;
+        int tail = count - toSlot;
+        int newCount = count - (toSlot - fromSlot) + added;
+        while (newCount > types.length) {
+            growTokens();
+        }
+
+        int textFrom = fromSlot < count ? textStarts[fromSlot] : textSize;
+        int textTo = toSlot < count ? textStarts[toSlot] : textSize;
+        int textShift = replacement.textSize - (textTo - textFrom);
+        if (textSize + textShift > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textSize + textShift));
+        }
+        System.arraycopy(text, textTo, text, textTo + textShift, textSize - textTo);
+        System.arraycopy(replacement.text, 0, text, textFrom, replacement.textSize);
+
+        int tailSlot = fromSlot + added;
+        System.arraycopy(types, toSlot, types, tailSlot, tail);
+        System.arraycopy(lines, toSlot, lines, tailSlot, tail);
+        System.arraycopy(columns, toSlot, columns, tailSlot, tail);
+        System.arraycopy(offsets, toSlot, offsets, tailSlot, tail);
+        System.arraycopy(textStarts, toSlot, textStarts, tailSlot, tail);
+        System.arraycopy(textLengths, toSlot, textLengths, tailSlot, tail);
+        System.arraycopy(symbolIndices, toSlot, symbolIndices, tailSlot, tail);
+        for (int slot = tailSlot; slot < tailSlot + tail; slot++) {
+            if (lines[slot] == columnShiftLine) {
+                columns[slot] += columnShift;
+            }
+            lines[slot] += lineShift;
+            offsets[slot] += offsetShift;
+            textStarts[slot] += textShift;
+        }
+
+        System.arraycopy(replacement.types, 0, types, fromSlot, added);
+        System.arraycopy(replacement.lines, 0, lines, fromSlot, added);
+        System.arraycopy(replacement.columns, 0, columns, fromSlot, added);
+        System.arraycopy(replacement.offsets, 0, offsets, fromSlot, added);
+        System.arraycopy(replacement.textLengths, 0, textLengths, fromSlot, added);
+        System.arraycopy(replacement.symbolIndices, 0, symbolIndices, fromSlot, added);
+        for (int i = 0; i < added; i++) {
+            textStarts[fromSlot + i] = replacement.textStarts[i] + textFrom;
+        }
+        count = newCount;
+        textSize += textShift;
+    }
+
+    // Descarta os tokens a partir de index
+    void truncate(int index) {
+        int slot = index - firstIndex;
+        if (slot < 0 || slot > count) {
+            throw new IndexOutOfBoundsException("Token " + index + " fora da janela [" + firstIndex + ", "
+                    + size() + "]");
+        }
+        if (slot < count) {
+            textSize = textStarts[slot];
+            count = slot;
+        }
+    }
+
+    private int reserve(int lexemeLength) {
+        if (count == types.length) {
+            growTokens();
+        }
+        if (textSize + lexemeLength > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textSize + lexemeLength));
+        }
+        textStarts[count] = textSize;
+        return count;
+    }
+
+    private int commit(int slot, TokenType type, int lexemeLength, int line, int column, long offset,
+            int symbolIndex) {
+        types[slot] = (byte) type.ordinal();
+        lines[slot] = line;
+        columns[slot] = column;
+        offsets[slot] = offset;
+        textLengths[slot] = lexemeLength;
+        symbolIndices[slot] = symbolIndex;
+        textSize += lexemeLength;
+        count++;
+        return firstIndex + slot;
+    }
+
+    private void growTokens() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        lines = Arrays.copyOf(lines, capacity);
+        columns = Arrays.copyOf(columns, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        textStarts = Arrays.copyOf(textStarts, capacity);
+        textLengths = Arrays.copyOf(textLengths, capacity);
+        symbolIndices = Arrays.copyOf(symbolIndices, capacity);
+    }
+
+    // Descarta os tokens anteriores a index, compactando os vetores quando o prefixo livre for grande
+    public void discardBefore(int index) {
+        int discard = Math.min(index - firstIndex, count);
+        if (discard <= 0 || discard < count / 2 && discard < types.length / 2) {
+            return;
+        }
+        int kept = count - discard;
+        int textShift = kept > 0 ? textStarts[discard] : textSize;
+        System.arraycopy(types, discard, types, 0, kept);
+        System.arraycopy(lines, discard, lines, 0, kept);
+        System.arraycopy(columns, discard, columns, 0, kept);
+        System.arraycopy(offsets, discard, offsets, 0, kept);
+        System.arraycopy(textLengths, discard, textLengths, 0, kept);
+        System.arraycopy(symbolIndices, discard, symbolIndices, 0, kept);
+        for (int i = 0; i < kept; i++) {
+            textStarts[i] = textStarts[discard + i] - textShift;
+        }
+        System.arraycopy(text, textShift, text, 0, textSize - textShift);
+        textSize -= textShift;
+        firstIndex += discard;
+        count = kept;
+    }
+
+    public int size() {
+        return firstIndex + count;
+    }
+
+    public int getFirstIndex() {
+        return firstIndex;
+    }
+
+    public TokenType getType(int index) {
+        return TYPES[types[slot(index)]];
+    }
+
+    public int getLine(int index) {
+        return lines[slot(index)];
+    }
+
+    public int getColumn(int index) {
+        return columns[slot(index)];
+    }
+
+    public long getOffset(int index) {
+        return offsets[slot(index)];
+    }
+
+    public int getSymbolIndex(int index) {
+        return symbolIndices[slot(index)];
+    }
+
+    public boolean hasSymbolIndex(int index) {
+        return symbolIndices[slot(index)] != NO_SYMBOL;
+    }
+
+    public int getLexemeLength(int index) {
+        return textLengths[slot(index)];
+    }
+
+    public String getLexeme(int index) {
+        int slot = slot(index);
+        return new String(text, textStarts[slot], textLengths[slot]);
+    }
+
+    public boolean lexemeEquals(int index, String expected) {
+        int slot = slot(index);
+        int length = textLengths[slot];
+        if (length != expected.length()) {
+            return false;
+        }
+        int start = textStarts[slot];
+        for (int i = 0; i < length; i++) {
+            if (text[start + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void appendLexeme(int index, StringBuilder sb) {
+        int slot = slot(index);
+        sb.append(text, textStarts[slot], textLengths[slot]);
+    }
+
+    public Token getToken(int index) {
+        int slot = slot(index);
+        Integer symbolIndex = symbolIndices[slot] != NO_SYMBOL ? symbolIndices[slot] : null;
+        return new Token(TYPES[types[slot]], getLexeme(index), lines[slot], columns[slot], symbolIndex);
+    }
+
+    public String describe(int index) {
+        return describe(index, null);
+    }
+
+    // Como describe(int), com o índice de símbolo traduzido por symbolRemap (null mantém o índice)
+    public String describe(int index, int[] symbolRemap) {
+        int slot = slot(index);
+        int symbolIndex = symbolIndices[slot];
+        if (symbolIndex != NO_SYMBOL && symbolRemap != null) {
+            symbolIndex = symbolRemap[symbolIndex];
+        }
+        return Token.describe(TYPES[types[slot]], getLexeme(index), lines[slot], columns[slot],
+                symbolIndex != NO_SYMBOL ? symbolIndex : null);
+    }
+
+    private int slot(int index) {
+        int slot = index - firstIndex;
+        if (slot < 0 || slot >= count) {
+            throw new IndexOutOfBoundsException("Token " + index + " fora da janela [" + firstIndex + ", "
+                    + size() + ")");
+        }
+        return slot;
+    }
+}
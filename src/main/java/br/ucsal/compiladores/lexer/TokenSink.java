@@ -0,0 +1,6 @@
+package br.ucsal.compiladores.lexer;
+
+// Recebe os tokens à medida que o Lexer os coloca no buffer: índices de from (inclusive) a to (exclusive)
+public interface TokenSink {
+    void accept(TokenBuffer tokens, int from, int to);
+}
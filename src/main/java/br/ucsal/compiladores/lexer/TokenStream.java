@@ -0,0 +1,176 @@
+package br.ucsal.compiladores.lexer;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import br.ucsal.compiladores.config.Constants;
+
+// Cursor sobre os tokens: o Lexer só é acionado quando o consumidor avança além do que já foi lido.
+// Sem retainTokens() o buffer guarda apenas a janela de lookahead. Um buffer pronto que não termina em
+// EOF não é alterado (pode estar sendo lido por outras threads): a posição size() faz o papel do EOF.
+public class TokenStream implements Iterator<Token> {
+    private final TokenBuffer buffer;
+    private final Lexer lexer;
+    private boolean lexerFinished;
+    private boolean retainTokens;
+    private int position;
+    private boolean endOfFileReturned;
+    private TokenSink sink;
+
+    TokenStream(Lexer lexer, TokenBuffer buffer) {
+        this.lexer = lexer;
+        this.buffer = buffer;
+        this.lexerFinished = lexer == null;
+    }
+
+    public static TokenStream of(TokenBuffer tokens) {
+        return new TokenStream(null, tokens).retainTokens();
+    }
+
+    public static TokenStream of(List<Token> tokens) {
+        return of(TokenBuffer.of(tokens));
+    }
+
+    public TokenStream retainTokens() {
+        this.retainTokens = true;
+        return this;
+    }
+
+    // Cada lote de tokens lido do Lexer é repassado ao sink antes de chegar ao consumidor
+    public TokenStream onTokens(TokenSink sink) {
+        this.sink = sink;
+        return this;
+    }
+
+    public TokenBuffer getBuffer() {
+        return buffer;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    // Todos os tokens já estão no buffer, desde o primeiro: o cursor pode ser reposicionado livremente
+    public boolean isComplete() {
+        return lexerFinished && retainTokens && buffer.getFirstIndex() == 0;
+    }
+
+    public void seek(int position) {
+        if (position < buffer.getFirstIndex() || lexerFinished && position > endIndex()) {
+            throw new IllegalArgumentException("Posição " + position + " fora do buffer de tokens");
+        }
+        this.position = position;
+        this.endOfFileReturned = false;
+    }
+
+    public TokenType getType() {
+        return typeAt(current());
+    }
+
+    public int getLine() {
+        int index = current();
+        return isImplicitEnd(index) ? lastLine() : buffer.getLine(index);
+    }
+
+    public int getColumn() {
+        int index = current();
+        return isImplicitEnd(index) ? 0 : buffer.getColumn(index);
+    }
+
+    public int getSymbolIndex() {
+        int index = current();
+        return isImplicitEnd(index) ? TokenBuffer.NO_SYMBOL : buffer.getSymbolIndex(index);
+    }
+
+    public String getLexeme() {
+        int index = current();
+        return isImplicitEnd(index) ? "" : buffer.getLexeme(index);
+    }
+
+    public boolean lexemeEquals(String expected) {
+        int index = current();
+        return isImplicitEnd(index) ? expected.isEmpty() : buffer.lexemeEquals(index, expected);
+    }
+
+    public String describe() {
+        int index = current();
+        return isImplicitEnd(index) ? endOfFileToken().toString() : buffer.describe(index);
+    }
+
+    public TokenType peekType(int distance) {
+        if (distance < 0 || distance >= Constants.TOKEN_LOOKAHEAD) {
+            throw new IllegalArgumentException("Lookahead máximo é " + (Constants.TOKEN_LOOKAHEAD - 1) + ": "
+                    + distance);
+        }
+        return typeAt(ensureAvailable(position + distance));
+    }
+
+    // No EOF o cursor permanece parado, como o Parser espera
+    public void advance() {
+        if (getType() == TokenType.END_OF_FILE) {
+            return;
+        }
+        position++;
+        if (!retainTokens) {
+            buffer.discardBefore(position);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !endOfFileReturned;
+    }
+
+    @Override
+    public Token next() {
+        if (endOfFileReturned) {
+            throw new NoSuchElementException();
+        }
+        int index = current();
+        Token token = isImplicitEnd(index) ? endOfFileToken() : buffer.getToken(index);
+        endOfFileReturned = token.getType() == TokenType.END_OF_FILE;
+        advance();
+        return token;
+    }
+
+    private int current() {
+        return ensureAvailable(position);
+    }
+
+    private int ensureAvailable(int index) {
+        while (index >= buffer.size() && !lexerFinished) {
+            int from = buffer.size();
+            lexerFinished = lexer.lexInto(buffer) == TokenType.END_OF_FILE;
+            if (sink != null) {
+                sink.accept(buffer, from, buffer.size());
+            }
+        }
+        return Math.min(index, endIndex());
+    }
+
+    // O último token, se for EOF; senão a posição logo depois dele (EOF implícito)
+    private int endIndex() {
+        int last = buffer.size() - 1;
+        return last >= buffer.getFirstIndex() && buffer.getType(last) == TokenType.END_OF_FILE ? last
+                : buffer.size();
+    }
+
+    private boolean isImplicitEnd(int index) {
+        return index == buffer.size();
+    }
+
+    private TokenType typeAt(int index) {
+        return isImplicitEnd(index) ? TokenType.END_OF_FILE : buffer.getType(index);
+    }
+
+    // O EOF implícito fica na linha do último token, onde a análise parou
+    private int lastLine() {
+        int last = buffer.size() - 1;
+        return last >= buffer.getFirstIndex() ? buffer.getLine(last) : 0;
+    }
+
+    private Token endOfFileToken() {
+        return new Token(TokenType.END_OF_FILE, "", lastLine(), 0);
+    }
+}
@@ -0,0 +1,161 @@
+package br.ucsal.compiladores.parser;
+
+import java.util.Arrays;
+
+// Árvore sintática guardada em vetores paralelos: cada nó é um índice, com tipo, token de origem
+// (índice absoluto no TokenBuffer), primeiro filho e próximo irmão. NONE marca ausência de nó/token.
+public class Ast {
+    public static final int NONE = -1;
+
+    private static final AstNodeKind[] KINDS = AstNodeKind.values();
+
+    private byte[] kinds;
+    private int[] tokenIndices;
+    private int[] firstChildren;
+    private int[] lastChildren;
+    private int[] nextSiblings;
+    private int size;
+    private int root = NONE;
+
+    public Ast() {
+        this(256);
+    }
+
+    public Ast(int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        this.kinds = new byte[capacity];
+        this.tokenIndices = new int[capacity];
+        this.firstChildren = new int[capacity];
+        this.lastChildren = new int[capacity];
+        this.nextSiblings = new int[capacity];
+    }
+
+    public int addNode(AstNodeKind kind, int tokenIndex) {
+        ensureCapacity(size + 1);
+        kinds[size] = (byte) kind.ordinal();
+        tokenIndices[size] = tokenIndex;
+        firstChildren[size] = NONE;
+        lastChildren[size] = NONE;
+        nextSiblings[size] = NONE;
+        return size++;
+    }
+
+    // Copia todos os nós de other para o fim desta árvore e devolve o novo índice da raiz de other.
+    // Os índices de token são mantidos: as duas árvores devem se referir ao mesmo TokenBuffer.
+    public int graft(Ast other) {
+        int shift = size;
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.kinds, 0, kinds, shift, other.size);
+        System.arraycopy(other.tokenIndices, 0, tokenIndices, shift, other.size);
+        for (int i = 0; i < other.size; i++) {
+            firstChildren[shift + i] = shifted(other.firstChildren[i], shift);
+            lastChildren[shift + i] = shifted(other.lastChildren[i], shift);
+            nextSiblings[shift + i] = shifted(other.nextSiblings[i], shift);
+        }
+        size += other.size;
+        return shifted(other.root, shift);
+    }
+
+    private static int shifted(int node, int shift) {
+        return node == NONE ? NONE : node + shift;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= kinds.length) {
+            return;
+        }
+        int capacity = Math.max(kinds.length * 2, required);
+        kinds = Arrays.copyOf(kinds, capacity);
+        tokenIndices = Arrays.copyOf(tokenIndices, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        lastChildren = Arrays.copyOf(lastChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+    }
+
+    // Acrescenta child ao fim da lista de filhos de parent; NONE é ignorado
+    public void appendChild(int parent, int child) {
+        if (parent == NONE || child == NONE) {
+            return;
+        }
+        if (firstChildren[parent] == NONE) {
+            firstChildren[parent] = child;
+        } else {
+            nextSiblings[lastChildren[parent]] = child;
+        }
+        lastChildren[parent] = child;
+    }
+
+    // Troca os filhos de parent entre previous e next (ambos exclusivos; NONE = desde o primeiro / até o
+    // último) pelos count primeiros de nodes. Os nós retirados ficam nos vetores, só deixam de ser alcançáveis.
+    public void replaceChildren(int parent, int previous, int next, int[] nodes, int count) {
+        int link = previous;
+        for (int i = 0; i < count; i++) {
+            if (link == NONE) {
+                firstChildren[parent] = nodes[i];
+            } else {
+                nextSiblings[link] = nodes[i];
+            }
+            link = nodes[i];
+        }
+        if (link == NONE) {
+            firstChildren[parent] = next;
+        } else {
+            nextSiblings[link] = next;
+        }
+        if (next == NONE) {
+            lastChildren[parent] = link;
+        }
+    }
+
+    // Desloca em shift os índices de token a partir de fromTokenIndex (tokens inseridos/removidos antes deles)
+    public void shiftTokenIndices(int fromTokenIndex, int shift) {
+        for (int i = 0; i < size; i++) {
+            if (tokenIndices[i] >= fromTokenIndex) {
+                tokenIndices[i] += shift;
+            }
+        }
+    }
+
+    public int addNode(AstNodeKind kind, int tokenIndex, int firstChild, int secondChild) {
+        int node = addNode(kind, tokenIndex);
+        appendChild(node, firstChild);
+        appendChild(node, secondChild);
+        return node;
+    }
+
+    public void setRoot(int root) {
+        this.root = root;
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public AstNodeKind getKind(int node) {
+        return KINDS[kinds[node]];
+    }
+
+    public int getTokenIndex(int node) {
+        return tokenIndices[node];
+    }
+
+    public int getFirstChild(int node) {
+        return firstChildren[node];
+    }
+
+    public int getNextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    public int getChildCount(int node) {
+        int count = 0;
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            count++;
+        }
+        return count;
+    }
+}
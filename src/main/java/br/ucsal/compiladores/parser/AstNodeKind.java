@@ -0,0 +1,23 @@
+package br.ucsal.compiladores.parser;
+
+public enum AstNodeKind {
+    PROGRAM,
+    PROGRAM_NAME,
+    DECLARATIONS,
+    VARIABLE_DECLARATION,
+    FUNCTIONS,
+    FUNCTION,
+    PARAMETER,
+    IDENTIFIER,
+    COMMAND_LIST,
+    ASSIGNMENT,
+    PRINT,
+    RETURN,
+    IF,
+    WHILE,
+    BREAK,
+    BINARY_OPERATION,
+    RELATIONAL_OPERATION,
+    LITERAL,
+    ERROR
+}
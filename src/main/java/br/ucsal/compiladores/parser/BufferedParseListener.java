@@ -0,0 +1,66 @@
+package br.ucsal.compiladores.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Retém as mensagens de um Parser de função em paralelo para serem repassadas, na mesma ordem, ao
+// ouvinte do Parser principal quando a função for incorporada
+final class BufferedParseListener implements ParseListener {
+    private static final byte PRINT = 0;
+    private static final byte PRINTLN = 1;
+    private static final byte ERROR = 2;
+
+    private final boolean tracing;
+    private final List<String> texts = new ArrayList<>();
+    private byte[] kinds = new byte[16];
+
+    BufferedParseListener(boolean tracing) {
+        this.tracing = tracing;
+    }
+
+    @Override
+    public boolean isTracing() {
+        return tracing;
+    }
+
+    @Override
+    public void print(String text) {
+        record(PRINT, text);
+    }
+
+    @Override
+    public void println(String text) {
+        record(PRINTLN, text);
+    }
+
+    @Override
+    public void error(String message) {
+        record(ERROR, message);
+    }
+
+    private void record(byte kind, String text) {
+        int index = texts.size();
+        if (index == kinds.length) {
+            kinds = Arrays.copyOf(kinds, index * 2);
+        }
+        kinds[index] = kind;
+        texts.add(text);
+    }
+
+    void replayTo(ParseListener target) {
+        for (int i = 0; i < texts.size(); i++) {
+            switch (kinds[i]) {
+                case PRINT:
+                    target.print(texts.get(i));
+                    break;
+                case PRINTLN:
+                    target.println(texts.get(i));
+                    break;
+                default:
+                    target.error(texts.get(i));
+                    break;
+            }
+        }
+    }
+}
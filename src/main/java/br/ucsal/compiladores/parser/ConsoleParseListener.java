@@ -0,0 +1,78 @@
+package br.ucsal.compiladores.parser;
+
+import java.io.PrintStream;
+
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.utils.AsyncConsoleWriter;
+
+// Acumula o texto em lotes e entrega ao AsyncConsoleWriter, que escreve fora da thread do Parser.
+// Cada instância pertence a um único Parser; a ordem entre saída e erro é preservada porque a troca
+// de destino fecha o lote corrente.
+public class ConsoleParseListener implements ParseListener {
+    private final TraceLevel level;
+    private final AsyncConsoleWriter writer;
+    private final StringBuilder pending = new StringBuilder(Constants.TRACE_BATCH_CHARS);
+    private PrintStream pendingTarget;
+
+    public ConsoleParseListener(TraceLevel level) {
+        this(level, AsyncConsoleWriter.console());
+    }
+
+    public ConsoleParseListener(TraceLevel level, AsyncConsoleWriter writer) {
+        this.level = level;
+        this.writer = writer;
+    }
+
+    @Override
+    public boolean isTracing() {
+        return level == TraceLevel.VERBOSE;
+    }
+
+    @Override
+    public void print(String text) {
+        if (isTracing()) {
+            append(writer.getOut(), text, false);
+        }
+    }
+
+    @Override
+    public void println(String text) {
+        if (isTracing()) {
+            append(writer.getOut(), text, true);
+        }
+    }
+
+    @Override
+    public void error(String message) {
+        if (level != TraceLevel.SILENT) {
+            append(writer.getErr(), message, true);
+        }
+    }
+
+    @Override
+    public void flush() {
+        submitPending();
+        writer.flush();
+    }
+
+    private void append(PrintStream target, String text, boolean newLine) {
+        if (target != pendingTarget) {
+            submitPending();
+            pendingTarget = target;
+        }
+        pending.append(text);
+        if (newLine) {
+            pending.append(System.lineSeparator());
+        }
+        if (pending.length() >= Constants.TRACE_BATCH_CHARS) {
+            submitPending();
+        }
+    }
+
+    private void submitPending() {
+        if (pending.length() > 0) {
+            writer.submit(pendingTarget, pending.toString());
+            pending.setLength(0);
+        }
+    }
+}
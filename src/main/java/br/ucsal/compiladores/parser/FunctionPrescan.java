@@ -0,0 +1,90 @@
+package br.ucsal.compiladores.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Contagem aproximada das palavras FUNCTYPE de um fonte, byte a byte e sem o Lexer, para decidir se vale
+// ler os tokens por inteiro para a análise paralela das funções. Comentários e strings são ignorados,
+// e a leitura para assim que o mínimo é alcançado. Um erro na contagem só muda essa decisão: a análise
+// paralela confere os limites das funções de novo sobre os tokens.
+final class FunctionPrescan {
+    private static final byte[] KEYWORD = { 'F', 'U', 'N', 'C', 'T', 'Y', 'P', 'E' };
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int NORMAL = 0;
+    private static final int STRING = 1;
+    private static final int LINE_COMMENT = 2;
+    private static final int BLOCK_COMMENT = 3;
+
+    private FunctionPrescan() {
+    }
+
+    static boolean hasAtLeast(Path file, int functions) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int count = 0;
+        int state = NORMAL;
+        int previous = 0;
+        // Tamanho da palavra atual; -1 quando ela já não pode ser FUNCTYPE
+        int wordLength = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    int b = buffer[i] & 0xFF;
+                    switch (state) {
+                        case NORMAL:
+                            if (isWordByte(b)) {
+                                if (wordLength >= 0) {
+                                    wordLength = wordLength < KEYWORD.length && toUpper(b) == KEYWORD[wordLength]
+                                            ? wordLength + 1 : -1;
+                                }
+                                break;
+                            }
+                            if (wordLength == KEYWORD.length && ++count >= functions) {
+                                return true;
+                            }
+                            wordLength = 0;
+                            if (b == '"') {
+                                state = STRING;
+                            } else if (previous == '/' && b == '/') {
+                                state = LINE_COMMENT;
+                            } else if (previous == '/' && b == '*') {
+                                state = BLOCK_COMMENT;
+                                b = 0;
+                            }
+                            break;
+                        case STRING:
+                            if (b == '"' || b == '\n' || b == '\r') {
+                                state = NORMAL;
+                            }
+                            break;
+                        case LINE_COMMENT:
+                            if (b == '\n' || b == '\r') {
+                                state = NORMAL;
+                            }
+                            break;
+                        default:
+                            if (previous == '*' && b == '/') {
+                                state = NORMAL;
+                                b = 0;
+                            }
+                            break;
+                    }
+                    previous = b;
+                }
+            }
+        }
+        return wordLength == KEYWORD.length && count + 1 >= functions;
+    }
+
+    // Bytes acima de 0x7F fazem parte de sequências UTF-8 e contam como parte de identificadores
+    private static boolean isWordByte(int b) {
+        return b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9' || b == '_' || b >= 0x80;
+    }
+
+    private static int toUpper(int b) {
+        return b >= 'a' && b <= 'z' ? b - ('a' - 'A') : b;
+    }
+}
@@ -0,0 +1,44 @@
+package br.ucsal.compiladores.parser;
+
+import br.ucsal.compiladores.lexer.TokenType;
+
+// Conjuntos FIRST/FOLLOW da gramática e de sincronização da recuperação de erros, calculados uma vez.
+// O END_OF_FILE não aparece nos conjuntos de sincronização: skipTo() sempre para nele.
+final class GrammarSets {
+    static final TokenSet TYPE_SPECIFIERS = TokenSet.of(TokenType.PRS_INTEGER, TokenType.PRS_REAL,
+            TokenType.PRS_STRING, TokenType.PRS_BOOLEAN, TokenType.PRS_CHARACTER, TokenType.PRS_VOID);
+
+    // FIRST de um fator simples (sem sub-expressão entre parênteses)
+    static final TokenSet FIRST_OPERAND = TokenSet.of(TokenType.IDN_VARIABLE, TokenType.IDN_INT_CONST,
+            TokenType.IDN_REAL_CONST, TokenType.PRS_TRUE, TokenType.PRS_FALSE, TokenType.IDN_STRING_CONST,
+            TokenType.IDN_CHAR_CONST);
+
+    static final TokenSet ARITHMETIC_OPERATORS = TokenSet.of(TokenType.SRS_PLUS, TokenType.SRS_MINUS,
+            TokenType.SRS_MULTIPLICATION, TokenType.SRS_DIVISION, TokenType.SRS_MODULO);
+    static final TokenSet MULTIPLICATIVE_OPERATORS = TokenSet.of(TokenType.SRS_MULTIPLICATION,
+            TokenType.SRS_DIVISION, TokenType.SRS_MODULO);
+    static final TokenSet RELATIONAL_OPERATORS = TokenSet.of(TokenType.SRS_EQUAL_COMPARISON,
+            TokenType.SRS_NOT_EQUAL, TokenType.SRS_LESS_THAN, TokenType.SRS_LESS_THAN_OR_EQUAL,
+            TokenType.SRS_GREATER_THAN, TokenType.SRS_GREATER_THAN_OR_EQUAL);
+
+    // FOLLOW das listas de comandos de cada bloco
+    static final TokenSet FOLLOW_THEN_BLOCK = TokenSet.of(TokenType.PRS_ELSE, TokenType.PRS_ENDIF);
+    static final TokenSet FOLLOW_ELSE_BLOCK = TokenSet.of(TokenType.PRS_ENDIF);
+    static final TokenSet FOLLOW_WHILE_BODY = TokenSet.of(TokenType.PRS_ENDWHILE);
+    static final TokenSet FOLLOW_FUNCTION_BODY = TokenSet.of(TokenType.PRS_ENDFUNCTION);
+    static final TokenSet FOLLOW_MAIN_BODY = TokenSet.of(TokenType.PRS_END_PROGRAM);
+
+    static final TokenSet FOLLOW_PROGRAM_STATEMENT = TokenSet.of(TokenType.PRS_DECLARATIONS, TokenType.PRS_FUNCTIONS,
+            TokenType.PRS_END_PROGRAM);
+    static final TokenSet FOLLOW_DECLARED_VARIABLE = TokenSet.of(TokenType.SRS_COMMA, TokenType.SRS_SEMICOLON);
+    static final TokenSet FOLLOW_PARAMETER = TokenSet.of(TokenType.SRS_COMMA, TokenType.SRS_RIGHT_PARENTHESIS);
+
+    // Sincronização do modo pânico
+    static final TokenSet SYNC_STATEMENT_END = TokenSet.of(TokenType.SRS_SEMICOLON);
+    static final TokenSet SYNC_IF_HEADER = TokenSet.of(TokenType.PRS_ENDIF, TokenType.SRS_SEMICOLON);
+    static final TokenSet SYNC_IF = TokenSet.of(TokenType.PRS_ENDIF);
+    static final TokenSet SYNC_WHILE = TokenSet.of(TokenType.PRS_ENDWHILE);
+
+    private GrammarSets() {
+    }
+}
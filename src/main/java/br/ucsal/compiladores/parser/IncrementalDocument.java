@@ -0,0 +1,476 @@
+package br.ucsal.compiladores.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.ucsal.compiladores.lexer.IncrementalLexer;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenStream;
+import br.ucsal.compiladores.lexer.TokenType;
+import br.ucsal.compiladores.symbolTable.SymbolOccurrences;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+
+// Documento analisado que aceita edições de texto (offset, quantidade removida, texto inserido). Só o
+// trecho de tokens atingido é reanalisado pelo IncrementalLexer, e só as unidades que dependem dele são
+// reanalisadas pelo Parser: as funções do bloco FUNCTIONS e os comandos de primeiro nível do bloco
+// principal. A reanálise começa na primeira unidade atingida e para quando uma unidade nova termina onde
+// uma antiga (já deslocada) começava; as demais subárvores, mensagens e atualizações de símbolos são
+// reaproveitadas. Edições que atingem o restante do programa (PROGRAM, DECLARATIONS, os delimitadores dos
+// blocos) refazem a análise sintática inteira sobre os tokens atuais, sem nova análise léxica.
+//
+// Offsets são posições no texto com as quebras de linha normalizadas para '\n'; o texto inserido também
+// é normalizado. As mensagens são as do ouvinte com nível ERRORS, na mesma ordem da análise completa;
+// ficam guardadas em partes (ParseMessage) e são formatadas com as linhas e índices atuais.
+public class IncrementalDocument {
+    private final StringBuilder text;
+    private final SymbolOccurrences occurrences = new SymbolOccurrences();
+    private final TokenBuffer tokens;
+    private final IncrementalLexer lexer;
+
+    private Ast ast;
+    private int compactAstSize;
+    // Mensagens e atualizações de símbolos na ordem da análise: head, funções, middle, comandos, tail
+    private Segment head;
+    private Segment middle;
+    private Segment tail;
+    private UnitList functions;
+    private UnitList commands;
+
+    // Montados sob demanda e descartados a cada edição
+    private SymbolTable symbolTable;
+    private int[] symbolRemap;
+
+    private int lastRelexedTokens;
+    private int lastReparsedUnits;
+    private boolean lastFullReparse;
+
+    public IncrementalDocument(String name, CharSequence text) {
+        this.text = new StringBuilder(normalize(text));
+        this.tokens = IncrementalLexer.tokenize(name, this.text, occurrences);
+        this.lexer = new IncrementalLexer(name, tokens, occurrences);
+        this.lastRelexedTokens = tokens.size();
+        parseAll();
+    }
+
+    public static IncrementalDocument open(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            throw new IOException("Arquivo não encontrado: " + path);
+        }
+        return new IncrementalDocument(path.toString(),
+                new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    public void edit(int offset, int removedLength, CharSequence insertedText) {
+        if (offset < 0 || removedLength < 0 || offset + removedLength > text.length()) {
+            throw new IllegalArgumentException("Edição fora do texto: offset " + offset + ", removidos "
+                    + removedLength + ", tamanho " + text.length());
+        }
+        String inserted = normalize(insertedText);
+        text.replace(offset, offset + removedLength, inserted);
+        symbolTable = null;
+        symbolRemap = null;
+
+        IncrementalLexer.Damage damage = lexer.applyEdit(text, offset, removedLength, inserted.length());
+        lastRelexedTokens = damage.getRelexedTokens();
+        lastReparsedUnits = 0;
+        lastFullReparse = false;
+        if (damage.getFirst() == damage.getOldEnd() && damage.getFirst() == damage.getNewEnd()) {
+            // Só espaços ou comentários: os tokens mudaram de linha, e as mensagens citam as linhas dos tokens
+            return;
+        }
+        reparse(damage);
+    }
+
+    private void reparse(IncrementalLexer.Damage damage) {
+        int first = damage.getFirst();
+        int oldEnd = damage.getOldEnd();
+        int tokenShift = damage.getTokenShift();
+
+        UnitList list = functions != null && functions.contains(first, oldEnd) ? functions
+                : commands != null && commands.contains(first, oldEnd) ? commands : null;
+        if (list == null) {
+            parseAll();
+            return;
+        }
+
+        int firstUnit = list.firstEndingAtOrAfter(first);
+        int lastUnit = list.lastStartingBefore(oldEnd);
+        int start = list.units.get(firstUnit).start;
+
+        ast.shiftTokenIndices(oldEnd, tokenShift);
+        for (UnitList units : new UnitList[] { functions, commands }) {
+            if (units != null) {
+                units.shift(oldEnd, tokenShift);
+            }
+        }
+        for (Segment segment : segments()) {
+            segment.shiftPositions(oldEnd, tokenShift);
+        }
+
+        TokenStream stream = TokenStream.of(tokens);
+        stream.seek(start);
+        Recorder recorder = new Recorder();
+        Parser parser = new Parser(stream, null, recorder);
+        parser.setUnitRecorder(recorder);
+        List<Unit> parsed = new ArrayList<>();
+        int resume = -1;
+        int position = start;
+        while (list.continuesAt(tokens.getType(position))) {
+            Segment segment = new Segment();
+            recorder.segment = segment;
+            parser.deferSymbolUpdatesTo(segment.updates);
+            int node = list.functions ? parser.parseFunction() : parser.parseCommand();
+            int end = stream.getPosition();
+            parsed.add(new Unit(position, end, node, segment));
+            position = end;
+            if (position >= damage.getNewEnd()) {
+                resume = list.indexOfStart(position, lastUnit + 1);
+                if (resume >= 0) {
+                    break;
+                }
+            }
+        }
+        if (resume < 0) {
+            if (position != list.end) {
+                // A lista terminou em outro ponto: o restante do programa mudou de sentido
+                parseAll();
+                return;
+            }
+            resume = list.units.size();
+        }
+
+        int nodeShift = ast.size();
+        ast.graft(parser.getAst());
+        int[] nodes = new int[parsed.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            Unit unit = parsed.get(i);
+            unit.node += nodeShift;
+            nodes[i] = unit.node;
+        }
+        int previous = firstUnit > 0 ? list.units.get(firstUnit - 1).node : Ast.NONE;
+        int next = resume < list.units.size() ? list.units.get(resume).node : Ast.NONE;
+        ast.replaceChildren(list.node, previous, next, nodes, nodes.length);
+        list.units.subList(firstUnit, resume).clear();
+        list.units.addAll(firstUnit, parsed);
+        lastReparsedUnits = parsed.size();
+
+        // As subárvores substituídas continuam nos vetores da Ast; quando passam do tamanho da árvore
+        // compacta, uma análise completa a refaz do zero
+        if (ast.size() > 2 * compactAstSize + 1024) {
+            parseAll();
+        }
+    }
+
+    private void parseAll() {
+        TokenStream stream = TokenStream.of(tokens);
+        Recorder recorder = new Recorder();
+        head = new Segment();
+        middle = new Segment();
+        tail = new Segment();
+        functions = null;
+        commands = null;
+
+        Parser parser = new Parser(stream, null, recorder);
+        recorder.parser = parser;
+        recorder.switchTo(head);
+        parser.setUnitRecorder(recorder);
+        parser.check();
+
+        ast = parser.getAst();
+        compactAstSize = ast.size();
+        lastFullReparse = true;
+        lastReparsedUnits = (functions != null ? functions.units.size() : 0)
+                + (commands != null ? commands.units.size() : 0);
+    }
+
+    private List<Segment> segments() {
+        List<Segment> segments = new ArrayList<>();
+        segments.add(head);
+        if (functions != null) {
+            for (Unit unit : functions.units) {
+                segments.add(unit.segment);
+            }
+        }
+        segments.add(middle);
+        if (commands != null) {
+            for (Unit unit : commands.units) {
+                segments.add(unit.segment);
+            }
+        }
+        segments.add(tail);
+        return segments;
+    }
+
+    public SymbolTable getSymbolTable() {
+        if (symbolTable == null) {
+            SymbolTable table = new SymbolTable();
+            int[] remap = new int[occurrences.size() + 1];
+            for (int i = 0; i < tokens.size(); i++) {
+                int occurrence = tokens.getSymbolIndex(i);
+                if (occurrence != TokenBuffer.NO_SYMBOL) {
+                    remap[occurrence] = occurrences.addTo(table, occurrence, tokens.getLine(i));
+                }
+            }
+            for (Segment segment : segments()) {
+                segment.updates.applyTo(table, remap);
+            }
+            symbolTable = table;
+            symbolRemap = remap;
+        }
+        return symbolTable;
+    }
+
+    // Cópia dos tokens com os índices da tabela de getSymbolTable(), como os do relatório .LEX
+    public TokenBuffer getTokens() {
+        getSymbolTable();
+        TokenBuffer copy = new TokenBuffer(tokens.size());
+        copy.appendFrom(tokens, tokens.size(), 0, symbolRemap);
+        return copy;
+    }
+
+    // Os índices de token dos nós são os de getTokens()
+    public Ast getAst() {
+        return ast;
+    }
+
+    public String getText() {
+        return text.toString();
+    }
+
+    // A tabela de símbolos só é montada se alguma mensagem descreve um identificador (IndexTabSimb)
+    public List<String> getDiagnostics() {
+        List<String> diagnostics = new ArrayList<>();
+        for (Segment segment : segments()) {
+            for (ParseMessage message : segment.diagnostics) {
+                if (symbolRemap == null && message.refersToSymbol(tokens)) {
+                    getSymbolTable();
+                }
+                diagnostics.add(message.render(tokens, symbolRemap));
+            }
+        }
+        return diagnostics;
+    }
+
+    public int getErrorCount() {
+        int count = 0;
+        for (Segment segment : segments()) {
+            count += segment.diagnostics.size();
+        }
+        return count;
+    }
+
+    int getLastRelexedTokens() {
+        return lastRelexedTokens;
+    }
+
+    int getLastReparsedUnits() {
+        return lastReparsedUnits;
+    }
+
+    boolean isLastFullReparse() {
+        return lastFullReparse;
+    }
+
+    boolean isSymbolTableBuilt() {
+        return symbolTable != null;
+    }
+
+    private static String normalize(CharSequence text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\r') {
+                normalized.append('\n');
+                if (i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+            } else {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    // Recebe as mensagens em partes e, na análise completa, os limites das unidades
+    private final class Recorder implements ParseListener, ParseUnitRecorder {
+        private Parser parser;
+        private Segment segment;
+        private UnitList list;
+        private int unitStart;
+        private Segment unitSegment;
+
+        void switchTo(Segment target) {
+            segment = target;
+            parser.deferSymbolUpdatesTo(target.updates);
+        }
+
+        @Override
+        public boolean isTracing() {
+            return false;
+        }
+
+        @Override
+        public void print(String text) {
+        }
+
+        @Override
+        public void println(String text) {
+        }
+
+        // O Parser entrega as mensagens em partes por error(ParseMessage); texto pronto não tem referências
+        @Override
+        public void error(String message) {
+            segment.diagnostics.add(ParseMessage.of(message));
+        }
+
+        @Override
+        public void error(ParseMessage message) {
+            segment.diagnostics.add(message);
+        }
+
+        @Override
+        public void unitsStarted(int listNode) {
+            boolean functionList = parser.getAst().getKind(listNode) == AstNodeKind.FUNCTIONS;
+            list = new UnitList(listNode, functionList);
+            if (functionList) {
+                functions = list;
+            } else {
+                commands = list;
+            }
+        }
+
+        @Override
+        public void unitStarted(int position) {
+            unitStart = position;
+            unitSegment = new Segment();
+            switchTo(unitSegment);
+        }
+
+        @Override
+        public void unitFinished(int node, int position) {
+            list.units.add(new Unit(unitStart, position, node, unitSegment));
+            switchTo(list.functions ? middle : tail);
+        }
+
+        @Override
+        public void unitsFinished(int position) {
+            list.end = position;
+            switchTo(list.functions ? middle : tail);
+        }
+    }
+
+    private static final class Segment {
+        final List<ParseMessage> diagnostics = new ArrayList<>();
+        final SymbolUpdates updates = new SymbolUpdates();
+
+        void shiftPositions(int fromToken, int shift) {
+            for (ParseMessage message : diagnostics) {
+                message.shiftPositions(fromToken, shift);
+            }
+        }
+    }
+
+    // Unidade de reanálise: tokens [start, end), sendo end o token que decidiu se a lista continuava
+    private static final class Unit {
+        int start;
+        int end;
+        int node;
+        final Segment segment;
+
+        Unit(int start, int end, int node, Segment segment) {
+            this.start = start;
+            this.end = end;
+            this.node = node;
+            this.segment = segment;
+        }
+    }
+
+    private static final class UnitList {
+        final int node;
+        final boolean functions;
+        final List<Unit> units = new ArrayList<>();
+        int end;
+
+        UnitList(int node, boolean functions) {
+            this.node = node;
+            this.functions = functions;
+        }
+
+        boolean continuesAt(TokenType type) {
+            if (functions) {
+                return type == TokenType.PRS_FUNC_TYPE;
+            }
+            return type != TokenType.END_OF_FILE && !GrammarSets.FOLLOW_MAIN_BODY.contains(type);
+        }
+
+        // O trecho [first, oldEnd) cai só em unidades desta lista, e o token que abre a primeira delas
+        // (que decidiu a entrada na lista) ficou intacto
+        boolean contains(int first, int oldEnd) {
+            return !units.isEmpty() && units.get(0).start < first && oldEnd <= end;
+        }
+
+        int firstEndingAtOrAfter(int position) {
+            int low = 0;
+            int high = units.size() - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (units.get(middle).end >= position) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        int lastStartingBefore(int position) {
+            int low = 0;
+            int high = units.size() - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (units.get(middle).start < position) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+
+        int indexOfStart(int position, int from) {
+            int low = from;
+            int high = units.size() - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int middleStart = units.get(middle).start;
+                if (middleStart == position) {
+                    return middle;
+                }
+                if (middleStart < position) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return -1;
+        }
+
+        void shift(int fromToken, int shift) {
+            for (Unit unit : units) {
+                if (unit.start >= fromToken) {
+                    unit.start += shift;
+                }
+                if (unit.end >= fromToken) {
+                    unit.end += shift;
+                }
+            }
+            if (end >= fromToken) {
+                end += shift;
+            }
+        }
+    }
+}
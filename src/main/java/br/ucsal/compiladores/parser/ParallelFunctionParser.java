@@ -0,0 +1,129 @@
+package br.ucsal.compiladores.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.jfr.CheckRecording;
+import br.ucsal.compiladores.jfr.SlowFunctionEvent;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenStream;
+import br.ucsal.compiladores.lexer.TokenType;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+
+// Análise especulativa das funções do bloco FUNCTIONS. A pré-varredura supõe que cada função vai do
+// FUNCTYPE até o primeiro ENDFUNCTION; cada uma é analisada por um Parser próprio no pool fork/join,
+// lendo o mesmo TokenBuffer e a tabela de símbolos sem alterá-los. O Parser principal só aceita uma
+// função se ela terminou exatamente no limite previsto (um IF sem ENDIF, por exemplo, engole o
+// ENDFUNCTION); dali em diante a análise volta a ser sequencial.
+final class ParallelFunctionParser {
+    private ParallelFunctionParser() {
+    }
+
+    static final class FunctionResult {
+        final int start;
+        final int expectedEnd;
+        int end;
+        Ast ast;
+        BufferedParseListener messages;
+        SymbolUpdates symbolUpdates;
+        int errorCount;
+        SlowFunctionEvent timing;
+
+        FunctionResult(int start, int expectedEnd) {
+            this.start = start;
+            this.expectedEnd = expectedEnd;
+        }
+
+        boolean endsAtBoundary() {
+            return end == expectedEnd;
+        }
+    }
+
+    // Lista vazia quando não há funções suficientes para compensar o paralelismo
+    // recording pode ser null (análise fora de Parser.run)
+    static List<FunctionResult> parse(TokenBuffer tokens, int position, SymbolTable symbolTable, boolean tracing,
+            CheckRecording recording) {
+        List<FunctionResult> functions = findFunctions(tokens, position);
+        if (functions.size() < Constants.PARALLEL_PARSE_MIN_FUNCTIONS) {
+            return Collections.emptyList();
+        }
+
+        int batchSize = Math.max(1, functions.size() / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        List<Callable<Void>> work = new ArrayList<>();
+        for (int from = 0; from < functions.size(); from += batchSize) {
+            List<FunctionResult> batch = functions.subList(from, Math.min(from + batchSize, functions.size()));
+            work.add(() -> {
+                for (FunctionResult function : batch) {
+                    parseFunction(tokens, symbolTable, tracing, recording, function);
+                }
+                return null;
+            });
+        }
+        for (Future<Void> future : ForkJoinPool.commonPool().invokeAll(work)) {
+            await(future);
+        }
+        return functions;
+    }
+
+    private static List<FunctionResult> findFunctions(TokenBuffer tokens, int position) {
+        List<FunctionResult> functions = new ArrayList<>();
+        int start = position;
+        // Um buffer sem EOF no fim termina em size() (ver TokenStream)
+        while (start < tokens.size() && tokens.getType(start) == TokenType.PRS_FUNC_TYPE) {
+            int end = start + 1;
+            while (end < tokens.size() && tokens.getType(end) != TokenType.PRS_ENDFUNCTION
+                    && tokens.getType(end) != TokenType.END_OF_FILE) {
+                end++;
+            }
+            if (end == tokens.size() || tokens.getType(end) == TokenType.END_OF_FILE) {
+                // Função sem ENDFUNCTION: fica para a análise sequencial
+                break;
+            }
+            functions.add(new FunctionResult(start, end + 1));
+            start = end + 1;
+        }
+        return functions;
+    }
+
+    private static void parseFunction(TokenBuffer tokens, SymbolTable symbolTable, boolean tracing,
+            CheckRecording recording, FunctionResult function) {
+        TokenStream stream = TokenStream.of(tokens);
+        stream.seek(function.start);
+        SlowFunctionEvent timing = recording != null ? recording.startFunction(stream) : null;
+        function.messages = new BufferedParseListener(tracing);
+        function.symbolUpdates = new SymbolUpdates();
+        Parser parser = new Parser(stream, symbolTable, function.messages, function.symbolUpdates);
+        parser.getAst().setRoot(parser.parseFunction());
+        function.end = stream.getPosition();
+        function.ast = parser.getAst();
+        function.errorCount = parser.getErrorCount();
+        if (timing != null) {
+            recording.stopFunction(timing, function.end);
+            function.timing = timing;
+        }
+    }
+
+    private static void await(Future<Void> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Análise paralela das funções interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
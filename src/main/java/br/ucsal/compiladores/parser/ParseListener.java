@@ -0,0 +1,43 @@
+package br.ucsal.compiladores.parser;
+
+// Destino das mensagens do Parser. O Parser consulta isTracing() antes de montar qualquer texto de
+// rastro, então um ouvinte desligado não custa concatenação nem cópia de lexemas.
+public interface ParseListener {
+    ParseListener SILENT = new ParseListener() {
+        @Override
+        public boolean isTracing() {
+            return false;
+        }
+
+        @Override
+        public void print(String text) {
+        }
+
+        @Override
+        public void println(String text) {
+        }
+
+        @Override
+        public void error(String message) {
+        }
+    };
+
+    boolean isTracing();
+
+    void print(String text);
+
+    void println(String text);
+
+    default void println() {
+        println("");
+    }
+
+    void error(String message);
+
+    default void flush() {
+    }
+
+    static ParseListener forLevel(TraceLevel level) {
+        return level == TraceLevel.SILENT ? SILENT : new ConsoleParseListener(level);
+    }
+}
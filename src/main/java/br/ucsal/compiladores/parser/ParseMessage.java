@@ -0,0 +1,117 @@
+package br.ucsal.compiladores.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenStream;
+
+// Mensagem de erro do Parser montada em partes: texto fixo e referências a tokens (a linha, a coluna ou
+// o token descrito por inteiro). Cada referência guarda a posição do token e o texto do momento da
+// análise; toString() devolve a mensagem como foi montada e render() formata as referências de novo a
+// partir dos tokens atuais, como faz o documento incremental depois de uma edição.
+final class ParseMessage {
+    private static final byte TEXT = 0;
+    private static final byte LINE = 1;
+    private static final byte COLUMN = 2;
+    private static final byte TOKEN = 3;
+
+    private final TokenStream stream;
+    private final List<Part> parts = new ArrayList<>(4);
+
+    ParseMessage(TokenStream stream) {
+        this.stream = stream;
+    }
+
+    // Mensagem sem referências (ex.: recebida como texto pronto por ParseListener.error)
+    static ParseMessage of(String text) {
+        return new ParseMessage(null).text(text);
+    }
+
+    ParseMessage text(String text) {
+        parts.add(new Part(TEXT, -1, text));
+        return this;
+    }
+
+    // Linha, coluna e descrição do token atual
+    ParseMessage line() {
+        return line(stream.getPosition(), stream.getLine());
+    }
+
+    ParseMessage column() {
+        parts.add(new Part(COLUMN, stream.getPosition(), Integer.toString(stream.getColumn())));
+        return this;
+    }
+
+    ParseMessage token() {
+        parts.add(new Part(TOKEN, stream.getPosition(), stream.describe()));
+        return this;
+    }
+
+    // Linha de um token já consumido, guardada antes do consumo
+    ParseMessage line(int position, int line) {
+        parts.add(new Part(LINE, position, Integer.toString(line)));
+        return this;
+    }
+
+    // Os índices de símbolo dos tokens passam por symbolRemap (ver TokenBuffer.describe)
+    String render(TokenBuffer tokens, int[] symbolRemap) {
+        StringBuilder sb = new StringBuilder();
+        for (Part part : parts) {
+            switch (part.kind) {
+                case LINE:
+                    sb.append(tokens.getLine(part.position));
+                    break;
+                case COLUMN:
+                    sb.append(tokens.getColumn(part.position));
+                    break;
+                case TOKEN:
+                    sb.append(tokens.describe(part.position, symbolRemap));
+                    break;
+                default:
+                    sb.append(part.text);
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    // Se render() precisa de symbolRemap: algum token descrito está na tabela de símbolos
+    boolean refersToSymbol(TokenBuffer tokens) {
+        for (Part part : parts) {
+            if (part.kind == TOKEN && tokens.getSymbolIndex(part.position) != TokenBuffer.NO_SYMBOL) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void shiftPositions(int fromToken, int shift) {
+        for (Part part : parts) {
+            if (part.position >= fromToken) {
+                part.position += shift;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Part part : parts) {
+            sb.append(part.text);
+        }
+        return sb.toString();
+    }
+
+    private static final class Part {
+        final byte kind;
+        int position;
+        final String text;
+
+        Part(byte kind, int position, String text) {
+            this.kind = kind;
+            this.position = position;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package br.ucsal.compiladores.parser;
+
+// Recebe os limites das unidades de reanálise do documento incremental: as funções do bloco FUNCTIONS
+// e os comandos de primeiro nível do bloco principal. As posições são índices de token; a de término é
+// o primeiro token após a unidade (o que decidiu se a lista continua). Com um ParseUnitRecorder, as
+// mensagens de erro do Parser chegam aqui em partes em vez de irem ao ouvinte.
+interface ParseUnitRecorder {
+    void unitsStarted(int listNode);
+
+    void unitStarted(int position);
+
+    void unitFinished(int node, int position);
+
+    void unitsFinished(int position);
+
+    void error(ParseMessage message);
+}
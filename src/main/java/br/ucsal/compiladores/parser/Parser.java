@@ -1,25 +1,60 @@
 package br.ucsal.compiladores.parser;
 
 import br.ucsal.compiladores.App.FileInputDetails;
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.jfr.CheckRecording;
+import br.ucsal.compiladores.jfr.SlowFunctionEvent;
 import br.ucsal.compiladores.lexer.Lexer;
+import br.ucsal.compiladores.lexer.ParallelLexer;
 import br.ucsal.compiladores.lexer.Token;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenStream;
 import br.ucsal.compiladores.lexer.TokenType;
-import br.ucsal.compiladores.symbolTable.Symbol;
+import br.ucsal.compiladores.stats.CheckPhase;
+import br.ucsal.compiladores.stats.CheckStats;
 import br.ucsal.compiladores.symbolTable.SymbolTable;
-import br.ucsal.compiladores.utils.FileHandler;
+import br.ucsal.compiladores.utils.LexReportWriter;
+import br.ucsal.compiladores.utils.ReadMode;
 import br.ucsal.compiladores.utils.ReportGenerator;
+import br.ucsal.compiladores.utils.SourceReader;
+import br.ucsal.compiladores.utils.TextSourceReader;
 
 import java.util.List;
 import java.util.Map;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Set;
 
 public class Parser {
-    private List<Token> tokens;
+    private TokenBuffer tokens;
+    private TokenStream tokenStream;
     private SymbolTable symbolTable;
-    private int currentTokenIndex;
-    private Token currentToken;
+    private Ast ast;
+    private ParseListener listener;
+    private boolean tracing;
+    private int errorCount;
+    private boolean failed;
+    private boolean parallelFunctions;
+    private SymbolUpdates deferredSymbolUpdates;
+    private ParseUnitRecorder unitRecorder;
+    private boolean collectStats;
+    private ReadMode readMode = ReadMode.AUTO;
+    private CheckStats stats;
+    private CheckRecording recording;
+
+    // Pilhas do analisador de expressões; o marcador de sub-expressão tem precedência abaixo de qualquer
+    // operador, então as reduções param nele sozinhas
+    private static final int SUBEXPRESSION_MARKER = -1;
+    private static final int SUBEXPRESSION_PRECEDENCE = 0;
+    private int[] operandStack = new int[16];
+    private int operandCount;
+    private int[] operatorStack = new int[16];
+    private int[] precedenceStack = new int[16];
+    private int operatorCount;
 
     private static final Map<TokenType, String> TYPE_SPEC_TO_DATA_TYPE_MAP = new HashMap<>();
     static {
@@ -32,120 +67,352 @@ public class Parser {
     }
 
     public Parser() {
+        this(ParseListener.forLevel(TraceLevel.VERBOSE));
+    }
+
+    public Parser(ParseListener listener) {
+        setListener(listener);
+        this.parallelFunctions = Runtime.getRuntime().availableProcessors() > 1;
     }
 
     public void run(FileInputDetails fileDetails) {
+        this.errorCount = 0;
+        this.failed = false;
+        this.stats = null;
+        long start = System.nanoTime();
         if (fileDetails == null || fileDetails.baseFileName == null || fileDetails.inputFilePath == null) {
-            System.err.println("Erro: Detalhes do arquivo não configurados corretamente antes de processar.");
+            fail("Erro: Detalhes do arquivo não configurados corretamente antes de processar.");
+            listener.flush();
             return;
         }
 
-        try {
-            FileHandler fileHandler = new FileHandler(fileDetails.baseFileName, fileDetails.directoryPath);
-            System.out.println("Arquivo a ser processado: " + fileHandler.getFilePath());
+        CheckStats runStats = collectStats ? new CheckStats(fileDetails.inputFilePath) : null;
+        this.recording = new CheckRecording();
+        this.symbolTable = new SymbolTable();
+        this.tokens = null;
+        LexReportWriter lexReportWriter = null;
+        String filePath = fileDetails.inputFilePath;
+        long bytes = -1;
+        long phaseStart = start;
+        try (SourceReader fileHandler = SourceReader.open(fileDetails.baseFileName, fileDetails.directoryPath,
+                readMode)) {
+            phaseStart = lap(runStats, CheckPhase.READ, phaseStart);
+            filePath = fileHandler.getFilePath();
+            if (tracing) {
+                listener.println("Arquivo a ser processado: " + filePath);
+            }
 
-            this.symbolTable = new SymbolTable();
+            ReportGenerator reportGenerator;
+            bytes = Files.size(Paths.get(filePath));
+
+            // Com funções em paralelo os tokens são lidos por inteiro antes da análise, mas só em fontes
+            // grandes o bastante, cujos tokens cabem com folga no heap, e quando uma pré-contagem acha
+            // funções suficientes para a análise paralela acontecer; senão o fluxo sob demanda mantém a
+            // memória limitada. Com estatísticas também, para separar o tempo do léxico do da análise
+            boolean readAhead = tracing || runStats != null
+                    || parallelFunctions && bytes >= Constants.PARALLEL_PARSE_THRESHOLD_BYTES
+                            && bytes <= Runtime.getRuntime().maxMemory() / Constants.READ_AHEAD_HEAP_PER_SOURCE_BYTE
+                            && FunctionPrescan.hasAtLeast(Paths.get(filePath),
+                                    Constants.PARALLEL_PARSE_MIN_FUNCTIONS);
+            if (readAhead) {
+                this.tokens = tokenize(fileHandler);
+                phaseStart = lap(runStats, CheckPhase.LEX, phaseStart);
+                if (tracing) {
+                    trace("\nTokens encontrados:");
+                    for (int i = 0; i < tokens.size(); i++) {
+                        listener.println(tokens.describe(i));
+                    }
+                    phaseStart = System.nanoTime();
+                    recording.restartPhase();
+                }
+                initializeParserState();
+                reportGenerator = new ReportGenerator(this.symbolTable, this.tokens, filePath);
+                // Tokens completos: o relatório LEX é formatado e gravado em outra thread durante a análise
+                lexReportWriter = reportGenerator.openLexReport();
+                lexReportWriter.appendCompleted(this.tokens);
+            } else {
+                // Nos demais casos o Parser consome o Lexer sob demanda e o buffer guarda só a janela de
+                // lookahead: o relatório .LEX recebe cada token assim que é lido, e size() continua sendo
+                // a quantidade de tokens lidos desde o início
+                this.tokenStream = new Lexer(fileHandler, this.symbolTable).stream();
+                this.tokens = tokenStream.getBuffer();
+                this.ast = new Ast();
+                reportGenerator = new ReportGenerator(this.symbolTable, this.tokens, filePath);
+                lexReportWriter = reportGenerator.openLexReport();
+                tokenStream.onTokens(lexReportWriter::append);
+            }
 
-            Lexer lexer = new Lexer(fileHandler, this.symbolTable);
-            this.tokens = lexer.tokenize();
+            this.check();
+            // Sem leitura prévia dos tokens, o tempo do léxico fica dentro do sintático
+            phaseStart = lap(runStats, CheckPhase.PARSE, phaseStart);
+
+            // Os atributos dos símbolos só são finais depois da análise; o TAB é gravado aqui enquanto
+            // o LEX termina na thread dele
+            Path tabReport = reportGenerator.generateTabReport();
+            phaseStart = lap(runStats, CheckPhase.TAB_REPORT, phaseStart);
+            Path lexReport = lexReportWriter.finish();
+            lap(runStats, CheckPhase.LEX_REPORT, phaseStart);
+            if (runStats != null) {
+                runStats.setCounts(bytes, tokens.size(), symbolTable.size(), errorCount);
+                runStats.setTotalNanos(System.nanoTime() - start);
+                this.stats = runStats;
+            }
+            if (tracing) {
+                listener.println("Relatório LEX gerado em: " + lexReport);
+                listener.println("Relatório TAB gerado em: " + tabReport);
+            }
+            trace("\nRelatórios gerados com sucesso!");
 
-            System.out.println("\nTokens encontrados:");
-            for (Token token : tokens) {
-                System.out.println(token.toString());
+        } catch (IOException e) {
+            fail("Erro de E/S: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            fail("Erro de E/S: " + e.getMessage());
+        } catch (Exception e) {
+            fail("Erro inesperado durante a análise: " + e.getMessage());
+            listener.flush();
+            e.printStackTrace();
+        } finally {
+            if (lexReportWriter != null) {
+                lexReportWriter.close();
             }
+            // Também numa verificação que falhou: são os picos que se quer investigar no JFR
+            recording.commit(filePath, bytes, tokens != null ? tokens.size() : 0, symbolTable.size(), errorCount,
+                    failed);
+            this.recording = null;
+            listener.flush();
+        }
+    }
 
+    // Analisa um texto em memória sem gerar relatórios (ex.: fonte enviado ao modo daemon) e devolve a
+    // quantidade de erros. Como run(), pode ser chamado várias vezes na mesma instância
+    public int checkText(String name, CharSequence text) {
+        this.errorCount = 0;
+        try {
+            this.symbolTable = new SymbolTable();
+            this.tokens = new Lexer(new TextSourceReader(name, text), this.symbolTable).tokenizeToBuffer();
             initializeParserState();
-
             this.check();
+        } finally {
+            listener.flush();
+        }
+        return errorCount;
+    }
 
-            ReportGenerator reportGenerator = new ReportGenerator(this.symbolTable, this.tokens,
-                    fileHandler.getFilePath());
-            reportGenerator.generateLexReport();
-            reportGenerator.generateTabReport();
-            System.out.println("\nRelatórios gerados com sucesso!");
+    // Uma verificação que não chega ao fim conta como um erro a mais, além dos já encontrados
+    private void fail(String message) {
+        failed = true;
+        errorCount++;
+        listener.error(message);
+    }
 
-        } catch (IOException e) {
-            System.err.println("Erro de E/S: " + e.getMessage());
-        } catch (Exception e) {
-            System.err.println("Erro inesperado durante a análise: " + e.getMessage());
-            e.printStackTrace();
+    // Fecha a fase iniciada em phaseStart e devolve o início da seguinte
+    private long lap(CheckStats runStats, CheckPhase phase, long phaseStart) {
+        long now = System.nanoTime();
+        if (runStats != null) {
+            runStats.addPhase(phase, now - phaseStart);
         }
+        recording.phaseFinished(phase);
+        return now;
     }
 
-    private void initializeParserState() {
-        this.currentTokenIndex = 0;
-        if (this.tokens != null && !this.tokens.isEmpty()) {
-            this.currentToken = this.tokens.get(currentTokenIndex);
-        } else {
-            this.currentToken = new Token(TokenType.END_OF_FILE, "", 0, 0);
+    private TokenBuffer tokenize(SourceReader fileHandler) throws IOException {
+        if (ParallelLexer.shouldSplit(fileHandler.getFilePath())) {
+            return new ParallelLexer(fileHandler.getFilePath(), this.symbolTable).tokenize();
         }
+        return new Lexer(fileHandler, this.symbolTable).tokenizeToBuffer();
+    }
+
+    private void initializeParserState() {
+        this.tokenStream = TokenStream.of(this.tokens);
+        this.ast = new Ast(this.tokens.size());
     }
 
     public Parser(List<Token> tokens, SymbolTable symbolTable) {
-        this.tokens = tokens;
+        this(TokenStream.of(tokens), symbolTable);
+    }
+
+    public Parser(TokenStream tokenStream, SymbolTable symbolTable) {
+        this(tokenStream, symbolTable, ParseListener.forLevel(TraceLevel.VERBOSE));
+    }
+
+    public Parser(TokenStream tokenStream, SymbolTable symbolTable, ParseListener listener) {
+        this.tokenStream = tokenStream;
         this.symbolTable = symbolTable;
-        this.currentTokenIndex = 0;
-        if (!tokens.isEmpty()) {
-            this.currentToken = tokens.get(currentTokenIndex);
+        this.ast = new Ast();
+        setListener(listener);
+    }
+
+    // Parser de uma função no modo paralelo: os atributos de símbolos são registrados em vez de aplicados
+    Parser(TokenStream tokenStream, SymbolTable symbolTable, ParseListener listener,
+            SymbolUpdates deferredSymbolUpdates) {
+        this(tokenStream, symbolTable, listener);
+        this.deferredSymbolUpdates = deferredSymbolUpdates;
+    }
+
+    // Troca o destino das atualizações adiadas; o documento incremental separa as de cada unidade
+    void deferSymbolUpdatesTo(SymbolUpdates deferredSymbolUpdates) {
+        this.deferredSymbolUpdates = deferredSymbolUpdates;
+    }
+
+    void setUnitRecorder(ParseUnitRecorder unitRecorder) {
+        this.unitRecorder = unitRecorder;
+    }
+
+    // Analisa as funções do bloco FUNCTIONS em paralelo quando todos os tokens já estão em memória. Em
+    // Parser(ParseListener) o padrão é ligado quando há mais de um processador
+    public void setParallelFunctions(boolean parallelFunctions) {
+        this.parallelFunctions = parallelFunctions;
+    }
+
+    // Como run() lê o fonte; em AUTO a escolha é pelo tamanho do arquivo (ver SourceReader.autoMode)
+    public void setReadMode(ReadMode readMode) {
+        this.readMode = readMode;
+    }
+
+    // Mede as fases das próximas chamadas a run(); os tokens passam a ser lidos antes da análise
+    public void setCollectStats(boolean collectStats) {
+        this.collectStats = collectStats;
+    }
+
+    // Estatísticas do último run() concluído, ou null se ele falhou ou não coletou estatísticas
+    public CheckStats getStats() {
+        return stats;
+    }
+
+    private void setListener(ParseListener listener) {
+        this.listener = listener;
+        this.tracing = listener.isTracing();
+    }
+
+    public Ast getAst() {
+        return ast;
+    }
+
+    public TokenBuffer getTokens() {
+        return tokens;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    // Se o último run() parou antes do fim (erro de E/S ou inesperado); os relatórios podem faltar
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    // Mensagens constantes: sem concatenação, o custo com o rastro desligado é só o teste do campo.
+    // Mensagens montadas ficam dentro de if (tracing) no ponto de chamada.
+    private void trace(String text) {
+        if (tracing) {
+            listener.println(text);
+        }
+    }
+
+    private void traceInline(String text) {
+        if (tracing) {
+            listener.print(text);
+        }
+    }
+
+    // Erros são contados mesmo com o ouvinte silencioso; a mensagem só é montada no caminho de erro. O
+    // documento incremental recebe as partes, para formatar as referências de novo após edições
+    private void syntaxError(ParseMessage message) {
+        errorCount++;
+        if (unitRecorder != null) {
+            unitRecorder.error(message);
         } else {
-            this.currentToken = new Token(TokenType.END_OF_FILE, "", 0, 0);
+            listener.error(message.toString());
         }
     }
 
+    private ParseMessage message(String text) {
+        return new ParseMessage(tokenStream).text(text);
+    }
+
+    // O token atual é lido direto do buffer do TokenStream; o que for necessário após o consumo
+    // (linha, lexema, índice na tabela) é copiado antes de avançar
+    private TokenType currentType() {
+        return tokenStream.getType();
+    }
+
+    private int currentLine() {
+        return tokenStream.getLine();
+    }
+
+    private String currentLexeme() {
+        return tokenStream.getLexeme();
+    }
+
+    private int currentSymbolIndex() {
+        return tokenStream.getSymbolIndex();
+    }
+
+    private int currentPosition() {
+        return tokenStream.getPosition();
+    }
+
     private void advance() {
-        currentTokenIndex++;
-        if (currentTokenIndex < tokens.size()) {
-            currentToken = tokens.get(currentTokenIndex);
+        tokenStream.advance();
+    }
+
+    private void consume(TokenType expectedType) {
+        if (!match(expectedType)) {
+            syntaxError(message("Erro Sintático: Esperado " + expectedType +
+                    " mas encontrado " + currentType() +
+                    " ('" + currentLexeme() + "') na linha ").line().text(" coluna ").column());
         }
+        advance();
     }
 
-    private Token consume(TokenType expectedType) {
-        if (match(expectedType)) {
-            Token consumedToken = currentToken;
-            advance();
-            return consumedToken;
+    private void consumeIdentifier(String expectedLexeme) {
+        if (!match(TokenType.IDN_VARIABLE) || !tokenStream.lexemeEquals(expectedLexeme.toUpperCase())) {
+            syntaxError(message("Erro Sintático: Esperado IDENTIFICADOR '" + expectedLexeme + "'" +
+                    " mas encontrado " + currentType() +
+                    " ('" + currentLexeme() + "') na linha ").line().text(" coluna ").column());
+        }
+        advance();
+    }
+
+    private boolean match(TokenType type) {
+        return currentType() == type;
+    }
+
+    private void setSymbolAttributes(int symbolIndex, String dataType, String category) {
+        if (deferredSymbolUpdates != null) {
+            deferredSymbolUpdates.add(symbolIndex, dataType, category);
         } else {
-            System.err.println("Erro Sintático: Esperado " + expectedType +
-                    " mas encontrado " + currentToken.getType() +
-                    " ('" + currentToken.getLexeme() + "') na linha " + currentToken.getLine() +
-                    " coluna " + currentToken.getColumn());
-            Token errorToken = currentToken;
-            advance();
-            return errorToken;
+            SymbolUpdates.apply(symbolTable.getSymbolByIndex(symbolIndex), dataType, category);
         }
     }
 
-    private Token consumeIdentifier(String expectedLexeme) {
-        if (match(TokenType.IDN_VARIABLE) && currentToken.getLexeme().equals(expectedLexeme.toUpperCase())) {
-            Token consumedToken = currentToken;
-            advance();
-            return consumedToken;
+    private void declareVariable(int symbolIndex, String dataType) {
+        if (deferredSymbolUpdates != null) {
+            deferredSymbolUpdates.addVariable(symbolIndex, dataType);
         } else {
-            System.err.println("Erro Sintático: Esperado IDENTIFICADOR '" + expectedLexeme + "'" +
-                    " mas encontrado " + currentToken.getType() +
-                    " ('" + currentToken.getLexeme() + "') na linha " + currentToken.getLine() +
-                    " coluna " + currentToken.getColumn());
-            Token errorToken = currentToken;
-            advance();
-            return errorToken;
+            SymbolUpdates.applyVariable(symbolTable.getSymbolByIndex(symbolIndex), dataType);
         }
     }
 
-    private boolean match(TokenType type) {
-        return currentToken.getType() == type;
+    // Sem tabela de símbolos (documento incremental) os índices dos tokens são de ocorrências, resolvidos
+    // só quando a tabela for montada
+    private boolean isKnownSymbol(int symbolIndex) {
+        return symbolTable == null || symbolTable.getSymbolByIndex(symbolIndex) != null;
     }
 
-    private boolean match(TokenType... types) {
-        for (TokenType type : types) {
-            if (match(type)) {
-                return true;
-            }
-        }
-        return false;
+    private boolean match(TokenSet types) {
+        return types.contains(currentType());
     }
 
     private boolean matchTypeSpecification() {
-        return TYPE_SPEC_TO_DATA_TYPE_MAP.containsKey(currentToken.getType());
+        return match(GrammarSets.TYPE_SPECIFIERS);
+    }
+
+    // Modo pânico: descarta tokens até um do conjunto de sincronização ou o fim do arquivo
+    private void skipTo(TokenSet sync) {
+        while (!sync.contains(currentType()) && currentType() != TokenType.END_OF_FILE) {
+            advance();
+        }
     }
 
     private String getDataTypeString(TokenType typeSpecToken, boolean isArray) {
@@ -169,9 +436,12 @@ public class Parser {
         return baseType;
     }
 
-    private void parseVariableDeclarationLine() {
+    private void parseVariableDeclarationLine(int declaration) {
         if (matchTypeSpecification()) {
-            Token typeSpecToken = consume(currentToken.getType());
+            TokenType typeSpecType = currentType();
+            int typeSpecPosition = currentPosition();
+            int typeSpecLine = currentLine();
+            consume(typeSpecType);
             boolean isArray = false;
 
             if (match(TokenType.SRS_LEFT_BRACKET)) {
@@ -180,19 +450,16 @@ public class Parser {
                     consume(TokenType.SRS_RIGHT_BRACKET);
                     isArray = true;
                 } else {
-                    System.err.println("Erro Sintático: Esperado ']' após '[' na declaração de vetor na linha "
-                            + currentToken.getLine());
+                    syntaxError(message("Erro Sintático: Esperado ']' após '[' na declaração de vetor na linha ")
+                            .line());
                 }
             }
 
-            String dataType = getDataTypeString(typeSpecToken.getType(), isArray);
+            String dataType = getDataTypeString(typeSpecType, isArray);
             if (dataType.equals("ERR_ARRAY_OF_VOID")) {
-                System.err.println("Erro Semântico: Declaração de array do tipo VOID não é permitida na linha "
-                        + typeSpecToken.getLine());
-                while (currentToken.getType() != TokenType.SRS_SEMICOLON
-                        && currentToken.getType() != TokenType.END_OF_FILE) {
-                    advance();
-                }
+                syntaxError(message("Erro Semântico: Declaração de array do tipo VOID não é permitida na linha ")
+                        .line(typeSpecPosition, typeSpecLine));
+                skipTo(GrammarSets.SYNC_STATEMENT_END);
                 if (match(TokenType.SRS_SEMICOLON))
                     consume(TokenType.SRS_SEMICOLON);
                 return;
@@ -202,27 +469,24 @@ public class Parser {
                 consume(TokenType.SRS_COLON);
                 do {
                     if (match(TokenType.IDN_VARIABLE)) {
-                        Token varToken = consume(TokenType.IDN_VARIABLE);
-                        if (varToken.getSymbolIndex() != null) {
-                            Symbol varSymbol = symbolTable.getSymbolByIndex(varToken.getSymbolIndex());
-                            if (varSymbol != null) {
-                                varSymbol.setDataType(dataType);
-                                if (varSymbol.getCategory() == null || !varSymbol.getCategory().equals("parameter")) {
-                                    varSymbol.setCategory("variable");
+                        ast.appendChild(declaration, ast.addNode(AstNodeKind.IDENTIFIER, currentPosition()));
+                        int varSymbolIndex = currentSymbolIndex();
+                        String varLexeme = tracing ? currentLexeme() : null;
+                        consume(TokenType.IDN_VARIABLE);
+                        if (varSymbolIndex != TokenBuffer.NO_SYMBOL) {
+                            if (isKnownSymbol(varSymbolIndex)) {
+                                declareVariable(varSymbolIndex, dataType);
+                                if (tracing) {
+                                    listener.println("Parser: Variável '" + varLexeme + (isArray ? "[]" : "")
+                                            + "' declarada com tipo '" + dataType + "'");
                                 }
-                                System.out.println("Parser: Variável '" + varToken.getLexeme() + (isArray ? "[]" : "")
-                                        + "' declarada com tipo '" + dataType + "'");
                             }
                         }
                     } else {
-                        System.err.println(
-                                "Erro Sintático: Esperado IDENTIFICADOR DE VARIÁVEL após ':' ou ',' na declaração na linha "
-                                        + currentToken.getLine());
-                        while (currentToken.getType() != TokenType.SRS_COMMA &&
-                                currentToken.getType() != TokenType.SRS_SEMICOLON &&
-                                currentToken.getType() != TokenType.END_OF_FILE) {
-                            advance();
-                        }
+                        syntaxError(message(
+                                "Erro Sintático: Esperado IDENTIFICADOR DE VARIÁVEL após ':' ou ',' na declaração na linha ")
+                                .line());
+                        skipTo(GrammarSets.FOLLOW_DECLARED_VARIABLE);
                     }
                     if (match(TokenType.SRS_COMMA)) {
                         consume(TokenType.SRS_COMMA);
@@ -233,69 +497,69 @@ public class Parser {
                 if (match(TokenType.SRS_SEMICOLON)) {
                     consume(TokenType.SRS_SEMICOLON);
                 } else {
-                    System.err.println("Erro Sintático: Esperado ';' no final da declaração de variável na linha "
-                            + currentToken.getLine());
+                    syntaxError(message("Erro Sintático: Esperado ';' no final da declaração de variável na linha ")
+                            .line());
                 }
             } else {
-                System.err.println(
-                        "Erro Sintático: Esperado ':' após ESPECIFICADOR_DE_TIPO na declaração de variável na linha "
-                                + currentToken.getLine());
+                syntaxError(message(
+                        "Erro Sintático: Esperado ':' após ESPECIFICADOR_DE_TIPO na declaração de variável na linha ")
+                        .line());
             }
         } else {
-            System.err.println(
-                    "Erro Sintático: Esperado ESPECIFICADOR_DE_TIPO após VARTYPE na linha " + currentToken.getLine());
+            syntaxError(message("Erro Sintático: Esperado ESPECIFICADOR_DE_TIPO após VARTYPE na linha ").line());
         }
     }
 
-    private void parseParameterList() {
+    private void parseParameterList(int function) {
         if (match(TokenType.PRS_PARAM_TYPE)) {
             do {
+                int parameter = ast.addNode(AstNodeKind.PARAMETER, currentPosition());
+                ast.appendChild(function, parameter);
                 consume(TokenType.PRS_PARAM_TYPE);
                 boolean isArrayParam = false;
 
                 if (matchTypeSpecification()) {
-                    Token typeSpecToken = consume(currentToken.getType());
-                    String paramDataType = getDataTypeString(typeSpecToken.getType(), isArrayParam);
+                    TokenType typeSpecType = currentType();
+                    consume(typeSpecType);
+                    String paramDataType = getDataTypeString(typeSpecType, isArrayParam);
 
                     if (match(TokenType.SRS_COLON)) {
                         consume(TokenType.SRS_COLON);
 
                         if (match(TokenType.IDN_VARIABLE)) {
-                            Token paramToken = consume(TokenType.IDN_VARIABLE);
-                            if (paramToken.getSymbolIndex() != null) {
-                                Symbol paramSymbol = symbolTable.getSymbolByIndex(paramToken.getSymbolIndex());
-                                if (paramSymbol != null) {
-                                    paramSymbol.setDataType(paramDataType);
-                                    paramSymbol.setCategory("parameter");
-                                    System.out.println("Parser: Parâmetro '" + paramToken.getLexeme()
-                                            + "' declarada com tipo '" + paramDataType + "'");
+                            ast.appendChild(parameter, ast.addNode(AstNodeKind.IDENTIFIER, currentPosition()));
+                            int paramSymbolIndex = currentSymbolIndex();
+                            String paramLexeme = tracing ? currentLexeme() : null;
+                            consume(TokenType.IDN_VARIABLE);
+                            if (paramSymbolIndex != TokenBuffer.NO_SYMBOL) {
+                                if (isKnownSymbol(paramSymbolIndex)) {
+                                    setSymbolAttributes(paramSymbolIndex, paramDataType, "parameter");
+                                    if (tracing) {
+                                        listener.println("Parser: Parâmetro '" + paramLexeme
+                                                + "' declarada com tipo '" + paramDataType + "'");
+                                    }
                                 }
                             }
                         } else {
-                            System.err.println("Erro Sintático: Esperado IDENTIFICADOR_DE_PARAMETRO após ':' na linha "
-                                    + currentToken.getLine());
-                            while (currentToken.getType() != TokenType.SRS_COMMA &&
-                                    currentToken.getType() != TokenType.SRS_RIGHT_PARENTHESIS &&
-                                    currentToken.getType() != TokenType.END_OF_FILE) {
-                                advance();
-                            }
+                            syntaxError(message(
+                                    "Erro Sintático: Esperado IDENTIFICADOR_DE_PARAMETRO após ':' na linha ").line());
+                            skipTo(GrammarSets.FOLLOW_PARAMETER);
                         }
                     } else {
-                        System.err.println(
-                                "Erro Sintático: Esperado ':' após ESPECIFICADOR_DE_TIPO do parâmetro na linha "
-                                        + currentToken.getLine());
+                        syntaxError(message(
+                                "Erro Sintático: Esperado ':' após ESPECIFICADOR_DE_TIPO do parâmetro na linha ")
+                                .line());
                     }
                 } else {
-                    System.err.println("Erro Sintático: Esperado ESPECIFICADOR_DE_TIPO após PARAMTYPE na linha "
-                            + currentToken.getLine());
+                    syntaxError(message("Erro Sintático: Esperado ESPECIFICADOR_DE_TIPO após PARAMTYPE na linha ")
+                            .line());
                 }
 
                 if (match(TokenType.SRS_COMMA)) {
                     consume(TokenType.SRS_COMMA);
                     if (!match(TokenType.PRS_PARAM_TYPE)) {
-                        System.err
-                                .println("Erro Sintático: Esperado PARAMTYPE após ',' na lista de parâmetros na linha "
-                                        + currentToken.getLine());
+                        syntaxError(message(
+                                "Erro Sintático: Esperado PARAMTYPE após ',' na lista de parâmetros na linha ").line());
                         break;
                     }
                 } else {
@@ -306,106 +570,175 @@ public class Parser {
         if (match(TokenType.SRS_RIGHT_PARENTHESIS)) {
             consume(TokenType.SRS_RIGHT_PARENTHESIS);
         } else {
-            System.err.println("Erro Sintático: Esperado ')' para fechar a lista de parâmetros na linha "
-                    + currentToken.getLine());
+            syntaxError(message("Erro Sintático: Esperado ')' para fechar a lista de parâmetros na linha ")
+                    .line());
         }
     }
 
-    private void parseFactor() {
-        System.out.print(" (Fator: ");
-        if (match(TokenType.IDN_VARIABLE) ||
-                match(TokenType.IDN_INT_CONST) ||
-                match(TokenType.IDN_REAL_CONST) ||
-                match(TokenType.PRS_TRUE) ||
-                match(TokenType.PRS_FALSE) ||
-                match(TokenType.IDN_STRING_CONST) ||
-                match(TokenType.IDN_CHAR_CONST)) {
-            System.out.print(currentToken.getLexeme());
-            advance();
-        } else if (match(TokenType.SRS_LEFT_PARENTHESIS)) {
-            consume(TokenType.SRS_LEFT_PARENTHESIS);
-            System.out.print("(SubExpressao: ");
-            parseAritmExp();
-            if (match(TokenType.SRS_RIGHT_PARENTHESIS)) {
-                consume(TokenType.SRS_RIGHT_PARENTHESIS);
+    // Precedence climbing iterativo: * / % ligam mais forte que + -, todos associando à esquerda.
+    // Cada '(' empilha um marcador em vez de recursão, então o aninhamento só ocupa as pilhas do Parser
+    // (reaproveitadas entre expressões) e nunca a pilha de chamadas. O rastro sai na ordem dos tokens,
+    // igual ao da versão recursiva.
+    private int parseAritmExp() {
+        int operandBase = operandCount;
+        int operatorBase = operatorCount;
+        int openSubexpressions = 0;
+
+        while (true) {
+            traceInline(" (Fator: ");
+            if (match(GrammarSets.FIRST_OPERAND)) {
+                pushOperand(ast.addNode(match(TokenType.IDN_VARIABLE) ? AstNodeKind.IDENTIFIER
+                        : AstNodeKind.LITERAL, currentPosition()));
+                if (tracing) {
+                    listener.print(currentLexeme());
+                }
+                advance();
+            } else if (match(TokenType.SRS_LEFT_PARENTHESIS)) {
+                consume(TokenType.SRS_LEFT_PARENTHESIS);
+                traceInline("(SubExpressao: ");
+                pushOperator(SUBEXPRESSION_MARKER, SUBEXPRESSION_PRECEDENCE);
+                openSubexpressions++;
+                continue;
             } else {
-                System.err.println(
-                        "Erro Sintático: Esperado ')' para fechar sub-expressão na linha " + currentToken.getLine());
+                // O token inválido não é consumido; o nó de erro aponta para ele
+                pushOperand(ast.addNode(AstNodeKind.ERROR, currentPosition()));
+                if (tracing) {
+                    listener.print("<<Fator Inválido: " + currentLexeme() + ">>");
+                }
             }
-            System.out.print(")");
-        } else {
-            System.out.print("<<Fator Inválido: " + currentToken.getLexeme() + ">>");
+            traceInline(") ");
+
+            // Sem operador a seguir, as sub-expressões abertas terminam aqui, da mais interna para fora
+            while (openSubexpressions > 0 && !match(GrammarSets.ARITHMETIC_OPERATORS)) {
+                while (operatorStack[operatorCount - 1] != SUBEXPRESSION_MARKER) {
+                    reduceOperator();
+                }
+                operatorCount--;
+                openSubexpressions--;
+                if (match(TokenType.SRS_RIGHT_PARENTHESIS)) {
+                    consume(TokenType.SRS_RIGHT_PARENTHESIS);
+                } else {
+                    syntaxError(message("Erro Sintático: Esperado ')' para fechar sub-expressão na linha ").line());
+                }
+                traceInline(")");
+                traceInline(") ");
+            }
+
+            if (!match(GrammarSets.ARITHMETIC_OPERATORS)) {
+                break;
+            }
+            int precedence = match(GrammarSets.MULTIPLICATIVE_OPERATORS) ? 2 : 1;
+            while (operatorCount > operatorBase && precedenceStack[operatorCount - 1] >= precedence) {
+                reduceOperator();
+            }
+            pushOperator(currentPosition(), precedence);
+            if (tracing) {
+                listener.print(currentLexeme() + " ");
+            }
+            advance();
         }
-        System.out.print(") ");
+
+        while (operatorCount > operatorBase) {
+            reduceOperator();
+        }
+        operandCount = operandBase;
+        return operandStack[operandBase];
     }
 
-    private void parseAritmExp() {
-        parseFactor();
-        while (match(TokenType.SRS_PLUS, TokenType.SRS_MINUS,
-                TokenType.SRS_MULTIPLICATION, TokenType.SRS_DIVISION, TokenType.SRS_MODULO)) {
-            Token operator = currentToken;
-            System.out.print(operator.getLexeme() + " ");
-            advance();
-            parseFactor();
+    private void pushOperand(int node) {
+        if (operandCount == operandStack.length) {
+            operandStack = Arrays.copyOf(operandStack, operandCount * 2);
+        }
+        operandStack[operandCount++] = node;
+    }
+
+    private void pushOperator(int tokenIndex, int precedence) {
+        if (operatorCount == operatorStack.length) {
+            operatorStack = Arrays.copyOf(operatorStack, operatorCount * 2);
+            precedenceStack = Arrays.copyOf(precedenceStack, operatorCount * 2);
         }
+        operatorStack[operatorCount] = tokenIndex;
+        precedenceStack[operatorCount] = precedence;
+        operatorCount++;
     }
 
-    private void parseLogicalExp() {
-        System.out.print(" (ExprLógica: ");
-        parseAritmExp();
+    private void reduceOperator() {
+        int operator = operatorStack[--operatorCount];
+        int right = operandStack[--operandCount];
+        int left = operandStack[--operandCount];
+        pushOperand(ast.addNode(AstNodeKind.BINARY_OPERATION, operator, left, right));
+    }
+
+    private int parseLogicalExp() {
+        traceInline(" (ExprLógica: ");
+        int node = parseAritmExp();
 
-        if (match(TokenType.SRS_EQUAL_COMPARISON, TokenType.SRS_NOT_EQUAL,
-                TokenType.SRS_LESS_THAN, TokenType.SRS_LESS_THAN_OR_EQUAL,
-                TokenType.SRS_GREATER_THAN, TokenType.SRS_GREATER_THAN_OR_EQUAL)) {
-            Token relOp = currentToken;
-            System.out.print(relOp.getLexeme() + " ");
+        if (match(GrammarSets.RELATIONAL_OPERATORS)) {
+            int operator = currentPosition();
+            if (tracing) {
+                listener.print(currentLexeme() + " ");
+            }
             advance();
-            parseAritmExp();
+            int right = parseAritmExp();
+            node = ast.addNode(AstNodeKind.RELATIONAL_OPERATION, operator, node, right);
         }
-        System.out.print(") ");
+        traceInline(") ");
+        return node;
     }
 
-    private void parseAssignmentCommand() {
-        Token variableToken = consume(TokenType.IDN_VARIABLE);
-        System.out.println("Parser: Comando de atribuição para variável '" + variableToken.getLexeme() + "'");
+    private int parseAssignmentCommand() {
+        int assignment = ast.addNode(AstNodeKind.ASSIGNMENT, currentPosition());
+        ast.appendChild(assignment, ast.addNode(AstNodeKind.IDENTIFIER, currentPosition()));
+        // O lexema só é materializado se for exibido: no rastro ou na falta do ':='
+        String variableLexeme = tracing || tokenStream.peekType(1) != TokenType.SRS_ASSIGNMENT ? currentLexeme()
+                : null;
+        int variableLine = currentLine();
+        consume(TokenType.IDN_VARIABLE);
+        if (tracing) {
+            listener.println("Parser: Comando de atribuição para variável '" + variableLexeme + "'");
+        }
         if (match(TokenType.SRS_ASSIGNMENT)) {
             consume(TokenType.SRS_ASSIGNMENT);
         } else {
-            System.err.println("Erro Sintático: Esperado ':=' após variável '" + variableToken.getLexeme() +
-                    "' no comando de atribuição na linha " + variableToken.getLine());
-            while (currentToken.getType() != TokenType.SRS_SEMICOLON
-                    && currentToken.getType() != TokenType.END_OF_FILE) {
-                advance();
-            }
+            syntaxError(message("Erro Sintático: Esperado ':=' após variável '" + variableLexeme +
+                    "' no comando de atribuição na linha ").line(ast.getTokenIndex(assignment), variableLine));
+            skipTo(GrammarSets.SYNC_STATEMENT_END);
         }
-        System.out.print("Parser: Lendo expressão da atribuição: ");
-        parseAritmExp();
-        System.out.println();
+        traceInline("Parser: Lendo expressão da atribuição: ");
+        ast.appendChild(assignment, parseAritmExp());
+        trace("");
         if (match(TokenType.SRS_SEMICOLON)) {
             consume(TokenType.SRS_SEMICOLON);
         } else {
-            System.err.println("Erro Sintático: Esperado ';' no final do comando de atribuição iniciado na linha "
-                    + variableToken.getLine());
+            syntaxError(message("Erro Sintático: Esperado ';' no final do comando de atribuição iniciado na linha ")
+                    .line(ast.getTokenIndex(assignment), variableLine));
         }
+        return assignment;
     }
 
-    private void parsePrintCommand() {
-        Token printToken = consume(TokenType.PRS_PRINT);
-        System.out.println("Parser: Comando PRINT encontrado na linha " + printToken.getLine());
-        System.out.print("Parser: Lendo expressão(ões) do PRINT: ");
+    private int parsePrintCommand() {
+        int print = ast.addNode(AstNodeKind.PRINT, currentPosition());
+        int printLine = currentLine();
+        consume(TokenType.PRS_PRINT);
+        if (tracing) {
+            listener.println("Parser: Comando PRINT encontrado na linha " + printLine);
+        }
+        traceInline("Parser: Lendo expressão(ões) do PRINT: ");
 
         boolean firstExpression = true;
         do {
             if (!firstExpression && match(TokenType.SRS_COMMA)) {
-                System.out.print(currentToken.getLexeme() + " ");
+                if (tracing) {
+                    listener.print(currentLexeme() + " ");
+                }
                 consume(TokenType.SRS_COMMA);
             } else if (!firstExpression && !match(TokenType.SRS_SEMICOLON)) {
-                System.err.println("Erro Sintático: Esperado ',' ou ';' após expressão no comando PRINT na linha "
-                        + currentToken.getLine());
+                syntaxError(message("Erro Sintático: Esperado ',' ou ';' após expressão no comando PRINT na linha ")
+                        .line());
                 break;
             }
 
-            parseAritmExp();
+            ast.appendChild(print, parseAritmExp());
             firstExpression = false;
 
             if (!match(TokenType.SRS_COMMA)) {
@@ -413,317 +746,419 @@ public class Parser {
             }
         } while (true);
 
-        System.out.println();
+        trace("");
 
         if (match(TokenType.SRS_SEMICOLON)) {
             consume(TokenType.SRS_SEMICOLON);
         } else {
-            System.err.println(
-                    "Erro Sintático: Esperado ';' no final do comando PRINT iniciado na linha " + printToken.getLine() +
-                            ". Encontrado: " + currentToken.getLexeme());
+            syntaxError(message("Erro Sintático: Esperado ';' no final do comando PRINT iniciado na linha ")
+                    .line(ast.getTokenIndex(print), printLine).text(". Encontrado: " + currentLexeme()));
         }
+        return print;
     }
 
-    private void parseReturnCommand() {
-        Token returnToken = consume(TokenType.PRS_RETURN);
-        System.out.println("Parser: Comando RETURN encontrado na linha " + returnToken.getLine());
-        if (currentToken.getType() != TokenType.SRS_SEMICOLON && currentToken.getType() != TokenType.END_OF_FILE) {
-            System.out.print("Parser: Lendo expressão do RETURN: ");
-            parseAritmExp();
-            System.out.println();
+    private int parseReturnCommand() {
+        int returnNode = ast.addNode(AstNodeKind.RETURN, currentPosition());
+        int returnLine = currentLine();
+        consume(TokenType.PRS_RETURN);
+        if (tracing) {
+            listener.println("Parser: Comando RETURN encontrado na linha " + returnLine);
+        }
+        if (currentType() != TokenType.SRS_SEMICOLON && currentType() != TokenType.END_OF_FILE) {
+            traceInline("Parser: Lendo expressão do RETURN: ");
+            ast.appendChild(returnNode, parseAritmExp());
+            trace("");
         } else {
-            System.out.println("Parser: RETURN sem expressão.");
+            trace("Parser: RETURN sem expressão.");
         }
         if (match(TokenType.SRS_SEMICOLON)) {
             consume(TokenType.SRS_SEMICOLON);
         } else {
-            System.err.println("Erro Sintático: Esperado ';' no final do comando RETURN iniciado na linha "
-                    + returnToken.getLine());
+            syntaxError(message("Erro Sintático: Esperado ';' no final do comando RETURN iniciado na linha ")
+                    .line(ast.getTokenIndex(returnNode), returnLine));
         }
+        return returnNode;
     }
 
-    private void parseIfCommand() {
-        Token ifToken = consume(TokenType.PRS_IF);
-        System.out.println("Parser: Comando IF encontrado na linha " + ifToken.getLine());
+    private int parseIfCommand() {
+        int ifNode = ast.addNode(AstNodeKind.IF, currentPosition());
+        int ifLine = currentLine();
+        consume(TokenType.PRS_IF);
+        if (tracing) {
+            listener.println("Parser: Comando IF encontrado na linha " + ifLine);
+        }
 
         if (!match(TokenType.SRS_LEFT_PARENTHESIS)) {
-            System.err.println("Erro Sintático: Esperado '(' após IF na linha " + ifToken.getLine());
-            while (currentToken.getType() != TokenType.PRS_ENDIF &&
-                    currentToken.getType() != TokenType.SRS_SEMICOLON &&
-                    currentToken.getType() != TokenType.END_OF_FILE) {
-                advance();
-            }
+            syntaxError(message("Erro Sintático: Esperado '(' após IF na linha ")
+                    .line(ast.getTokenIndex(ifNode), ifLine));
+            skipTo(GrammarSets.SYNC_IF_HEADER);
             if (match(TokenType.PRS_ENDIF))
                 consume(TokenType.PRS_ENDIF);
-            return;
+            return ifNode;
         }
         consume(TokenType.SRS_LEFT_PARENTHESIS);
 
-        System.out.print("Parser: Lendo condição do IF:");
-        parseLogicalExp();
-        System.out.println();
+        traceInline("Parser: Lendo condição do IF:");
+        ast.appendChild(ifNode, parseLogicalExp());
+        trace("");
 
         if (!match(TokenType.SRS_RIGHT_PARENTHESIS)) {
-            System.err.println("Erro Sintático: Esperado ')' para fechar condição do IF na linha " + ifToken.getLine()
-                    + ". Encontrado: " + currentToken);
-            while (currentToken.getType() != TokenType.PRS_ENDIF && currentToken.getType() != TokenType.END_OF_FILE) {
-                advance();
-            }
+            syntaxError(message("Erro Sintático: Esperado ')' para fechar condição do IF na linha ")
+                    .line(ast.getTokenIndex(ifNode), ifLine).text(". Encontrado: ").token());
+            skipTo(GrammarSets.SYNC_IF);
             if (match(TokenType.PRS_ENDIF))
                 consume(TokenType.PRS_ENDIF);
-            return;
+            return ifNode;
         }
         consume(TokenType.SRS_RIGHT_PARENTHESIS);
 
-        if (currentToken.getType() == TokenType.IDN_VARIABLE && currentToken.getLexeme().equals("THEN")) {
-            System.out.println("Parser: Consumindo 'THEN' (como IDN_VARIABLE) após condição do IF.");
+        if (currentType() == TokenType.IDN_VARIABLE && tokenStream.lexemeEquals("THEN")) {
+            trace("Parser: Consumindo 'THEN' (como IDN_VARIABLE) após condição do IF.");
             consumeIdentifier("THEN");
         }
 
-        System.out.println("Parser: Processando bloco THEN do IF iniciado na linha " + ifToken.getLine());
-        parseCommandList(TokenType.PRS_ELSE, TokenType.PRS_ENDIF);
+        if (tracing) {
+            listener.println("Parser: Processando bloco THEN do IF iniciado na linha " + ifLine);
+        }
+        ast.appendChild(ifNode, parseCommandList(GrammarSets.FOLLOW_THEN_BLOCK));
 
         if (match(TokenType.PRS_ELSE)) {
             consume(TokenType.PRS_ELSE);
-            System.out.println("Parser: Processando bloco ELSE do IF iniciado na linha " + ifToken.getLine());
-            parseCommandList(TokenType.PRS_ENDIF);
+            if (tracing) {
+                listener.println("Parser: Processando bloco ELSE do IF iniciado na linha " + ifLine);
+            }
+            ast.appendChild(ifNode, parseCommandList(GrammarSets.FOLLOW_ELSE_BLOCK));
         }
 
         if (match(TokenType.PRS_ENDIF)) {
             consume(TokenType.PRS_ENDIF);
-            System.out.println("Parser: Fim do comando IF (ENDIF) da linha " + ifToken.getLine());
+            if (tracing) {
+                listener.println("Parser: Fim do comando IF (ENDIF) da linha " + ifLine);
+            }
         } else {
-            System.err.println("Erro Sintático: Esperado ENDIF para finalizar comando IF iniciado na linha "
-                    + ifToken.getLine() + ". Encontrado: " + currentToken);
+            syntaxError(message("Erro Sintático: Esperado ENDIF para finalizar comando IF iniciado na linha ")
+                    .line(ast.getTokenIndex(ifNode), ifLine).text(". Encontrado: ").token());
         }
+        return ifNode;
     }
 
-    private void parseWhileCommand() {
-        Token whileToken = consume(TokenType.PRS_WHILE);
-        System.out.println("Parser: Comando WHILE encontrado na linha " + whileToken.getLine());
+    private int parseWhileCommand() {
+        int whileNode = ast.addNode(AstNodeKind.WHILE, currentPosition());
+        int whileLine = currentLine();
+        consume(TokenType.PRS_WHILE);
+        if (tracing) {
+            listener.println("Parser: Comando WHILE encontrado na linha " + whileLine);
+        }
 
         if (!match(TokenType.SRS_LEFT_PARENTHESIS)) {
-            System.err.println("Erro Sintático: Esperado '(' após WHILE na linha " + whileToken.getLine());
-            while (currentToken.getType() != TokenType.PRS_ENDWHILE
-                    && currentToken.getType() != TokenType.END_OF_FILE) {
-                advance();
-            }
+            syntaxError(message("Erro Sintático: Esperado '(' após WHILE na linha ")
+                    .line(ast.getTokenIndex(whileNode), whileLine));
+            skipTo(GrammarSets.SYNC_WHILE);
             if (match(TokenType.PRS_ENDWHILE))
                 consume(TokenType.PRS_ENDWHILE);
-            return;
+            return whileNode;
         }
         consume(TokenType.SRS_LEFT_PARENTHESIS);
 
-        System.out.print("Parser: Lendo condição do WHILE:");
-        parseLogicalExp();
-        System.out.println();
+        traceInline("Parser: Lendo condição do WHILE:");
+        ast.appendChild(whileNode, parseLogicalExp());
+        trace("");
 
         if (!match(TokenType.SRS_RIGHT_PARENTHESIS)) {
-            System.err.println("Erro Sintático: Esperado ')' para fechar condição do WHILE na linha "
-                    + whileToken.getLine() + ". Encontrado: " + currentToken);
-            while (currentToken.getType() != TokenType.PRS_ENDWHILE
-                    && currentToken.getType() != TokenType.END_OF_FILE) {
-                advance();
-            }
+            syntaxError(message("Erro Sintático: Esperado ')' para fechar condição do WHILE na linha ")
+                    .line(ast.getTokenIndex(whileNode), whileLine).text(". Encontrado: ").token());
+            skipTo(GrammarSets.SYNC_WHILE);
             if (match(TokenType.PRS_ENDWHILE))
                 consume(TokenType.PRS_ENDWHILE);
-            return;
+            return whileNode;
         }
         consume(TokenType.SRS_RIGHT_PARENTHESIS);
 
-        System.out.println("Parser: Processando corpo do WHILE iniciado na linha " + whileToken.getLine());
-        parseCommandList(TokenType.PRS_ENDWHILE);
+        if (tracing) {
+            listener.println("Parser: Processando corpo do WHILE iniciado na linha " + whileLine);
+        }
+        ast.appendChild(whileNode, parseCommandList(GrammarSets.FOLLOW_WHILE_BODY));
 
         if (match(TokenType.PRS_ENDWHILE)) {
             consume(TokenType.PRS_ENDWHILE);
-            System.out.println("Parser: Fim do comando WHILE (ENDWHILE) da linha " + whileToken.getLine());
+            if (tracing) {
+                listener.println("Parser: Fim do comando WHILE (ENDWHILE) da linha " + whileLine);
+            }
         } else {
-            System.err.println("Erro Sintático: Esperado ENDWHILE para finalizar comando WHILE iniciado na linha "
-                    + whileToken.getLine() + ". Encontrado: " + currentToken);
+            syntaxError(message("Erro Sintático: Esperado ENDWHILE para finalizar comando WHILE iniciado na linha ")
+                    .line(ast.getTokenIndex(whileNode), whileLine).text(". Encontrado: ").token());
         }
+        return whileNode;
     }
 
-    private void parseBreakCommand() {
-        Token breakToken = consume(TokenType.PRS_BREAK);
-        System.out.println("Parser: Comando BREAK encontrado na linha " + breakToken.getLine());
+    private int parseBreakCommand() {
+        int breakNode = ast.addNode(AstNodeKind.BREAK, currentPosition());
+        int breakLine = currentLine();
+        consume(TokenType.PRS_BREAK);
+        if (tracing) {
+            listener.println("Parser: Comando BREAK encontrado na linha " + breakLine);
+        }
 
         if (match(TokenType.SRS_SEMICOLON)) {
             consume(TokenType.SRS_SEMICOLON);
         } else {
-            System.err.println("Erro Sintático: Esperado ';' após comando BREAK na linha " + breakToken.getLine());
+            syntaxError(message("Erro Sintático: Esperado ';' após comando BREAK na linha ")
+                    .line(ast.getTokenIndex(breakNode), breakLine));
         }
+        return breakNode;
     }
 
-    private void parseCommandList(TokenType... stopTokens) {
-        Set<TokenType> stops = Set.of(stopTokens);
-        while (currentToken.getType() != TokenType.END_OF_FILE && !stops.contains(currentToken.getType())) {
-            if (match(TokenType.IDN_VARIABLE)) {
-                parseAssignmentCommand();
-            } else if (match(TokenType.PRS_PRINT)) {
-                parsePrintCommand();
-            } else if (match(TokenType.PRS_RETURN)) {
-                parseReturnCommand();
-            } else if (match(TokenType.PRS_IF)) {
-                parseIfCommand();
-            } else if (match(TokenType.PRS_WHILE)) {
-                parseWhileCommand();
-            } else if (match(TokenType.PRS_BREAK)) {
-                parseBreakCommand();
-            } else {
-                System.err.println("Erro Sintático: Comando desconhecido ou inesperado '" + currentToken.getLexeme() +
-                        "' na linha " + currentToken.getLine() + " dentro de um bloco de comandos.");
-                advance();
+    private int parseCommandList(TokenSet stops) {
+        return parseCommandList(stops, null);
+    }
+
+    // recorder só é passado no bloco principal: cada comando de primeiro nível é uma unidade de reanálise
+    private int parseCommandList(TokenSet stops, ParseUnitRecorder recorder) {
+        int commandList = ast.addNode(AstNodeKind.COMMAND_LIST, currentPosition());
+        if (recorder != null) {
+            recorder.unitsStarted(commandList);
+        }
+        while (currentType() != TokenType.END_OF_FILE && !match(stops)) {
+            if (recorder != null) {
+                recorder.unitStarted(currentPosition());
             }
+            int command = parseCommand();
+            ast.appendChild(commandList, command);
+            if (recorder != null) {
+                recorder.unitFinished(command, currentPosition());
+            }
+        }
+        if (recorder != null) {
+            recorder.unitsFinished(currentPosition());
+        }
+        return commandList;
+    }
+
+    int parseCommand() {
+        if (match(TokenType.IDN_VARIABLE)) {
+            return parseAssignmentCommand();
+        } else if (match(TokenType.PRS_PRINT)) {
+            return parsePrintCommand();
+        } else if (match(TokenType.PRS_RETURN)) {
+            return parseReturnCommand();
+        } else if (match(TokenType.PRS_IF)) {
+            return parseIfCommand();
+        } else if (match(TokenType.PRS_WHILE)) {
+            return parseWhileCommand();
+        } else if (match(TokenType.PRS_BREAK)) {
+            return parseBreakCommand();
         }
+        int command = ast.addNode(AstNodeKind.ERROR, currentPosition());
+        syntaxError(message("Erro Sintático: Comando desconhecido ou inesperado '" + currentLexeme() +
+                "' na linha ").line().text(" dentro de um bloco de comandos."));
+        advance();
+        return command;
     }
 
-    private void parseProgramStatement() {
+    private void parseProgramStatement(int program) {
         if (match(TokenType.PRS_PROGRAM)) {
             consume(TokenType.PRS_PROGRAM);
             if (match(TokenType.IDN_VARIABLE)) {
-                Token programNameToken = consume(TokenType.IDN_VARIABLE);
-                System.out.println("Parser: Nome do programa identificado: " + programNameToken.getLexeme());
-                if (programNameToken.getSymbolIndex() != null) {
-                    Symbol progSymbol = symbolTable.getSymbolByIndex(programNameToken.getSymbolIndex());
-                    if (progSymbol != null) {
-                        progSymbol.setCategory("programName");
-                    }
+                ast.appendChild(program, ast.addNode(AstNodeKind.PROGRAM_NAME, currentPosition()));
+                int programNameSymbolIndex = currentSymbolIndex();
+                String programName = tracing ? currentLexeme() : null;
+                consume(TokenType.IDN_VARIABLE);
+                if (tracing) {
+                    listener.println("Parser: Nome do programa identificado: " + programName);
+                }
+                if (programNameSymbolIndex != TokenBuffer.NO_SYMBOL && isKnownSymbol(programNameSymbolIndex)) {
+                    setSymbolAttributes(programNameSymbolIndex, null, "programName");
                 }
                 if (match(TokenType.SRS_SEMICOLON)) {
                     consume(TokenType.SRS_SEMICOLON);
                 } else {
-                    System.err.println(
-                            "Erro Sintático: Esperado ';' após o nome do programa na linha " + currentToken.getLine());
+                    syntaxError(message("Erro Sintático: Esperado ';' após o nome do programa na linha ").line());
                 }
             } else {
-                System.err.println(
-                        "Erro Sintático: Esperado NOME_DO_PROGRAMA após PROGRAM na linha " + currentToken.getLine());
+                syntaxError(message("Erro Sintático: Esperado NOME_DO_PROGRAMA após PROGRAM na linha ").line());
             }
         } else {
-            System.err.println("Erro Sintático: Programa deve iniciar com a palavra reservada 'PROGRAM' na linha "
-                    + currentToken.getLine());
-            while (!match(TokenType.PRS_DECLARATIONS, TokenType.PRS_FUNCTIONS, TokenType.PRS_END_PROGRAM,
-                    TokenType.END_OF_FILE)) {
-                advance();
-            }
+            syntaxError(message("Erro Sintático: Programa deve iniciar com a palavra reservada 'PROGRAM' na linha ")
+                    .line());
+            skipTo(GrammarSets.FOLLOW_PROGRAM_STATEMENT);
         }
     }
 
-    private void parseDeclarationsBlock() {
+    private int parseDeclarationsBlock() {
         if (match(TokenType.PRS_DECLARATIONS)) {
-            System.out.println("Parser: Bloco DECLARATIONS encontrado.");
+            int declarations = ast.addNode(AstNodeKind.DECLARATIONS, currentPosition());
+            trace("Parser: Bloco DECLARATIONS encontrado.");
             consume(TokenType.PRS_DECLARATIONS);
             while (match(TokenType.PRS_VAR_TYPE)) {
+                int declaration = ast.addNode(AstNodeKind.VARIABLE_DECLARATION, currentPosition());
+                ast.appendChild(declarations, declaration);
                 consume(TokenType.PRS_VAR_TYPE);
-                parseVariableDeclarationLine();
+                parseVariableDeclarationLine(declaration);
             }
             if (match(TokenType.PRS_END_DECLARATIONS)) {
                 consume(TokenType.PRS_END_DECLARATIONS);
-                System.out.println("Parser: Fim do bloco DECLARATIONS.");
+                trace("Parser: Fim do bloco DECLARATIONS.");
             } else {
-                System.err.println("Erro Sintático: Esperado ENDDECLARATIONS para finalizar o bloco na linha "
-                        + currentToken.getLine());
+                syntaxError(message("Erro Sintático: Esperado ENDDECLARATIONS para finalizar o bloco na linha ")
+                        .line());
             }
+            return declarations;
         }
+        return Ast.NONE;
     }
 
-    private void parseSingleFunctionDeclaration() {
+    private void parseSingleFunctionDeclaration(int function) {
         String functionReturnType = "N/D";
         if (matchTypeSpecification()) {
-            Token typeSpecToken = consume(currentToken.getType());
-            functionReturnType = getDataTypeString(typeSpecToken.getType(), false);
+            TokenType typeSpecType = currentType();
+            consume(typeSpecType);
+            functionReturnType = getDataTypeString(typeSpecType, false);
         } else {
-            System.err.println(
-                    "Erro Sintático: Esperado ESPECIFICADOR_DE_TIPO após FUNCTYPE na linha " + currentToken.getLine());
+            syntaxError(message("Erro Sintático: Esperado ESPECIFICADOR_DE_TIPO após FUNCTYPE na linha ").line());
         }
 
         if (match(TokenType.SRS_COLON)) {
             consume(TokenType.SRS_COLON);
         } else {
-            System.err.println("Erro Sintático: Esperado ':' após ESPECIFICADOR_DE_TIPO da função na linha "
-                    + currentToken.getLine());
+            syntaxError(message("Erro Sintático: Esperado ':' após ESPECIFICADOR_DE_TIPO da função na linha ")
+                    .line());
         }
 
         if (match(TokenType.IDN_VARIABLE)) {
-            Token funcNameToken = consume(TokenType.IDN_VARIABLE);
-            System.out.println("Parser: Nome de função identificado: " + funcNameToken.getLexeme());
-            if (funcNameToken.getSymbolIndex() != null) {
-                Symbol funcSymbol = symbolTable.getSymbolByIndex(funcNameToken.getSymbolIndex());
-                if (funcSymbol != null) {
-                    funcSymbol.setCategory("functionName");
-                    funcSymbol.setDataType(functionReturnType);
-                }
+            ast.appendChild(function, ast.addNode(AstNodeKind.IDENTIFIER, currentPosition()));
+            int funcNameSymbolIndex = currentSymbolIndex();
+            String funcName = currentLexeme();
+            consume(TokenType.IDN_VARIABLE);
+            if (tracing) {
+                listener.println("Parser: Nome de função identificado: " + funcName);
+            }
+            if (funcNameSymbolIndex != TokenBuffer.NO_SYMBOL) {
+                setSymbolAttributes(funcNameSymbolIndex, functionReturnType, "functionName");
             }
 
             if (match(TokenType.SRS_LEFT_PARENTHESIS)) {
                 consume(TokenType.SRS_LEFT_PARENTHESIS);
-                parseParameterList();
+                parseParameterList(function);
             } else {
-                System.err.println("Erro Sintático: Esperado '(' após nome da função '" + funcNameToken.getLexeme()
-                        + "' na linha " + currentToken.getLine());
+                syntaxError(message("Erro Sintático: Esperado '(' após nome da função '" + funcName + "' na linha ")
+                        .line());
             }
 
-            System.out.println("Parser: Processando corpo da função '" + funcNameToken.getLexeme() + "'.");
-            parseCommandList(TokenType.PRS_ENDFUNCTION);
+            if (tracing) {
+                listener.println("Parser: Processando corpo da função '" + funcName + "'.");
+            }
+            ast.appendChild(function, parseCommandList(GrammarSets.FOLLOW_FUNCTION_BODY));
 
             if (match(TokenType.PRS_ENDFUNCTION)) {
                 consume(TokenType.PRS_ENDFUNCTION);
-                System.out.println("Parser: Fim da função '" + funcNameToken.getLexeme() + "'.");
+                if (tracing) {
+                    listener.println("Parser: Fim da função '" + funcName + "'.");
+                }
             } else {
-                System.err.println(
-                        "Erro Sintático: Esperado ENDFUNCTION para finalizar a função '" + funcNameToken.getLexeme()
-                                + "' na linha " + currentToken.getLine() + ". Encontrado: " + currentToken);
+                syntaxError(message("Erro Sintático: Esperado ENDFUNCTION para finalizar a função '" + funcName
+                        + "' na linha ").line().text(". Encontrado: ").token());
             }
         } else {
-            System.err.println("Erro Sintático: Esperado NOME_DA_FUNCAO após ':' na linha " + currentToken.getLine());
+            syntaxError(message("Erro Sintático: Esperado NOME_DA_FUNCAO após ':' na linha ").line());
         }
     }
 
-    private void parseFunctionsBlock() {
+    int parseFunction() {
+        int function = ast.addNode(AstNodeKind.FUNCTION, currentPosition());
+        consume(TokenType.PRS_FUNC_TYPE);
+        parseSingleFunctionDeclaration(function);
+        return function;
+    }
+
+    // Incorpora, na ordem, as funções analisadas em paralelo que terminaram no limite previsto; a partir
+    // da primeira que não terminou, o laço sequencial de parseFunctionsBlock continua do início dela
+    private void parseFunctionsInParallel(int functions) {
+        for (ParallelFunctionParser.FunctionResult function : ParallelFunctionParser.parse(tokenStream.getBuffer(),
+                currentPosition(), symbolTable, tracing, recording)) {
+            if (!function.endsAtBoundary()) {
+                break;
+            }
+            if (recording != null) {
+                recording.addFunction(function.timing);
+            }
+            ast.appendChild(functions, ast.graft(function.ast));
+            function.messages.replayTo(listener);
+            function.symbolUpdates.applyTo(symbolTable);
+            errorCount += function.errorCount;
+            tokenStream.seek(function.end);
+        }
+    }
+
+    private int parseFunctionsBlock() {
         if (match(TokenType.PRS_FUNCTIONS)) {
-            System.out.println("Parser: Bloco FUNCTIONS encontrado.");
+            int functions = ast.addNode(AstNodeKind.FUNCTIONS, currentPosition());
+            trace("Parser: Bloco FUNCTIONS encontrado.");
             consume(TokenType.PRS_FUNCTIONS);
+            if (parallelFunctions && match(TokenType.PRS_FUNC_TYPE) && tokenStream.isComplete()) {
+                parseFunctionsInParallel(functions);
+            }
+            if (unitRecorder != null) {
+                unitRecorder.unitsStarted(functions);
+            }
             while (match(TokenType.PRS_FUNC_TYPE)) {
-                consume(TokenType.PRS_FUNC_TYPE);
-                parseSingleFunctionDeclaration();
+                if (unitRecorder != null) {
+                    unitRecorder.unitStarted(currentPosition());
+                }
+                SlowFunctionEvent timing = recording != null ? recording.startFunction(tokenStream) : null;
+                int function = parseFunction();
+                if (timing != null) {
+                    recording.stopFunction(timing, currentPosition());
+                    recording.addFunction(timing);
+                }
+                ast.appendChild(functions, function);
+                if (unitRecorder != null) {
+                    unitRecorder.unitFinished(function, currentPosition());
+                }
+            }
+            if (unitRecorder != null) {
+                unitRecorder.unitsFinished(currentPosition());
             }
             if (match(TokenType.PRS_END_FUNCTIONS)) {
                 consume(TokenType.PRS_END_FUNCTIONS);
-                System.out.println("Parser: Fim do bloco FUNCTIONS.");
+                trace("Parser: Fim do bloco FUNCTIONS.");
             } else {
-                System.err.println("Erro Sintático: Esperado ENDFUNCTIONS para finalizar o bloco na linha "
-                        + currentToken.getLine());
+                syntaxError(message("Erro Sintático: Esperado ENDFUNCTIONS para finalizar o bloco na linha ")
+                        .line());
             }
+            return functions;
         }
+        return Ast.NONE;
     }
 
     public void check() {
-        System.out.println("\nParser Iniciado: Verificando sequência de tokens...");
+        trace("\nParser Iniciado: Verificando sequência de tokens...");
 
-        parseProgramStatement();
-        parseDeclarationsBlock();
-        parseFunctionsBlock();
+        int program = ast.addNode(AstNodeKind.PROGRAM, currentPosition());
+        ast.setRoot(program);
+        parseProgramStatement(program);
+        ast.appendChild(program, parseDeclarationsBlock());
+        ast.appendChild(program, parseFunctionsBlock());
 
-        if (currentToken.getType() != TokenType.PRS_END_PROGRAM && currentToken.getType() != TokenType.END_OF_FILE) {
-            System.out.println("Parser: Iniciando processamento de comandos do bloco principal.");
-            parseCommandList(TokenType.PRS_END_PROGRAM);
+        if (currentType() != TokenType.PRS_END_PROGRAM && currentType() != TokenType.END_OF_FILE) {
+            trace("Parser: Iniciando processamento de comandos do bloco principal.");
+            ast.appendChild(program, parseCommandList(GrammarSets.FOLLOW_MAIN_BODY, unitRecorder));
         }
 
         if (match(TokenType.PRS_END_PROGRAM)) {
             consume(TokenType.PRS_END_PROGRAM);
-            System.out.println("Parser: Fim do programa (ENDPROGRAM) encontrado.");
+            trace("Parser: Fim do programa (ENDPROGRAM) encontrado.");
         } else {
-            if (currentToken.getType() != TokenType.END_OF_FILE) {
-                System.err.println("Erro Sintático: Esperado ENDPROGRAM para finalizar o programa na linha "
-                        + currentToken.getLine() + ". Encontrado: " + currentToken.getType());
+            if (currentType() != TokenType.END_OF_FILE) {
+                syntaxError(message("Erro Sintático: Esperado ENDPROGRAM para finalizar o programa na linha ")
+                        .line().text(". Encontrado: " + currentType()));
             }
         }
 
-        if (currentToken.getType() != TokenType.END_OF_FILE) {
-            System.err.println("Erro Sintático: Tokens residuais após o esperado fim do programa, começando com '"
-                    + currentToken.getLexeme() + "' na linha " + currentToken.getLine());
+        if (currentType() != TokenType.END_OF_FILE) {
+            syntaxError(message("Erro Sintático: Tokens residuais após o esperado fim do programa, começando com '"
+                    + currentLexeme() + "' na linha ").line());
         }
 
-        System.out.println("Parser: Fim da verificação de tokens (EOF alcançado).");
+        trace("Parser: Fim da verificação de tokens (EOF alcançado).");
     }
 }
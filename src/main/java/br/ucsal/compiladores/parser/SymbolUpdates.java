@@ -0,0 +1,79 @@
+package br.ucsal.compiladores.parser;
+
+import java.util.Arrays;
+
+import br.ucsal.compiladores.symbolTable.Symbol;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+
+// Atualizações de atributos de símbolos adiadas: um Parser de função em paralelo (ou de um trecho do
+// documento incremental) só registra, e quem o criou aplica na ordem do texto, com o mesmo resultado da
+// análise sequencial. null = não altera.
+final class SymbolUpdates {
+    private int[] symbolIndices = new int[8];
+    private String[] dataTypes = new String[8];
+    private String[] categories = new String[8];
+    private boolean[] variables = new boolean[8];
+    private int count;
+
+    void add(int symbolIndex, String dataType, String category) {
+        add(symbolIndex, dataType, category, false);
+    }
+
+    // Declaração de variável: a categoria depende do estado do símbolo no momento em que for aplicada
+    void addVariable(int symbolIndex, String dataType) {
+        add(symbolIndex, dataType, null, true);
+    }
+
+    private void add(int symbolIndex, String dataType, String category, boolean variable) {
+        if (count == symbolIndices.length) {
+            symbolIndices = Arrays.copyOf(symbolIndices, count * 2);
+            dataTypes = Arrays.copyOf(dataTypes, count * 2);
+            categories = Arrays.copyOf(categories, count * 2);
+            variables = Arrays.copyOf(variables, count * 2);
+        }
+        symbolIndices[count] = symbolIndex;
+        dataTypes[count] = dataType;
+        categories[count] = category;
+        variables[count] = variable;
+        count++;
+    }
+
+    void applyTo(SymbolTable symbolTable) {
+        applyTo(symbolTable, null);
+    }
+
+    // symbolRemap traduz os índices registrados para os da tabela (null = já são os da tabela)
+    void applyTo(SymbolTable symbolTable, int[] symbolRemap) {
+        for (int i = 0; i < count; i++) {
+            int symbolIndex = symbolRemap != null ? symbolRemap[symbolIndices[i]] : symbolIndices[i];
+            Symbol symbol = symbolTable.getSymbolByIndex(symbolIndex);
+            if (variables[i]) {
+                applyVariable(symbol, dataTypes[i]);
+            } else {
+                apply(symbol, dataTypes[i], categories[i]);
+            }
+        }
+    }
+
+    static void apply(Symbol symbol, String dataType, String category) {
+        if (symbol == null) {
+            return;
+        }
+        if (dataType != null) {
+            symbol.setDataType(dataType);
+        }
+        if (category != null) {
+            symbol.setCategory(category);
+        }
+    }
+
+    static void applyVariable(Symbol symbol, String dataType) {
+        if (symbol == null) {
+            return;
+        }
+        symbol.setDataType(dataType);
+        if (symbol.getCategory() == null || !symbol.getCategory().equals("parameter")) {
+            symbol.setCategory("variable");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package br.ucsal.compiladores.parser;
+
+import br.ucsal.compiladores.lexer.TokenType;
+
+// Conjunto imutável de tipos de token guardado como máscara de bits sobre os ordinais de TokenType:
+// o teste de pertinência é um único AND, sem alocação nem laço.
+public final class TokenSet {
+    public static final TokenSet EMPTY = new TokenSet(0L);
+
+    static {
+        if (TokenType.values().length > Long.SIZE) {
+            throw new ExceptionInInitializerError("TokenType tem mais de " + Long.SIZE + " valores");
+        }
+    }
+
+    private final long bits;
+
+    private TokenSet(long bits) {
+        this.bits = bits;
+    }
+
+    public static TokenSet of(TokenType... types) {
+        long bits = 0L;
+        for (TokenType type : types) {
+            bits |= bit(type);
+        }
+        return new TokenSet(bits);
+    }
+
+    public TokenSet union(TokenSet other) {
+        return new TokenSet(bits | other.bits);
+    }
+
+    public TokenSet with(TokenType... types) {
+        return union(of(types));
+    }
+
+    public boolean contains(TokenType type) {
+        return (bits & bit(type)) != 0L;
+    }
+
+    private static long bit(TokenType type) {
+        return 1L << type.ordinal();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof TokenSet && ((TokenSet) obj).bits == bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (TokenType type : TokenType.values()) {
+            if (contains(type)) {
+                sb.append(sb.length() > 1 ? ", " : "").append(type);
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,10 @@
+package br.ucsal.compiladores.parser;
+
+public enum TraceLevel {
+    // Nada é escrito no console; os erros continuam sendo contados pelo Parser
+    SILENT,
+    // Apenas mensagens de erro
+    ERRORS,
+    // Rastro completo da análise, como na versão interativa
+    VERBOSE
+}
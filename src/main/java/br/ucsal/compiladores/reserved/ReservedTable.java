@@ -1,15 +1,22 @@
 package br.ucsal.compiladores.reserved;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import br.ucsal.compiladores.lexer.TokenType;
 
-public class ReservedTable {
-    private final Map<String, TokenType> reservedWords;
+// Tabela imutável e compartilhada: as palavras ficam agrupadas por tamanho e a comparação
+// converte para caixa alta caractere a caractere, sem criar Strings
+public final class ReservedTable {
+    private static final ReservedTable INSTANCE = new ReservedTable();
 
-    public ReservedTable() {
-        reservedWords = new HashMap<>();
+    private final char[][][] wordsByLength;
+    private final TokenType[][] typesByLength;
+
+    private ReservedTable() {
+        Map<String, TokenType> reservedWords = new LinkedHashMap<>();
 
         reservedWords.put("PROGRAM", TokenType.PRS_PROGRAM);
         reservedWords.put("ENDPROGRAM", TokenType.PRS_END_PROGRAM);
@@ -37,13 +44,81 @@ public class ReservedTable {
         reservedWords.put("BREAK", TokenType.PRS_BREAK);
         reservedWords.put("PRINT", TokenType.PRS_PRINT);
         reservedWords.put("ENDFUNCTION", TokenType.PRS_ENDFUNCTION);
+
+        int maxLength = 0;
+        for (String word : reservedWords.keySet()) {
+            maxLength = Math.max(maxLength, word.length());
+        }
+        List<List<String>> buckets = new ArrayList<>();
+        for (int i = 0; i <= maxLength; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (String word : reservedWords.keySet()) {
+            buckets.get(word.length()).add(word);
+        }
+
+        wordsByLength = new char[maxLength + 1][][];
+        typesByLength = new TokenType[maxLength + 1][];
+        for (int length = 0; length <= maxLength; length++) {
+            List<String> bucket = buckets.get(length);
+            wordsByLength[length] = new char[bucket.size()][];
+            typesByLength[length] = new TokenType[bucket.size()];
+            for (int i = 0; i < bucket.size(); i++) {
+                wordsByLength[length][i] = bucket.get(i).toCharArray();
+                typesByLength[length][i] = reservedWords.get(bucket.get(i));
+            }
+        }
+    }
+
+    public static ReservedTable getInstance() {
+        return INSTANCE;
+    }
+
+    public TokenType getTokenType(char[] chars, int offset, int length) {
+        if (length >= wordsByLength.length) {
+            return null;
+        }
+        char[][] candidates = wordsByLength[length];
+        for (int i = 0; i < candidates.length; i++) {
+            char[] word = candidates[i];
+            int j = 0;
+            while (j < length && word[j] == toUpperCase(chars[offset + j])) {
+                j++;
+            }
+            if (j == length) {
+                return typesByLength[length][i];
+            }
+        }
+        return null;
     }
 
     public TokenType getTokenType(String lexeme) {
-        return reservedWords.get(lexeme.toUpperCase());
+        int length = lexeme.length();
+        if (length >= wordsByLength.length) {
+            return null;
+        }
+        char[][] candidates = wordsByLength[length];
+        for (int i = 0; i < candidates.length; i++) {
+            char[] word = candidates[i];
+            int j = 0;
+            while (j < length && word[j] == toUpperCase(lexeme.charAt(j))) {
+                j++;
+            }
+            if (j == length) {
+                return typesByLength[length][i];
+            }
+        }
+        return null;
     }
 
     public boolean isReserved(String lexeme) {
-        return reservedWords.containsKey(lexeme.toUpperCase());
+        return getTokenType(lexeme) != null;
+    }
+
+    private static char toUpperCase(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return (char) (c - ('a' - 'A'));
+        }
+        return c < 128 ? c : Character.toUpperCase(c);
     }
 }
@@ -0,0 +1,21 @@
+package br.ucsal.compiladores.stats;
+
+public enum CheckPhase {
+    // Abertura do fonte; o FileHandler lê o arquivo inteiro aqui, os fontes mapeados são lidos no léxico
+    READ("leitura"),
+    LEX("léxico"),
+    PARSE("sintático"),
+    // Só a espera pelo fim da gravação: o .LEX é gravado em outra thread durante a análise
+    LEX_REPORT("relatório LEX"),
+    TAB_REPORT("relatório TAB");
+
+    private final String label;
+
+    CheckPhase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,93 @@
+package br.ucsal.compiladores.stats;
+
+import java.util.Locale;
+
+// Tempos e contagens de uma verificação (Parser.run com setCollectStats(true)). Os tempos são de
+// relógio, em nanossegundos. As taxas de uma fase dividem o tamanho do fonte e a quantidade de tokens
+// pelo tempo da fase, para comparar fases entre si e o mesmo fonte entre versões.
+public class CheckStats {
+    private final String filePath;
+    private final long[] phaseNanos = new long[CheckPhase.values().length];
+    private long totalNanos;
+    private long bytes;
+    private int tokens;
+    private int symbols;
+    private int diagnostics;
+
+    public CheckStats(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public void addPhase(CheckPhase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    public void setTotalNanos(long totalNanos) {
+        this.totalNanos = totalNanos;
+    }
+
+    public void setCounts(long bytes, int tokens, int symbols, int diagnostics) {
+        this.bytes = bytes;
+        this.tokens = tokens;
+        this.symbols = symbols;
+        this.diagnostics = diagnostics;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public long getNanos(CheckPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    // Inclui o que fica entre as fases (mensagens de rastro, criação dos relatórios)
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public int getTokens() {
+        return tokens;
+    }
+
+    public int getSymbols() {
+        return symbols;
+    }
+
+    public int getDiagnostics() {
+        return diagnostics;
+    }
+
+    public double getBytesPerSecond(CheckPhase phase) {
+        return perSecond(bytes, getNanos(phase));
+    }
+
+    public double getTokensPerSecond(CheckPhase phase) {
+        return perSecond(tokens, getNanos(phase));
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "  %-14s %12s %12s %14s%n", "fase", "tempo (ms)", "MB/s", "tokens/s"));
+        for (CheckPhase phase : CheckPhase.values()) {
+            appendRow(sb, phase.getLabel(), getNanos(phase));
+        }
+        appendRow(sb, "total", totalNanos);
+        sb.append(String.format(Locale.ROOT, "  %d bytes, %d tokens, %d símbolos, %d diagnósticos%n", bytes, tokens,
+                symbols, diagnostics));
+        return sb.toString();
+    }
+
+    private void appendRow(StringBuilder sb, String label, long nanos) {
+        sb.append(String.format(Locale.ROOT, "  %-14s %12.3f %12.1f %14.0f%n", label, nanos / 1e6,
+                perSecond(bytes, nanos) / (1024 * 1024), perSecond(tokens, nanos)));
+    }
+
+    static double perSecond(long count, long nanos) {
+        return nanos > 0 ? count * 1e9 / nanos : 0;
+    }
+}
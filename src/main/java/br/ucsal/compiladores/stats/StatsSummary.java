@@ -0,0 +1,105 @@
+package br.ucsal.compiladores.stats;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Agregado das estatísticas de um lote: percentis p50 e p99 do tempo de cada fase entre os arquivos
+// analisados, e a vazão do lote inteiro (soma dos bytes e tokens pelo tempo de relógio do lote, que
+// com arquivos em paralelo é menor que a soma dos tempos de cada um).
+public class StatsSummary {
+    private final int files;
+    private final long[][] sortedPhaseNanos = new long[CheckPhase.values().length][];
+    private final long[] sortedTotalNanos;
+    private final long elapsedNanos;
+    private long bytes;
+    private long tokens;
+    private long symbols;
+    private long diagnostics;
+
+    public StatsSummary(List<CheckStats> stats, long elapsedNanos) {
+        this.files = stats.size();
+        this.elapsedNanos = elapsedNanos;
+        for (CheckPhase phase : CheckPhase.values()) {
+            long[] nanos = new long[files];
+            for (int i = 0; i < files; i++) {
+                nanos[i] = stats.get(i).getNanos(phase);
+            }
+            Arrays.sort(nanos);
+            sortedPhaseNanos[phase.ordinal()] = nanos;
+        }
+        sortedTotalNanos = new long[files];
+        for (int i = 0; i < files; i++) {
+            CheckStats file = stats.get(i);
+            sortedTotalNanos[i] = file.getTotalNanos();
+            bytes += file.getBytes();
+            tokens += file.getTokens();
+            symbols += file.getSymbols();
+            diagnostics += file.getDiagnostics();
+        }
+        Arrays.sort(sortedTotalNanos);
+    }
+
+    public int getFiles() {
+        return files;
+    }
+
+    // percentile entre 0 e 100; 0 quando nenhum arquivo foi analisado
+    public long getPercentileNanos(CheckPhase phase, double percentile) {
+        return percentile(sortedPhaseNanos[phase.ordinal()], percentile);
+    }
+
+    public long getTotalPercentileNanos(double percentile) {
+        return percentile(sortedTotalNanos, percentile);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getTokens() {
+        return tokens;
+    }
+
+    public long getSymbols() {
+        return symbols;
+    }
+
+    public long getDiagnostics() {
+        return diagnostics;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Estatísticas de ").append(files).append(files == 1 ? " arquivo analisado" : " arquivos analisados")
+                .append(System.lineSeparator());
+        sb.append(String.format(Locale.ROOT, "  %-14s %12s %12s%n", "fase", "p50 (ms)", "p99 (ms)"));
+        for (CheckPhase phase : CheckPhase.values()) {
+            appendRow(sb, phase.getLabel(), sortedPhaseNanos[phase.ordinal()]);
+        }
+        appendRow(sb, "total", sortedTotalNanos);
+        sb.append(String.format(Locale.ROOT,
+                "  Lote: %.3f ms, %.1f MB/s, %.0f tokens/s, %d bytes, %d tokens, %d símbolos, %d diagnósticos%n",
+                elapsedNanos / 1e6, CheckStats.perSecond(bytes, elapsedNanos) / (1024 * 1024),
+                CheckStats.perSecond(tokens, elapsedNanos), bytes, tokens, symbols, diagnostics));
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, String label, long[] sortedNanos) {
+        sb.append(String.format(Locale.ROOT, "  %-14s %12.3f %12.3f%n", label, percentile(sortedNanos, 50) / 1e6,
+                percentile(sortedNanos, 99) / 1e6));
+    }
+
+    // Método do posto mais próximo: o menor valor com pelo menos percentile% das amostras até ele
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.min(sorted.length, Math.max(1, rank)) - 1];
+    }
+}
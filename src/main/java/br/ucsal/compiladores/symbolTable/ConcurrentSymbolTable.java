@@ -0,0 +1,148 @@
+package br.ucsal.compiladores.symbolTable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.ucsal.compiladores.lexer.TokenType;
+
+// Variante para vários produtores: as chaves são distribuídas em faixas, cada uma com seu próprio lock.
+// Os índices devolvidos durante a análise são provisórios (ordem de chegada); mergeInto() reordena as
+// entradas pela posição da primeira ocorrência, de modo que o resultado é o mesmo de uma execução
+// sequencial, e devolve o mapa provisório -> definitivo para corrigir os tokens já emitidos.
+public class ConcurrentSymbolTable implements SymbolRegistry {
+    private static final int STRIPE_COUNT = 64;
+    private static final int MAX_LINE_APPEARANCES = 5;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+    private final AtomicInteger nextProvisionalIndex = new AtomicInteger();
+
+    public ConcurrentSymbolTable() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public int addOrGetSymbol(String effectiveKeyLexeme, String displayLexeme, TokenType tokenType,
+            int originalLength, int lineNumber, long position) {
+        Stripe stripe = stripeFor(effectiveKeyLexeme.hashCode());
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(effectiveKeyLexeme);
+            if (entry == null) {
+                entry = new Entry(effectiveKeyLexeme, nextProvisionalIndex.incrementAndGet(), position);
+                entry.setFirstOccurrence(displayLexeme, tokenType, originalLength, position);
+                stripe.entries.put(effectiveKeyLexeme, entry);
+            } else if (position < entry.firstPosition) {
+                entry.setFirstOccurrence(displayLexeme, tokenType, originalLength, position);
+            }
+            entry.addAppearance(lineNumber, position);
+            return entry.provisionalIndex;
+        }
+    }
+
+    // A chave ainda vira String para a busca na faixa; o lexema exibido só quando a ocorrência é a primeira
+    @Override
+    public int addOrGetSymbol(char[] lexeme, int keyLength, int displayLength, TokenType tokenType,
+            int originalLength, int lineNumber, long position) {
+        String key = new String(lexeme, 0, keyLength);
+        Stripe stripe = stripeFor(key.hashCode());
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            boolean first = entry == null;
+            if (first) {
+                entry = new Entry(key, nextProvisionalIndex.incrementAndGet(), position);
+                stripe.entries.put(key, entry);
+            }
+            if (first || position < entry.firstPosition) {
+                String displayLexeme = displayLength == keyLength ? key : new String(lexeme, 0, displayLength);
+                entry.setFirstOccurrence(displayLexeme, tokenType, originalLength, position);
+            }
+            entry.addAppearance(lineNumber, position);
+            return entry.provisionalIndex;
+        }
+    }
+
+    public int size() {
+        return nextProvisionalIndex.get();
+    }
+
+    // Deve ser chamado depois que todos os produtores terminaram. remap[provisório] = índice em table
+    public int[] mergeInto(SymbolTable table) {
+        Entry[] entries = new Entry[nextProvisionalIndex.get()];
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Entry entry : stripe.entries.values()) {
+                    entries[entry.provisionalIndex - 1] = entry;
+                }
+            }
+        }
+        Arrays.sort(entries, Comparator.comparingLong((Entry entry) -> entry.firstPosition)
+                .thenComparingInt(entry -> entry.provisionalIndex));
+
+        int[] remap = new int[entries.length + 1];
+        for (Entry entry : entries) {
+            int index = table.addOrGetSymbol(entry.key, entry.displayLexeme, entry.tokenType, entry.originalLength,
+                    entry.lines[0]);
+            Symbol symbol = table.getSymbolByIndex(index);
+            for (int i = 1; i < entry.appearanceCount; i++) {
+                symbol.addAppearance(entry.lines[i]);
+            }
+            remap[entry.provisionalIndex] = index;
+        }
+        return remap;
+    }
+
+    private Stripe stripeFor(int hash) {
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+    }
+
+    private static final class Stripe {
+        final Map<String, Entry> entries = new HashMap<>();
+    }
+
+    // Guarda os dados da ocorrência de menor posição e as cinco primeiras linhas em ordem de posição
+    private static final class Entry {
+        final String key;
+        final int provisionalIndex;
+        final int[] lines = new int[MAX_LINE_APPEARANCES];
+        final long[] positions = new long[MAX_LINE_APPEARANCES];
+        int appearanceCount;
+
+        long firstPosition;
+        String displayLexeme;
+        TokenType tokenType;
+        int originalLength;
+
+        Entry(String key, int provisionalIndex, long position) {
+            this.key = key;
+            this.provisionalIndex = provisionalIndex;
+            this.firstPosition = position;
+        }
+
+        void setFirstOccurrence(String displayLexeme, TokenType tokenType, int originalLength, long position) {
+            this.displayLexeme = displayLexeme;
+            this.tokenType = tokenType;
+            this.originalLength = originalLength;
+            this.firstPosition = position;
+        }
+
+        void addAppearance(int line, long position) {
+            int insertAt = appearanceCount;
+            while (insertAt > 0 && positions[insertAt - 1] > position) {
+                insertAt--;
+            }
+            if (insertAt == MAX_LINE_APPEARANCES) {
+                return;
+            }
+            int last = Math.min(appearanceCount, MAX_LINE_APPEARANCES - 1);
+            System.arraycopy(lines, insertAt, lines, insertAt + 1, last - insertAt);
+            System.arraycopy(positions, insertAt, positions, insertAt + 1, last - insertAt);
+            lines[insertAt] = line;
+            positions[insertAt] = position;
+            appearanceCount = Math.min(appearanceCount + 1, MAX_LINE_APPEARANCES);
+        }
+    }
+}
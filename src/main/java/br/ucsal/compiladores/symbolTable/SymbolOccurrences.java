@@ -0,0 +1,81 @@
+package br.ucsal.compiladores.symbolTable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import br.ucsal.compiladores.lexer.TokenType;
+
+// Registro usado pelo modo incremental: em vez de montar a tabela durante a análise léxica, cada forma
+// distinta de identificador recebe um índice estável (base 1). Assim os tokens reaproveitados após uma
+// edição continuam válidos, e a tabela, que depende da ordem das ocorrências no texto, é montada depois
+// com addTo percorrendo os tokens na ordem atual.
+public class SymbolOccurrences implements SymbolRegistry {
+    private final Map<Occurrence, Integer> indices = new HashMap<>();
+    private final List<Occurrence> occurrences = new ArrayList<>();
+
+    @Override
+    public int addOrGetSymbol(String effectiveKeyLexeme, String displayLexeme, TokenType tokenType,
+            int originalLength, int lineNumber, long position) {
+        Occurrence occurrence = new Occurrence(effectiveKeyLexeme, displayLexeme, tokenType, originalLength);
+        Integer index = indices.get(occurrence);
+        if (index != null) {
+            return index;
+        }
+        occurrences.add(occurrence);
+        indices.put(occurrence, occurrences.size());
+        return occurrences.size();
+    }
+
+    @Override
+    public int addOrGetSymbol(char[] lexeme, int keyLength, int displayLength, TokenType tokenType,
+            int originalLength, int lineNumber, long position) {
+        String displayLexeme = new String(lexeme, 0, displayLength);
+        String key = displayLength == keyLength ? displayLexeme : displayLexeme.substring(0, keyLength);
+        return addOrGetSymbol(key, displayLexeme, tokenType, originalLength, lineNumber, position);
+    }
+
+    public int size() {
+        return occurrences.size();
+    }
+
+    // Insere em table a ocorrência de índice occurrenceIndex vista na linha lineNumber e devolve o índice
+    // do símbolo na tabela
+    public int addTo(SymbolTable table, int occurrenceIndex, int lineNumber) {
+        Occurrence occurrence = occurrences.get(occurrenceIndex - 1);
+        return table.addOrGetSymbol(occurrence.key, occurrence.displayLexeme, occurrence.tokenType,
+                occurrence.originalLength, lineNumber);
+    }
+
+    private static final class Occurrence {
+        final String key;
+        final String displayLexeme;
+        final TokenType tokenType;
+        final int originalLength;
+
+        Occurrence(String key, String displayLexeme, TokenType tokenType, int originalLength) {
+            this.key = key;
+            this.displayLexeme = displayLexeme;
+            this.tokenType = tokenType;
+            this.originalLength = originalLength;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Occurrence))
+                return false;
+            Occurrence other = (Occurrence) o;
+            return originalLength == other.originalLength && tokenType == other.tokenType
+                    && key.equals(other.key) && displayLexeme.equals(other.displayLexeme);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, displayLexeme, tokenType, originalLength);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package br.ucsal.compiladores.symbolTable;
+
+import br.ucsal.compiladores.lexer.TokenType;
+
+// Destino dos identificadores encontrados pelo Lexer. position é o deslocamento da ocorrência no texto
+// e define a ordem de primeira aparição quando as inserções não chegam em ordem
+public interface SymbolRegistry {
+    int addOrGetSymbol(String effectiveKeyLexeme, String displayLexeme, TokenType tokenType, int originalLength,
+            int lineNumber, long position);
+
+    int addOrGetSymbol(char[] lexeme, int keyLength, int displayLength, TokenType tokenType, int originalLength,
+            int lineNumber, long position);
+}
@@ -1,47 +1,163 @@
 package br.ucsal.compiladores.symbolTable;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import br.ucsal.compiladores.lexer.TokenType;
 
-public class SymbolTable {
-    private final List<Symbol> symbolsList;
-    private final Map<String, Symbol> symbolsMap;
+// Endereçamento aberto (sondagem linear) sobre as chaves efetivas; cada posição guarda o índice
+// base 1 do símbolo no vetor denso, então busca e inserção fazem uma única sondagem
+public class SymbolTable implements SymbolRegistry {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Symbol[] symbols;
+    private String[] symbolKeys;
+    private int size;
+
+    private String[] slotKeys;
+    private int[] slotHashes;
+    private int[] slotIndices;
 
     public SymbolTable() {
-        this.symbolsList = new ArrayList<>();
-        this.symbolsMap = new HashMap<>();
+        this.symbols = new Symbol[INITIAL_CAPACITY];
+        this.symbolKeys = new String[INITIAL_CAPACITY];
+        this.slotKeys = new String[INITIAL_CAPACITY * 2];
+        this.slotHashes = new int[INITIAL_CAPACITY * 2];
+        this.slotIndices = new int[INITIAL_CAPACITY * 2];
     }
 
     public int addOrGetSymbol(String effectiveKeyLexeme, String displayLexeme, TokenType tokenType, int originalLength,
             int lineNumber) {
-        if (symbolsMap.containsKey(effectiveKeyLexeme)) {
-            Symbol existingSymbol = symbolsMap.get(effectiveKeyLexeme);
-            existingSymbol.addAppearance(lineNumber);
-            return symbolsList.indexOf(existingSymbol) + 1;
-        } else {
-            Symbol newSymbol = new Symbol(displayLexeme, tokenType, originalLength, lineNumber);
-            symbolsList.add(newSymbol);
-            symbolsMap.put(effectiveKeyLexeme, newSymbol);
-            return symbolsList.size();
+        int hash = mix(effectiveKeyLexeme.hashCode());
+        int slot = findSlot(effectiveKeyLexeme, hash);
+        if (slotIndices[slot] != 0) {
+            symbols[slotIndices[slot] - 1].addAppearance(lineNumber);
+            return slotIndices[slot];
+        }
+        return insert(slot, effectiveKeyLexeme, hash, new Symbol(displayLexeme, tokenType, originalLength, lineNumber));
+    }
+
+    // Variante usada pelo Lexer: a chave são os keyLength primeiros caracteres de lexeme e o lexema
+    // exibido os displayLength primeiros; as Strings só são criadas quando o símbolo é novo
+    public int addOrGetSymbol(char[] lexeme, int keyLength, int displayLength, TokenType tokenType,
+            int originalLength, int lineNumber) {
+        int hash = 0;
+        for (int i = 0; i < keyLength; i++) {
+            hash = 31 * hash + lexeme[i];
+        }
+        hash = mix(hash);
+
+        int mask = slotKeys.length - 1;
+        int slot = hash & mask;
+        while (slotIndices[slot] != 0) {
+            if (slotHashes[slot] == hash && keyEquals(slotKeys[slot], lexeme, keyLength)) {
+                symbols[slotIndices[slot] - 1].addAppearance(lineNumber);
+                return slotIndices[slot];
+            }
+            slot = (slot + 1) & mask;
         }
+
+        String displayLexeme = new String(lexeme, 0, displayLength);
+        String key = displayLength == keyLength ? displayLexeme : displayLexeme.substring(0, keyLength);
+        return insert(slot, key, hash, new Symbol(displayLexeme, tokenType, originalLength, lineNumber));
+    }
+
+    // Aqui as ocorrências chegam sempre em ordem, então a posição não é usada
+    @Override
+    public int addOrGetSymbol(String effectiveKeyLexeme, String displayLexeme, TokenType tokenType,
+            int originalLength, int lineNumber, long position) {
+        return addOrGetSymbol(effectiveKeyLexeme, displayLexeme, tokenType, originalLength, lineNumber);
+    }
+
+    @Override
+    public int addOrGetSymbol(char[] lexeme, int keyLength, int displayLength, TokenType tokenType,
+            int originalLength, int lineNumber, long position) {
+        return addOrGetSymbol(lexeme, keyLength, displayLength, tokenType, originalLength, lineNumber);
     }
 
     public Symbol getSymbol(String effectiveKeyLexeme) {
-        return symbolsMap.get(effectiveKeyLexeme);
+        int slot = findSlot(effectiveKeyLexeme, mix(effectiveKeyLexeme.hashCode()));
+        return slotIndices[slot] != 0 ? symbols[slotIndices[slot] - 1] : null;
     }
 
     public Symbol getSymbolByIndex(int indexBase1) {
-        if (indexBase1 > 0 && indexBase1 <= symbolsList.size()) {
-            return symbolsList.get(indexBase1 - 1);
+        if (indexBase1 > 0 && indexBase1 <= size) {
+            return symbols[indexBase1 - 1];
         }
         return null;
     }
 
     public List<Symbol> getAllSymbols() {
-        return new ArrayList<>(symbolsList);
+        return new ArrayList<>(Arrays.asList(symbols).subList(0, size));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int findSlot(String key, int hash) {
+        int mask = slotKeys.length - 1;
+        int slot = hash & mask;
+        while (slotIndices[slot] != 0 && (slotHashes[slot] != hash || !slotKeys[slot].equals(key))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int insert(int slot, String key, int hash, Symbol symbol) {
+        if (size == symbols.length) {
+            symbols = Arrays.copyOf(symbols, size * 2);
+            symbolKeys = Arrays.copyOf(symbolKeys, size * 2);
+        }
+        symbolKeys[size] = key;
+        symbols[size++] = symbol;
+        slotKeys[slot] = key;
+        slotHashes[slot] = hash;
+        slotIndices[slot] = size;
+        if (size * 2 > slotKeys.length) {
+            rehash();
+        }
+        return size;
+    }
+
+    // Mantém a ocupação das posições abaixo de 50%
+    private void rehash() {
+        String[] oldKeys = slotKeys;
+        int[] oldHashes = slotHashes;
+        int[] oldIndices = slotIndices;
+        int capacity = oldKeys.length * 2;
+        slotKeys = new String[capacity];
+        slotHashes = new int[capacity];
+        slotIndices = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldIndices[i] == 0) {
+                continue;
+            }
+            int slot = oldHashes[i] & mask;
+            while (slotIndices[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slotKeys[slot] = oldKeys[i];
+            slotHashes[slot] = oldHashes[i];
+            slotIndices[slot] = oldIndices[i];
+        }
+    }
+
+    private static boolean keyEquals(String key, char[] lexeme, int keyLength) {
+        if (key.length() != keyLength) {
+            return false;
+        }
+        for (int i = 0; i < keyLength; i++) {
+            if (key.charAt(i) != lexeme[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
     }
 }
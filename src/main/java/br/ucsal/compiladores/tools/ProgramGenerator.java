@@ -0,0 +1,355 @@
+package br.ucsal.compiladores.tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+// Gera programas CangaCode sintéticos de qualquer tamanho para testes de carga e benchmarks. A saída é
+// determinística para a mesma semente e as mesmas configurações, e é escrita em lotes à medida que é
+// gerada: a memória usada não depende do tamanho do programa. Com errorRate > 0, uma fração dos
+// comandos sai com um erro sintático localizado, do qual o Parser se recupera.
+public class ProgramGenerator {
+    private static final int FLUSH_CHARS = 64 * 1024;
+    private static final String ENDING = "ENDPROGRAM\n";
+    private static final String OPERATORS = "+-*/%";
+    private static final String[] COMPARISONS = { "<", "<=", ">", ">=", "==", "!=" };
+    private static final String[] TYPES = { "INTEGER", "REAL", "STRING", "BOOLEAN", "CHARACTER" };
+
+    public static class Settings {
+        public long seed = 251;
+        public long targetBytes = 1024 * 1024;
+        // Cardinalidade dos identificadores: variáveis distintas, repartidas entre as declarações
+        public int variables = 256;
+        public int declarations = 16;
+        public int functions = 32;
+        public int functionCommands = 8;
+        public int maxDepth = 3;
+        public int maxExpressionOperands = 6;
+        // Probabilidade de um comentário antes de cada comando
+        public double commentDensity = 0.1;
+        // Probabilidade de cada comando simples sair com erro
+        public double errorRate = 0;
+    }
+
+    private final Settings settings;
+    private final Writer out;
+    private final Random random;
+    private final StringBuilder pending = new StringBuilder(FLUSH_CHARS + 1024);
+    private long written;
+    private long injectedErrors;
+
+    public ProgramGenerator(Settings settings, Writer out) {
+        if (settings.variables < 1 || settings.declarations < 1 || settings.maxExpressionOperands < 1) {
+            throw new IllegalArgumentException(
+                    "variables, declarations e maxExpressionOperands devem ser positivos");
+        }
+        this.settings = settings;
+        this.out = out;
+        this.random = new Random(settings.seed);
+    }
+
+    // Devolve a quantidade de caracteres escrita (só ASCII, então é também a quantidade de bytes). O
+    // programa passa de targetBytes no máximo pelo tamanho de um comando e do fechamento, ou tem o tamanho
+    // das declarações e funções, quando só elas já passam do alvo.
+    public long generate() throws IOException {
+        pending.append("PROGRAM Gerado;\n");
+        appendDeclarations();
+        appendFunctions();
+        while (written + pending.length() + ENDING.length() < settings.targetBytes) {
+            appendCommand(1, settings.maxDepth);
+        }
+        pending.append(ENDING);
+        flushPending();
+        out.flush();
+        return written;
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors;
+    }
+
+    private void appendDeclarations() throws IOException {
+        pending.append("DECLARATIONS\n");
+        int declarations = Math.min(settings.declarations, settings.variables);
+        for (int d = 0; d < declarations; d++) {
+            int first = (int) ((long) settings.variables * d / declarations);
+            int last = (int) ((long) settings.variables * (d + 1) / declarations);
+            pending.append("    VARTYPE ").append(TYPES[d % TYPES.length]).append(d % 7 == 6 ? " []" : "")
+                    .append(": ");
+            for (int v = first; v < last; v++) {
+                if (v > first) {
+                    pending.append(", ");
+                }
+                appendVariable(v);
+            }
+            pending.append(";\n");
+            maybeFlush();
+        }
+        pending.append("ENDDECLARATIONS\n");
+    }
+
+    private void appendFunctions() throws IOException {
+        if (settings.functions <= 0) {
+            return;
+        }
+        pending.append("FUNCTIONS\n");
+        for (int f = 0; f < settings.functions; f++) {
+            pending.append("    FUNCTYPE ").append(TYPES[f % 2]).append(": func").append(f)
+                    .append("(PARAMTYPE INTEGER: p, PARAMTYPE REAL: q)\n");
+            for (int i = 0; i < settings.functionCommands; i++) {
+                appendCommand(2, settings.maxDepth);
+            }
+            pending.append("        RETURN p + ");
+            appendExpression();
+            pending.append(";\n    ENDFUNCTION\n");
+        }
+        pending.append("ENDFUNCTIONS\n");
+    }
+
+    private void appendCommand(int indent, int depth) throws IOException {
+        if (random.nextDouble() < settings.commentDensity) {
+            appendComment(indent);
+        }
+        // Quanto mais fundo, menor a chance de abrir outro bloco
+        int kind = random.nextInt(depth > 0 ? 6 : 4);
+        if (kind >= 4) {
+            appendBlock(indent, depth, kind == 5);
+            return;
+        }
+
+        indent(indent);
+        if (settings.errorRate > 0 && random.nextDouble() < settings.errorRate) {
+            appendBrokenCommand();
+        } else if (kind == 3) {
+            pending.append("PRINT ");
+            appendVariable(random.nextInt(settings.variables));
+            pending.append(", \"");
+            appendWords(2 + random.nextInt(4));
+            pending.append("\";\n");
+        } else {
+            appendVariable(random.nextInt(settings.variables));
+            pending.append(" := ");
+            appendExpression();
+            pending.append(";\n");
+        }
+        maybeFlush();
+    }
+
+    private void appendBlock(int indent, int depth, boolean loop) throws IOException {
+        indent(indent);
+        pending.append(loop ? "WHILE (" : "IF (");
+        appendCondition();
+        pending.append(")\n");
+        int commands = 1 + random.nextInt(3);
+        for (int i = 0; i < commands; i++) {
+            appendCommand(indent + 1, depth - 1);
+        }
+        if (!loop && random.nextInt(4) == 0) {
+            indent(indent);
+            pending.append("ELSE\n");
+            appendCommand(indent + 1, depth - 1);
+        }
+        indent(indent);
+        if (loop) {
+            pending.append("ENDWHILE\n");
+        } else {
+            pending.append("ENDIF\n");
+        }
+    }
+
+    // Um erro por comando, em formas que o Parser recupera sem perder o restante do programa
+    private void appendBrokenCommand() {
+        injectedErrors++;
+        switch (random.nextInt(4)) {
+            case 0:
+                appendVariable(random.nextInt(settings.variables));
+                pending.append(' ');
+                appendExpression();
+                pending.append(";\n");
+                break;
+            case 1:
+            case 2:
+                // Condição sem o ')'
+                boolean loop = random.nextBoolean();
+                pending.append(loop ? "WHILE (" : "IF (");
+                appendCondition();
+                pending.append(' ');
+                appendVariable(random.nextInt(settings.variables));
+                pending.append(" := ");
+                appendExpression();
+                pending.append(loop ? "; ENDWHILE\n" : "; ENDIF\n");
+                break;
+            default:
+                appendVariable(random.nextInt(settings.variables));
+                pending.append(" := (");
+                appendExpression();
+                pending.append(";\n");
+                break;
+        }
+    }
+
+    private void appendCondition() {
+        appendVariable(random.nextInt(settings.variables));
+        pending.append(' ').append(COMPARISONS[random.nextInt(COMPARISONS.length)]).append(' ');
+        appendExpression();
+    }
+
+    private void appendExpression() {
+        int operands = 1 + random.nextInt(settings.maxExpressionOperands);
+        for (int i = 0; i < operands; i++) {
+            if (i > 0) {
+                pending.append(' ').append(OPERATORS.charAt(random.nextInt(OPERATORS.length()))).append(' ');
+            }
+            int choice = random.nextInt(8);
+            if (choice < 2) {
+                pending.append(random.nextInt(1000));
+            } else if (choice == 2) {
+                pending.append(random.nextInt(100)).append('.').append(random.nextInt(100));
+            } else if (choice == 3) {
+                pending.append('(');
+                appendVariable(random.nextInt(settings.variables));
+                pending.append(" + ").append(random.nextInt(10)).append(')');
+            } else {
+                appendVariable(random.nextInt(settings.variables));
+            }
+        }
+    }
+
+    private void appendComment(int indent) {
+        indent(indent);
+        if (random.nextBoolean()) {
+            pending.append("// ");
+            appendWords(3 + random.nextInt(8));
+            pending.append('\n');
+        } else {
+            pending.append("/* ");
+            appendWords(3 + random.nextInt(8));
+            pending.append('\n');
+            indent(indent);
+            pending.append("   ");
+            appendWords(3 + random.nextInt(8));
+            pending.append(" */\n");
+        }
+    }
+
+    private void appendVariable(int index) {
+        pending.append("var").append(index);
+    }
+
+    private void appendWords(int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                pending.append(' ');
+            }
+            int length = 2 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                pending.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+    }
+
+    private void indent(int level) {
+        for (int i = 0; i < level; i++) {
+            pending.append("    ");
+        }
+    }
+
+    private void maybeFlush() throws IOException {
+        if (pending.length() >= FLUSH_CHARS) {
+            flushPending();
+        }
+    }
+
+    private void flushPending() throws IOException {
+        out.append(pending);
+        written += pending.length();
+        pending.setLength(0);
+    }
+
+    // Uso: ProgramGenerator [--size 10MB] [--seed N] [--variables N] [--declarations N] [--functions N]
+    //      [--function-commands N] [--depth N] [--operands N] [--comments 0.1] [--errors 0.01] [--output ARQ]
+    // Sem --output (ou com "-") o programa vai para a saída padrão, para ser usado num pipe.
+    public static void main(String[] args) throws IOException {
+        Settings settings = new Settings();
+        String output = "-";
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Valor ausente para " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--size":
+                        settings.targetBytes = parseSize(value);
+                        break;
+                    case "--seed":
+                        settings.seed = Long.parseLong(value);
+                        break;
+                    case "--variables":
+                        settings.variables = Integer.parseInt(value);
+                        break;
+                    case "--declarations":
+                        settings.declarations = Integer.parseInt(value);
+                        break;
+                    case "--functions":
+                        settings.functions = Integer.parseInt(value);
+                        break;
+                    case "--function-commands":
+                        settings.functionCommands = Integer.parseInt(value);
+                        break;
+                    case "--depth":
+                        settings.maxDepth = Integer.parseInt(value);
+                        break;
+                    case "--operands":
+                        settings.maxExpressionOperands = Integer.parseInt(value);
+                        break;
+                    case "--comments":
+                        settings.commentDensity = Double.parseDouble(value);
+                        break;
+                    case "--errors":
+                        settings.errorRate = Double.parseDouble(value);
+                        break;
+                    case "--output":
+                        output = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opção desconhecida: " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        OutputStream stream = output.equals("-") ? System.out : Files.newOutputStream(Paths.get(output));
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.US_ASCII),
+                FLUSH_CHARS)) {
+            ProgramGenerator generator = new ProgramGenerator(settings, writer);
+            long bytes = generator.generate();
+            System.err.println("Gerados " + bytes + " bytes, " + generator.getInjectedErrors() + " erros inseridos");
+        }
+    }
+
+    // Aceita sufixos KB, MB e GB (potências de 1024)
+    static long parseSize(String value) {
+        String upper = value.trim().toUpperCase();
+        long multiplier = 1;
+        if (upper.endsWith("KB")) {
+            multiplier = 1024L;
+        } else if (upper.endsWith("MB")) {
+            multiplier = 1024L * 1024;
+        } else if (upper.endsWith("GB")) {
+            multiplier = 1024L * 1024 * 1024;
+        }
+        String digits = multiplier == 1 ? upper : upper.substring(0, upper.length() - 2).trim();
+        return Long.parseLong(digits) * multiplier;
+    }
+}
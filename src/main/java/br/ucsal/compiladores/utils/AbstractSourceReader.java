@@ -0,0 +1,146 @@
+package br.ucsal.compiladores.utils;
+
+// Converte uma sequência bruta de caracteres UTF-16 no mesmo fluxo produzido pelo FileHandler:
+// cada linha termina em '\n' (inclusive a última), "\r\n" e '\r' isolado contam como quebra de linha
+// e o EOF fica na coluna 1 da linha seguinte à última.
+public abstract class AbstractSourceReader implements SourceReader {
+    private final String filePath;
+
+    private char currentChar;
+    private int currentLine;
+    private int currentColumn;
+    private long currentOffset;
+
+    private boolean hasPeeked;
+    private char peekedChar;
+    private int peekedLine;
+    private int peekedColumn;
+    private long peekedOffset;
+
+    private int scanLine;
+    private int scanColumn;
+    private long scanOffset;
+    private boolean scanLineHasContent;
+    private boolean skipLineFeed;
+
+    private char scannedChar;
+    private int scannedLine;
+    private int scannedColumn;
+    private long scannedOffset;
+
+    protected AbstractSourceReader(String filePath, int startLine, long startOffset) {
+        this(filePath, startLine, 1, startOffset);
+    }
+
+    // Começo no meio de uma linha: a linha já tem conteúdo, então o EOF ainda recebe a quebra sintética
+    protected AbstractSourceReader(String filePath, int startLine, int startColumn, long startOffset) {
+        this.filePath = filePath;
+        this.scanLine = startLine;
+        this.scanColumn = startColumn;
+        this.scanOffset = startOffset;
+        this.scanLineHasContent = startColumn > 1;
+    }
+
+    protected abstract int readRawChar();
+
+    protected final void start() {
+        advance();
+    }
+
+    @Override
+    public String getFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public char getCurrentChar() {
+        return currentChar;
+    }
+
+    @Override
+    public int getCurrentLineNumber() {
+        return currentLine;
+    }
+
+    @Override
+    public int getCurrentColumnNumber() {
+        return currentColumn;
+    }
+
+    @Override
+    public long getCurrentOffset() {
+        return currentOffset;
+    }
+
+    @Override
+    public void advance() {
+        if (hasPeeked) {
+            hasPeeked = false;
+            currentChar = peekedChar;
+            currentLine = peekedLine;
+            currentColumn = peekedColumn;
+            currentOffset = peekedOffset;
+            return;
+        }
+        scan();
+        currentChar = scannedChar;
+        currentLine = scannedLine;
+        currentColumn = scannedColumn;
+        currentOffset = scannedOffset;
+    }
+
+    @Override
+    public char peek() {
+        if (!hasPeeked) {
+            scan();
+            peekedChar = scannedChar;
+            peekedLine = scannedLine;
+            peekedColumn = scannedColumn;
+            peekedOffset = scannedOffset;
+            hasPeeked = true;
+        }
+        return peekedChar;
+    }
+
+    private void scan() {
+        int raw = readRawChar();
+        if (raw == '\n' && skipLineFeed) {
+            raw = readRawChar();
+        }
+        skipLineFeed = false;
+
+        if (raw < 0) {
+            if (scanLineHasContent) {
+                emitLineBreak();
+            } else {
+                scannedChar = END_OF_FILE_CHAR;
+                scannedLine = scanLine;
+                scannedColumn = 1;
+                scannedOffset = scanOffset;
+            }
+            return;
+        }
+
+        if (raw == '\n' || raw == '\r') {
+            skipLineFeed = raw == '\r';
+            emitLineBreak();
+            return;
+        }
+
+        scannedChar = (char) raw;
+        scannedLine = scanLine;
+        scannedColumn = scanColumn++;
+        scannedOffset = scanOffset++;
+        scanLineHasContent = true;
+    }
+
+    private void emitLineBreak() {
+        scannedChar = '\n';
+        scannedLine = scanLine;
+        scannedColumn = scanColumn;
+        scannedOffset = scanOffset++;
+        scanLine++;
+        scanColumn = 1;
+        scanLineHasContent = false;
+    }
+}
@@ -0,0 +1,118 @@
+package br.ucsal.compiladores.utils;
+
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+import br.ucsal.compiladores.config.Constants;
+
+// Escreve lotes de texto no console a partir de uma thread própria. A fila é limitada: se o console
+// não der conta, quem produz o rastro espera em vez de acumular memória.
+public class AsyncConsoleWriter {
+    private static volatile AsyncConsoleWriter console;
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(Constants.TRACE_QUEUE_CAPACITY);
+
+    public AsyncConsoleWriter(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+        Thread worker = new Thread(this::drain, "console-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Instância única ligada a System.out/System.err, criada no primeiro uso
+    public static AsyncConsoleWriter console() {
+        AsyncConsoleWriter instance = console;
+        if (instance == null) {
+            synchronized (AsyncConsoleWriter.class) {
+                instance = console;
+                if (instance == null) {
+                    instance = new AsyncConsoleWriter(System.out, System.err);
+                    console = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    public PrintStream getOut() {
+        return out;
+    }
+
+    public PrintStream getErr() {
+        return err;
+    }
+
+    public void submit(PrintStream target, String text) {
+        put(new Batch(target, text, null));
+    }
+
+    // Bloqueia até que tudo o que foi enviado antes desta chamada esteja escrito
+    public void flush() {
+        CountDownLatch written = new CountDownLatch(1);
+        put(new Batch(null, null, written));
+        boolean interrupted = false;
+        while (true) {
+            try {
+                written.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Uma interrupção não descarta o lote: a espera por espaço na fila continua e a interrupção é
+    // restaurada depois, para quem chamou tratá-la
+    private void put(Batch batch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(batch);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Batch batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (batch.written != null) {
+                out.flush();
+                err.flush();
+                batch.written.countDown();
+            } else {
+                batch.target.print(batch.text);
+            }
+        }
+    }
+
+    private static final class Batch {
+        final PrintStream target;
+        final String text;
+        final CountDownLatch written;
+
+        Batch(PrintStream target, String text, CountDownLatch written) {
+            this.target = target;
+            this.text = text;
+            this.written = written;
+        }
+    }
+}
@@ -11,16 +11,15 @@ import java.util.List;
 
 import br.ucsal.compiladores.config.Constants;
 
-public class FileHandler {
+public class FileHandler implements SourceReader {
     private final String filePath;
     private final List<String> lines;
     private int currentLineIndex;
     private int currentCharIndexInLine;
+    private long currentLineStartOffset;
     private char currentChar;
     private boolean justCrossedLine;
 
-    public static final char END_OF_FILE_CHAR = '\0';
-
     public FileHandler(String baseFileName, String directoryPath) throws IOException {
         this.filePath = Paths.get(directoryPath, baseFileName + Constants.FILE_EXTENSION).toString();
         Path path = Paths.get(this.filePath);
@@ -44,6 +43,7 @@ public class FileHandler {
         advance();
     }
 
+    @Override
     public String getFilePath() {
         return filePath;
     }
@@ -52,20 +52,30 @@ public class FileHandler {
         return new ArrayList<>(lines);
     }
 
+    @Override
     public char getCurrentChar() {
         return this.currentChar;
     }
 
+    @Override
     public int getCurrentLineNumber() {
         return this.currentLineIndex + 1;
     }
 
+    @Override
     public int getCurrentColumnNumber() {
         return this.currentCharIndexInLine + 1;
     }
 
+    @Override
+    public long getCurrentOffset() {
+        return this.currentLineStartOffset + this.currentCharIndexInLine;
+    }
+
+    @Override
     public void advance() {
         if (justCrossedLine) {
+            currentLineStartOffset += lines.get(currentLineIndex).length() + 1;
             currentLineIndex++;
             currentCharIndexInLine = 0;
             justCrossedLine = false;
@@ -96,6 +106,7 @@ public class FileHandler {
         }
     }
 
+    @Override
     public char peek() {
         int peekLine = currentLineIndex;
         int peekCol = currentCharIndexInLine;
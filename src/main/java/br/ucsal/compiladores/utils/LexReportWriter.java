@@ -0,0 +1,198 @@
+package br.ucsal.compiladores.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+
+// Relatório .LEX gravado enquanto a análise corre. Um relatório pequeno fica em memória e é gravado por
+// quem chama finish(); passando de um lote de texto (ou de LEX_REPORT_SYNC_TOKENS num buffer completo),
+// a gravação vai para uma thread do executor compartilhado. A fila é limitada, então se o disco não der
+// conta quem produz os tokens espera em vez de acumular memória. Tokens de um buffer que ainda cresce
+// são formatados por quem chama append(); de um buffer completo, a própria thread de escrita formata
+// (appendCompleted), sem ocupar a thread da análise. close() sem finish() apaga o relatório incompleto.
+public class LexReportWriter implements Closeable {
+    private static final Object END = new Object();
+    // Threads reaproveitadas entre relatórios: iniciar uma por arquivo custava mais que o léxico dele
+    private static final ExecutorService WRITERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "lex-report-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path outputPath;
+    private final BufferedWriter writer;
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(Constants.LEX_REPORT_QUEUE_CAPACITY);
+    private final StringBuilder pending = new StringBuilder(Constants.REPORT_BATCH_CHARS);
+    // null enquanto a gravação é feita por quem chama
+    private Future<?> drained;
+    private volatile boolean discarding;
+    private IOException failure;
+    private boolean finished;
+
+    LexReportWriter(Path outputPath, String header) throws IOException {
+        this.outputPath = outputPath;
+        this.writer = new BufferedWriter(new FileWriter(outputPath.toFile()));
+        pending.append(header);
+    }
+
+    public void append(TokenBuffer tokens, int from, int to) {
+        for (int i = from; i < to; i++) {
+            ReportGenerator.appendLexLine(tokens, i, pending);
+        }
+        if (pending.length() >= Constants.REPORT_BATCH_CHARS) {
+            submitPending();
+        }
+    }
+
+    // O buffer não pode mais ser alterado depois desta chamada
+    public void appendCompleted(TokenBuffer tokens) {
+        if (drained == null && tokens.size() - tokens.getFirstIndex() < Constants.LEX_REPORT_SYNC_TOKENS) {
+            append(tokens, tokens.getFirstIndex(), tokens.size());
+            return;
+        }
+        submitPending();
+        put(new CompletedTokens(tokens));
+    }
+
+    // Espera a gravação terminar e devolve o caminho absoluto do relatório
+    public Path finish() throws IOException {
+        complete(false);
+        if (failure != null) {
+            throw failure;
+        }
+        return outputPath.toAbsolutePath();
+    }
+
+    // Para os caminhos de erro: encerra a gravação sem relançar falhas e apaga o relatório, que ficaria
+    // truncado. Depois de um finish() bem-sucedido não faz nada
+    @Override
+    public void close() {
+        if (finished && failure == null) {
+            return;
+        }
+        complete(true);
+        try {
+            Files.deleteIfExists(outputPath);
+        } catch (IOException e) {
+            // O relatório incompleto fica no disco; a falha da análise já foi relatada
+        }
+    }
+
+    private void complete(boolean discard) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (drained == null) {
+            try {
+                if (!discard) {
+                    writer.append(pending);
+                }
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                closeWriter();
+            }
+            return;
+        }
+        if (discard) {
+            discarding = true;
+        } else {
+            submitPending();
+        }
+        put(END);
+        try {
+            drained.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new IOException("Gravação do relatório LEX interrompida", e);
+        } catch (ExecutionException e) {
+            failure = new IOException("Falha na gravação do relatório LEX", e.getCause());
+        }
+    }
+
+    private void submitPending() {
+        if (drained == null) {
+            drained = WRITERS.submit(this::drain);
+        }
+        if (pending.length() > 0) {
+            put(pending.toString());
+            pending.setLength(0);
+        }
+    }
+
+    private void put(Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Depois de uma falha a fila continua sendo esvaziada, para que quem produz nunca fique bloqueado
+    private void drain() {
+        StringBuilder line = new StringBuilder(128);
+        try {
+            while (true) {
+                Object item;
+                try {
+                    item = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (item == END) {
+                    return;
+                }
+                if (failure != null || discarding) {
+                    continue;
+                }
+                try {
+                    if (item instanceof CompletedTokens) {
+                        TokenBuffer tokens = ((CompletedTokens) item).tokens;
+                        for (int i = tokens.getFirstIndex(); i < tokens.size(); i++) {
+                            line.setLength(0);
+                            ReportGenerator.appendLexLine(tokens, i, line);
+                            writer.append(line);
+                        }
+                    } else {
+                        writer.write((String) item);
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        } finally {
+            closeWriter();
+        }
+    }
+
+    private void closeWriter() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    private static final class CompletedTokens {
+        final TokenBuffer tokens;
+
+        CompletedTokens(TokenBuffer tokens) {
+            this.tokens = tokens;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package br.ucsal.compiladores.utils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import br.ucsal.compiladores.config.Constants;
+
+public final class MappedFileHandler extends AbstractSourceReader {
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+    private final MappedByteBuffer[] segments;
+    private final long end;
+
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private long segmentBase;
+    private int segmentLimit;
+    private int positionInSegment;
+    private char pendingLowSurrogate;
+
+    public MappedFileHandler(String baseFileName, String directoryPath) throws IOException {
+        this(Paths.get(directoryPath, baseFileName + Constants.FILE_EXTENSION).toString());
+    }
+
+    private MappedFileHandler(String filePath) throws IOException {
+        this(filePath, mapSegments(filePath), 0, -1, 1);
+    }
+
+    // Lê apenas os bytes [start, end) dos segmentos já mapeados, numerando as linhas a partir de startLine;
+    // start deve estar no início de uma linha. end negativo significa até o fim do arquivo
+    public MappedFileHandler(String filePath, MappedByteBuffer[] segments, long start, long end, int startLine) {
+        super(filePath, startLine, 0);
+        this.segments = segments;
+        this.end = end >= 0 ? end : sizeOf(segments);
+
+        selectSegment((int) Math.min(start / Constants.MAPPED_SEGMENT_SIZE, segments.length - 1));
+        this.positionInSegment = (int) (start - segmentBase);
+        start();
+    }
+
+    public static MappedByteBuffer[] mapSegments(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            throw new IOException("Arquivo não encontrado: " + filePath);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long segmentSize = Constants.MAPPED_SEGMENT_SIZE;
+            int segmentCount = (int) Math.max(1, (size + segmentSize - 1) / segmentSize);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long base = i * segmentSize;
+                long length = Math.min(segmentSize, size - base);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.max(0, length));
+            }
+            return segments;
+        }
+    }
+
+    public static long sizeOf(MappedByteBuffer[] segments) {
+        return (segments.length - 1) * Constants.MAPPED_SEGMENT_SIZE + segments[segments.length - 1].limit();
+    }
+
+    public long getSize() {
+        return end;
+    }
+
+    @Override
+    protected int readRawChar() {
+        if (pendingLowSurrogate != 0) {
+            char low = pendingLowSurrogate;
+            pendingLowSurrogate = 0;
+            return low;
+        }
+        if (positionInSegment < segmentLimit) {
+            int b0 = segment.get(positionInSegment) & 0xFF;
+            if (b0 < 0x80) {
+                positionInSegment++;
+                return b0;
+            }
+        }
+        if (getPosition() >= end) {
+            return -1;
+        }
+        return decodeMultiByte();
+    }
+
+    private int decodeMultiByte() {
+        int b0 = nextByte();
+        if (b0 < 0x80) {
+            return b0;
+        }
+
+        int extraBytes;
+        int minSecond = 0x80;
+        int maxSecond = 0xBF;
+        int codePoint;
+        if (b0 >= 0xC2 && b0 <= 0xDF) {
+            extraBytes = 1;
+            codePoint = b0 & 0x1F;
+        } else if (b0 >= 0xE0 && b0 <= 0xEF) {
+            extraBytes = 2;
+            codePoint = b0 & 0x0F;
+            if (b0 == 0xE0) {
+                minSecond = 0xA0;
+            } else if (b0 == 0xED) {
+                maxSecond = 0x9F;
+            }
+        } else if (b0 >= 0xF0 && b0 <= 0xF4) {
+            extraBytes = 3;
+            codePoint = b0 & 0x07;
+            if (b0 == 0xF0) {
+                minSecond = 0x90;
+            } else if (b0 == 0xF4) {
+                maxSecond = 0x8F;
+            }
+        } else {
+            return REPLACEMENT_CHAR;
+        }
+
+        for (int i = 0; i < extraBytes; i++) {
+            if (getPosition() >= end) {
+                return REPLACEMENT_CHAR;
+            }
+            int next = peekByte();
+            int min = i == 0 ? minSecond : 0x80;
+            int max = i == 0 ? maxSecond : 0xBF;
+            if (next < min || next > max) {
+                return REPLACEMENT_CHAR;
+            }
+            nextByte();
+            codePoint = (codePoint << 6) | (next & 0x3F);
+        }
+
+        if (Character.isSupplementaryCodePoint(codePoint)) {
+            pendingLowSurrogate = Character.lowSurrogate(codePoint);
+            return Character.highSurrogate(codePoint);
+        }
+        return codePoint;
+    }
+
+    private long getPosition() {
+        return segmentBase + positionInSegment;
+    }
+
+    private int peekByte() {
+        if (positionInSegment >= segmentLimit) {
+            selectSegment(segmentIndex + 1);
+        }
+        return segment.get(positionInSegment) & 0xFF;
+    }
+
+    private int nextByte() {
+        int value = peekByte();
+        positionInSegment++;
+        return value;
+    }
+
+    private void selectSegment(int index) {
+        this.segmentIndex = index;
+        this.segment = segments[index];
+        this.segmentBase = (long) index * Constants.MAPPED_SEGMENT_SIZE;
+        this.segmentLimit = (int) Math.min(segment.limit(), end - segmentBase);
+        this.positionInSegment = 0;
+    }
+}
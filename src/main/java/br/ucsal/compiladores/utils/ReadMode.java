@@ -0,0 +1,8 @@
+package br.ucsal.compiladores.utils;
+
+public enum ReadMode {
+    AUTO,
+    LINES,
+    MAPPED,
+    STREAMING
+}
@@ -10,25 +10,35 @@ import java.util.stream.Collectors;
 
 import br.ucsal.compiladores.config.Constants;
 import br.ucsal.compiladores.lexer.Token;
+import br.ucsal.compiladores.lexer.TokenBuffer;
 import br.ucsal.compiladores.lexer.TokenType;
 import br.ucsal.compiladores.symbolTable.Symbol;
 import br.ucsal.compiladores.symbolTable.SymbolTable;
 
 public class ReportGenerator {
     private final SymbolTable symbolTable;
-    private final List<Token> tokens;
+    private final TokenBuffer tokens;
     private final String inputFilePath;
-    private final String baseOutputName;
 
     public ReportGenerator(SymbolTable symbolTable, List<Token> tokens, String inputFilePath) {
+        this(symbolTable, TokenBuffer.of(tokens), inputFilePath);
+    }
+
+    public ReportGenerator(SymbolTable symbolTable, TokenBuffer tokens, String inputFilePath) {
         this.symbolTable = symbolTable;
         this.tokens = tokens;
         this.inputFilePath = inputFilePath;
-        Path path = Paths.get(this.inputFilePath);
+    }
+
+    // Relatório ao lado do fonte, com o mesmo nome base e a extensão informada
+    public static Path reportPath(String inputFilePath, String extension) {
+        Path path = Paths.get(inputFilePath);
         String fileNameWithExt = path.getFileName().toString();
-        this.baseOutputName = fileNameWithExt.contains(".")
+        String baseName = fileNameWithExt.contains(".")
                 ? fileNameWithExt.substring(0, fileNameWithExt.lastIndexOf('.'))
                 : fileNameWithExt;
+        Path inputDir = path.getParent();
+        return (inputDir != null) ? inputDir.resolve(baseName + extension) : Paths.get(baseName + extension);
     }
 
     private String getHeader(String reportTitle) {
@@ -44,35 +54,48 @@ public class ReportGenerator {
         return header.toString();
     }
 
-    public void generateLexReport() throws IOException {
-        String lexFileName = baseOutputName + Constants.LEXICAL_REPORT_EXTENSION;
-        Path inputDir = Paths.get(inputFilePath).getParent();
-        Path outputPath = (inputDir != null) ? inputDir.resolve(lexFileName) : Paths.get(lexFileName);
+    public Path generateLexReport() throws IOException {
+        Path outputPath = reportPath(inputFilePath, Constants.LEXICAL_REPORT_EXTENSION);
 
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath.toFile()))) {
             writer.write(getHeader("RELATÓRIO DA ANÁLISE LÉXICA"));
 
-            for (Token token : tokens) {
-                if (token.getType() == TokenType.END_OF_FILE)
-                    continue;
-
-                writer.write("Lexeme: " + token.getLexeme() + ", ");
-                writer.write("Código: " + token.getType().getCode() + ", ");
-                if (token.getSymbolIndex() != null) {
-                    writer.write("ÍndiceTabSimb: " + token.getSymbolIndex() + ", ");
-                } else {
-                    writer.write("ÍndiceTabSimb: N/A, ");
-                }
-                writer.write("Linha: " + token.getLine() + ".\n");
+            // Uma única linha reaproveitada: os tokens são lidos direto do buffer, sem objetos intermediários
+            StringBuilder line = new StringBuilder(128);
+            for (int i = tokens.getFirstIndex(); i < tokens.size(); i++) {
+                line.setLength(0);
+                appendLexLine(tokens, i, line);
+                writer.append(line);
             }
-            System.out.println("Relatório LEX gerado em: " + outputPath.toAbsolutePath());
         }
+        return outputPath.toAbsolutePath();
+    }
+
+    // Mesmo relatório de generateLexReport(), gravado em paralelo com a análise; ver LexReportWriter
+    public LexReportWriter openLexReport() throws IOException {
+        return new LexReportWriter(reportPath(inputFilePath, Constants.LEXICAL_REPORT_EXTENSION),
+                getHeader("RELATÓRIO DA ANÁLISE LÉXICA"));
+    }
+
+    // O token de fim de arquivo não aparece no relatório
+    static void appendLexLine(TokenBuffer tokens, int i, StringBuilder line) {
+        TokenType type = tokens.getType(i);
+        if (type == TokenType.END_OF_FILE)
+            return;
+
+        line.append("Lexeme: ");
+        tokens.appendLexeme(i, line);
+        line.append(", Código: ").append(type.getCode()).append(", ");
+        if (tokens.hasSymbolIndex(i)) {
+            line.append("ÍndiceTabSimb: ").append(tokens.getSymbolIndex(i)).append(", ");
+        } else {
+            line.append("ÍndiceTabSimb: N/A, ");
+        }
+        line.append("Linha: ").append(tokens.getLine(i)).append(".\n");
     }
 
-    public void generateTabReport() throws IOException {
-        String tabFileName = baseOutputName + Constants.SYMBOL_TABLE_REPORT_EXTENSION;
-        Path inputDir = Paths.get(inputFilePath).getParent();
-        Path outputPath = (inputDir != null) ? inputDir.resolve(tabFileName) : Paths.get(tabFileName);
+    public Path generateTabReport() throws IOException {
+        Path outputPath = reportPath(inputFilePath, Constants.SYMBOL_TABLE_REPORT_EXTENSION);
 
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath.toFile()))) {
             writer.write(getHeader("RELATÓRIO DA TABELA DE SÍMBOLOS"));
@@ -108,7 +131,7 @@ public class ReportGenerator {
                     writer.write("Linhas: (" + linesStr + ").\n\n");
                 }
             }
-            System.out.println("Relatório TAB gerado em: " + outputPath.toAbsolutePath());
         }
+        return outputPath.toAbsolutePath();
     }
 }
@@ -0,0 +1,61 @@
+package br.ucsal.compiladores.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import br.ucsal.compiladores.config.Constants;
+
+public interface SourceReader extends Closeable {
+    char END_OF_FILE_CHAR = '\0';
+
+    String getFilePath();
+
+    char getCurrentChar();
+
+    char peek();
+
+    void advance();
+
+    int getCurrentLineNumber();
+
+    int getCurrentColumnNumber();
+
+    // Posição do caractere atual no texto com quebras de linha normalizadas para um único '\n'
+    long getCurrentOffset();
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    static SourceReader open(String baseFileName, String directoryPath, ReadMode mode) throws IOException {
+        ReadMode effectiveMode = mode;
+        if (effectiveMode == ReadMode.AUTO) {
+            Path path = Paths.get(directoryPath, baseFileName + Constants.FILE_EXTENSION);
+            long size = Files.exists(path) ? Files.size(path) : 0;
+            effectiveMode = autoMode(size, Runtime.getRuntime().maxMemory());
+        }
+
+        switch (effectiveMode) {
+            case MAPPED:
+                return new MappedFileHandler(baseFileName, directoryPath);
+            case STREAMING:
+                return new StreamingFileHandler(baseFileName, directoryPath);
+            case LINES:
+            default:
+                return new FileHandler(baseFileName, directoryPath);
+        }
+    }
+
+    // Modo de AUTO para um fonte de size bytes. A partir de uma fração do heap máximo o fonte é lido por
+    // uma janela de tamanho fixo: o mapeamento não ocupa heap, mas as páginas de um arquivo desse tamanho
+    // disputam com o heap a memória da máquina
+    static ReadMode autoMode(long size, long maxHeapBytes) {
+        if (size >= maxHeapBytes / Constants.STREAMING_READ_HEAP_DIVISOR) {
+            return ReadMode.STREAMING;
+        }
+        return size >= Constants.MAPPED_READ_THRESHOLD_BYTES ? ReadMode.MAPPED : ReadMode.LINES;
+    }
+}
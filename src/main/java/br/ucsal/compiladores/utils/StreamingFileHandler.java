@@ -0,0 +1,88 @@
+package br.ucsal.compiladores.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import br.ucsal.compiladores.config.Constants;
+
+public final class StreamingFileHandler extends AbstractSourceReader {
+    private final Reader reader;
+    private final char[] window;
+    private int windowPosition;
+    private int windowLimit;
+    private boolean endOfStream;
+
+    public StreamingFileHandler(String baseFileName, String directoryPath) throws IOException {
+        this(baseFileName, directoryPath, Constants.STREAMING_WINDOW_SIZE);
+    }
+
+    public StreamingFileHandler(String baseFileName, String directoryPath, int windowSize) throws IOException {
+        this(Paths.get(directoryPath, baseFileName + Constants.FILE_EXTENSION).toString(),
+                openExisting(Paths.get(directoryPath, baseFileName + Constants.FILE_EXTENSION)), windowSize);
+    }
+
+    public StreamingFileHandler(String filePath, InputStream input, int windowSize) {
+        super(filePath, 1, 0);
+        this.reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        this.window = new char[windowSize];
+        // A primeira janela é lida aqui; se a leitura falhar, ninguém mais vai fechar o arquivo
+        try {
+            start();
+        } catch (RuntimeException e) {
+            try {
+                reader.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+    }
+
+    private static InputStream openExisting(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            throw new IOException("Arquivo não encontrado: " + path);
+        }
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    protected int readRawChar() {
+        if (windowPosition == windowLimit && !refill()) {
+            return -1;
+        }
+        return window[windowPosition++];
+    }
+
+    private boolean refill() {
+        if (endOfStream) {
+            return false;
+        }
+        try {
+            int read;
+            do {
+                read = reader.read(window, 0, window.length);
+            } while (read == 0);
+            if (read < 0) {
+                endOfStream = true;
+                return false;
+            }
+            windowPosition = 0;
+            windowLimit = read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler " + getFilePath(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,25 @@
+package br.ucsal.compiladores.utils;
+
+// Lê um texto já em memória (ex.: o documento do modo incremental). O texto deve vir com as quebras de
+// linha normalizadas para '\n', para que o deslocamento de cada caractere seja o seu índice no texto.
+public final class TextSourceReader extends AbstractSourceReader {
+    private final CharSequence text;
+    private int position;
+
+    public TextSourceReader(String filePath, CharSequence text) {
+        this(filePath, text, 0, 1, 1);
+    }
+
+    // Retoma a leitura em startOffset, que deve ser o início de um token já conhecido (linha e coluna dele)
+    public TextSourceReader(String filePath, CharSequence text, int startOffset, int startLine, int startColumn) {
+        super(filePath, startLine, startColumn, startOffset);
+        this.text = text;
+        this.position = startOffset;
+        start();
+    }
+
+    @Override
+    protected int readRawChar() {
+        return position < text.length() ? text.charAt(position++) : -1;
+    }
+}
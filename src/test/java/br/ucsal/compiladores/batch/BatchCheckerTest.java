@@ -0,0 +1,145 @@
+package br.ucsal.compiladores.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.cache.ResultCache;
+import br.ucsal.compiladores.stats.CheckPhase;
+import br.ucsal.compiladores.stats.StatsSummary;
+
+public class BatchCheckerTest {
+
+    @Test
+    public void checksDirectoriesAndGlobsConcurrently() throws Exception {
+        Path dir = Files.createTempDirectory("lote");
+        Files.createDirectories(dir.resolve("sub/interno"));
+        for (int i = 0; i < 20; i++) {
+            Path folder = i % 2 == 0 ? dir : dir.resolve("sub/interno");
+            String body = i % 5 == 0 ? "a 1;\n" : "a := " + i + ";\n";
+            write(folder.resolve("F" + i + ".251"), "program p;\n" + body + "endprogram\n");
+        }
+        write(dir.resolve("sub/Ignorado.txt"), "program p; a 1; endprogram\n");
+
+        List<Path> sources = BatchChecker.collectSources(
+                Arrays.asList(dir.toString(), dir + "/sub/**.251", dir.resolve("F0").toString()));
+        assertEquals(20, sources.size());
+
+        List<Path> nested = BatchChecker.collectSources(Arrays.asList(dir + "/sub/**.251"));
+        assertEquals(10, nested.size());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        BatchChecker.Summary summary = new BatchChecker(3, out).check(sources);
+
+        assertEquals(20, summary.getFiles());
+        assertEquals(4, summary.getFilesWithErrors());
+        assertEquals(4, summary.getErrors());
+        String output = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(output, output.contains("F5.251: 1 erro"));
+        assertTrue(output, output.contains("  Erro Sintático: Esperado ':='"));
+        assertTrue(Files.exists(dir.resolve("sub/interno/F1.LEX")));
+    }
+
+    @Test
+    public void reusesCachedResultsForUnchangedSources() throws Exception {
+        Path dir = Files.createTempDirectory("lote");
+        Path cacheDir = dir.resolve("cache");
+        for (int i = 0; i < 6; i++) {
+            write(dir.resolve("F" + i + ".251"), "program p;\n" + (i == 0 ? "a 1;\n" : "a := " + i + ";\n")
+                    + "endprogram\n");
+        }
+        List<Path> sources = BatchChecker.collectSources(Arrays.asList(dir.toString()));
+        ResultCache cache = ResultCache.open(cacheDir, 1024 * 1024);
+
+        String first = run(sources, cache, 0, 1);
+        byte[] lex = Files.readAllBytes(dir.resolve("F0.LEX"));
+        Files.delete(dir.resolve("F0.LEX"));
+        String second = run(sources, cache, 6, 1);
+        assertEquals(first, second);
+        assertTrue(Arrays.equals(lex, Files.readAllBytes(dir.resolve("F0.LEX"))));
+
+        write(dir.resolve("F3.251"), "program p;\nb 2;\nendprogram\n");
+        String third = run(sources, cache, 5, 2);
+        assertTrue(third, third.contains("F3.251: 1 erro"));
+
+        // Limite de quatro entradas e meia: as usadas há mais tempo são apagadas
+        long entrySize;
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            entrySize = entries.mapToLong(file -> file.toFile().length()).max().getAsLong();
+        }
+        long limit = 4 * entrySize + entrySize / 2;
+        ResultCache small = ResultCache.open(dir.resolve("pequeno"), limit);
+        run(sources, small, 0, 2);
+        try (Stream<Path> entries = Files.list(dir.resolve("pequeno"))) {
+            List<Long> sizes = entries.map(file -> file.toFile().length()).collect(Collectors.toList());
+            assertTrue(sizes.toString(), sizes.size() >= 1 && sizes.size() <= 4);
+            assertTrue(sizes.stream().mapToLong(Long::longValue).sum() <= limit);
+        }
+
+        // Uma entrada maior que um quarto do limite não é guardada, e a verificação segue normalmente
+        ResultCache tiny = ResultCache.open(dir.resolve("minimo"), 2 * entrySize);
+        run(sources, tiny, 0, 2);
+        run(sources, tiny, 0, 2);
+        try (Stream<Path> entries = Files.list(dir.resolve("minimo"))) {
+            assertEquals(0, entries.count());
+        }
+    }
+
+    @Test
+    public void collectsStatsPerFileAndPercentiles() throws Exception {
+        Path dir = Files.createTempDirectory("lote");
+        for (int i = 0; i < 4; i++) {
+            write(dir.resolve("F" + i + ".251"), "program p;\n" + (i == 0 ? "a 1;\n" : "a := " + i + ";\n")
+                    + "endprogram\n");
+        }
+        List<Path> sources = BatchChecker.collectSources(Arrays.asList(dir.toString()));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BatchChecker checker = new BatchChecker(2, new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        checker.setCollectStats(true);
+        BatchChecker.Summary summary = checker.check(sources);
+
+        StatsSummary stats = summary.getStats();
+        assertEquals(4, stats.getFiles());
+        assertEquals(1, stats.getDiagnostics());
+        long sourceBytes = 0;
+        for (Path source : sources) {
+            sourceBytes += Files.size(source);
+        }
+        assertEquals(sourceBytes, stats.getBytes());
+        assertTrue(stats.getTotalPercentileNanos(50) > 0);
+        assertTrue(stats.getTotalPercentileNanos(99) >= stats.getTotalPercentileNanos(50));
+        assertTrue(stats.getPercentileNanos(CheckPhase.PARSE, 99) <= stats.getTotalPercentileNanos(99));
+        String output = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(output, output.contains("F3.251: 0 erros"));
+        assertTrue(output, output.contains("relatório TAB"));
+
+        assertNull(new BatchChecker(2, new PrintStream(new ByteArrayOutputStream())).check(sources).getStats());
+    }
+
+    private static String run(List<Path> sources, ResultCache cache, int expectedHits, int expectedErrors) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BatchChecker.Summary summary = new BatchChecker(2, new PrintStream(bytes, true, StandardCharsets.UTF_8),
+                cache).check(sources);
+        assertEquals(expectedHits, summary.getCacheHits());
+        assertEquals(expectedErrors, summary.getErrors());
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void write(Path file, String text) throws Exception {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
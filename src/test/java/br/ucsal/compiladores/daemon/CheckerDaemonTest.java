@@ -0,0 +1,79 @@
+package br.ucsal.compiladores.daemon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class CheckerDaemonTest {
+
+    @Test
+    public void answersRequestsOnLoopbackUntilShutdown() throws Exception {
+        Path dir = Files.createTempDirectory("daemon");
+        Files.write(dir.resolve("Amostra.251"), "program p; a := 1; endprogram\n".getBytes(StandardCharsets.UTF_8));
+
+        CheckerDaemon daemon = CheckerDaemon.onPort(0);
+        Thread server = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        server.start();
+
+        InetSocketAddress address = (InetSocketAddress) daemon.getAddress();
+        try (Socket socket = new Socket(address.getAddress(), address.getPort());
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            out.write("PING\n");
+            out.flush();
+            assertEquals("PONG", in.readLine());
+
+            // O mesmo Parser atende várias requisições seguidas; a contagem de erros recomeça em cada uma
+            for (int i = 0; i < 2; i++) {
+                out.write("SOURCE 3 Inline\nprogram p;\na 1;\nendprogram\n");
+                out.flush();
+                String error = in.readLine();
+                assertTrue(error, error.startsWith("ERROR Erro Sintático: Esperado ':=' após variável 'A'"));
+                assertTrue(error, error.contains("linha 2"));
+                assertEquals("DONE 1", in.readLine());
+            }
+
+            out.write("CHECK " + dir.resolve("Amostra") + "\n");
+            out.flush();
+            assertEquals("DONE 0", in.readLine());
+            assertTrue(Files.exists(dir.resolve("Amostra.LEX")));
+
+            // Um diretório no lugar do relatório faz a verificação falhar, e a falha conta no DONE
+            Files.copy(dir.resolve("Amostra.251"), dir.resolve("Bloqueado.251"));
+            Files.createDirectory(dir.resolve("Bloqueado.LEX"));
+            out.write("CHECK " + dir.resolve("Bloqueado") + "\n");
+            out.flush();
+            assertTrue(in.readLine().startsWith("ERROR Erro de E/S"));
+            assertEquals("DONE 1", in.readLine());
+
+            out.write("CHECK " + dir.resolve("Ausente") + "\n");
+            out.flush();
+            assertTrue(in.readLine().startsWith("FAIL Arquivo não encontrado"));
+
+            out.write("SHUTDOWN\n");
+            out.flush();
+            assertEquals("BYE", in.readLine());
+        }
+        server.join(5000);
+        daemon.close();
+        assertTrue(!server.isAlive());
+    }
+}
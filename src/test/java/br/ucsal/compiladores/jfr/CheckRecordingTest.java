@@ -0,0 +1,89 @@
+package br.ucsal.compiladores.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.App.FileInputDetails;
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.parser.ParseListener;
+import br.ucsal.compiladores.parser.Parser;
+import br.ucsal.compiladores.tools.ProgramGenerator;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class CheckRecordingTest {
+
+    @Test
+    public void recordsFilePhasesAndSlowestFunctions() throws Exception {
+        Path dir = Files.createTempDirectory("jfr");
+        Path source = dir.resolve("Gerado.251");
+        ProgramGenerator.Settings settings = new ProgramGenerator.Settings();
+        settings.targetBytes = 64 * 1024;
+        settings.functions = 100;
+        try (Writer out = Files.newBufferedWriter(source, StandardCharsets.US_ASCII)) {
+            new ProgramGenerator(settings, out).generate();
+        }
+
+        // O .LEX não pode ser criado: a verificação falha antes da análise
+        Path blocked = dir.resolve("Bloqueado.251");
+        Files.writeString(blocked, "program p;\nendprogram\n");
+        Files.createDirectory(dir.resolve("Bloqueado.LEX"));
+
+        Path dump = dir.resolve("verificacao.jfr");
+        Parser parser = new Parser(ParseListener.SILENT);
+        parser.setCollectStats(true);
+        try (Recording recording = new Recording()) {
+            recording.enable(FileCheckEvent.class);
+            recording.enable(CheckPhaseEvent.class);
+            recording.enable(SlowFunctionEvent.class);
+            recording.start();
+            parser.run(FileInputDetails.of(source));
+            new Parser(ParseListener.SILENT).run(FileInputDetails.of(blocked));
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        int files = 0;
+        int failedFiles = 0;
+        Set<String> phases = new HashSet<>();
+        Set<String> functions = new HashSet<>();
+        for (RecordedEvent event : events) {
+            String type = event.getEventType().getName();
+            if (type.equals("br.ucsal.compiladores.FileCheck") && event.getBoolean("failed")) {
+                failedFiles++;
+                assertEquals(blocked.toString(), event.getString("filePath"));
+                assertEquals(Files.size(blocked), event.getLong("bytes"));
+                assertEquals(1, event.getInt("diagnostics"));
+            } else if (type.equals("br.ucsal.compiladores.FileCheck")) {
+                files++;
+                assertEquals(Files.size(source), event.getLong("bytes"));
+                assertEquals(parser.getStats().getTokens(), event.getInt("tokens"));
+                assertEquals(0, event.getInt("diagnostics"));
+            } else if (type.equals("br.ucsal.compiladores.CheckPhase")
+                    && event.getString("filePath").equals(source.toString())) {
+                phases.add(event.getString("phase"));
+            } else if (type.equals("br.ucsal.compiladores.SlowFunction")) {
+                functions.add(event.getString("function"));
+                assertEquals(Files.size(source), event.getLong("bytes"));
+                assertTrue(event.getInt("tokens") > 0);
+            }
+        }
+        assertEquals(1, files);
+        assertEquals(1, failedFiles);
+        assertEquals(5, phases.size());
+        assertEquals(Constants.JFR_SLOW_FUNCTIONS, functions.size());
+        assertTrue(functions.toString(), functions.iterator().next().startsWith("FUNC"));
+    }
+}
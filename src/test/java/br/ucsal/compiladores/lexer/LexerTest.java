@@ -0,0 +1,90 @@
+package br.ucsal.compiladores.lexer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+import br.ucsal.compiladores.utils.FileHandler;
+
+public class LexerTest {
+
+    @Test
+    public void recognizesNumbersWithExponentRules() throws IOException {
+        assertEquals(List.of("IDN04:1", "IDN05:1.25e-3", "IDN05:.5", "IDN05:1.5", "IDN02:E5", "IDN04:3",
+                "IDN02:E2", "IDN04:12", "ERR01:.", "IDN05:2.0", "SRS01:;", "EOF00:"),
+                lex("1 1.25e-3 .5 1.5E+ e5 3E2 12. 2.0e;"));
+    }
+
+    @Test
+    public void recognizesSymbolsWithAndWithoutEquals() throws IOException {
+        assertEquals(List.of("SRS04::=", "SRS03::", "SRS17:==", "ERR01:=", "SRS18:!=", "ERR01:!", "SRS18:#",
+                "SRS20:<=", "SRS19:<", "SRS22:>=", "SRS21:>", "SRS15:/", "SRS05:?", "EOF00:"),
+                lex(":= : == = != ! # <= < >= > / ?"));
+    }
+
+    @Test
+    public void filtersInvalidCharactersAndTruncatesIdentifiers() throws IOException {
+        assertEquals(List.of("IDN02:IDCOMFILTRO", "IDN02:ABCDEFGHIJKLMNOPQRSTUVWXYZ012345", "PRS20:IF",
+                "EOF00:"),
+                lex("@ id@Com~Filtro ~ abcdefghijklmnopqrstuvwxyz0123456789 if"));
+    }
+
+    @Test
+    public void recognizesStringAndCharLiteralsOnOneLine() throws IOException {
+        assertEquals(List.of("IDN06:\"ok // sem comentario\"", "IDN07:'a'", "ERR01:'", "ERR01:'", "ERR01:'a",
+                "IDN02:B", "ERR01:\"aberta\n", "IDN02:X", "EOF00:"),
+                lex("\"ok // sem comentario\" 'a' '' 'ab\n\"aberta\n/* bloco\n */ x"));
+    }
+
+    @Test
+    public void streamKeepsOnlyTheLookaheadWindow() throws IOException {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            source.append("x").append(i % 7).append(" := y + 1;\r\n");
+        }
+        List<String> expected = lex(source.toString());
+
+        TokenStream stream = lexer(source.toString()).stream();
+        List<String> streamed = new ArrayList<>();
+        while (true) {
+            if (stream.getType() == TokenType.IDN_VARIABLE && stream.peekType(2) == TokenType.IDN_VARIABLE) {
+                assertEquals(TokenType.SRS_ASSIGNMENT, stream.peekType(1));
+            }
+            streamed.add(stream.getType().getCode() + ":" + stream.getLexeme());
+            assertTrue(stream.getBuffer().size() - stream.getBuffer().getFirstIndex() <= 1024);
+            if (stream.getType() == TokenType.END_OF_FILE) {
+                break;
+            }
+            stream.advance();
+        }
+        assertEquals(expected, streamed);
+
+        TokenBuffer buffer = lexer("ab\r\n  cd").tokenizeToBuffer();
+        assertEquals(0, buffer.getOffset(0));
+        assertEquals(5, buffer.getOffset(1));
+    }
+
+    private static Lexer lexer(String source) throws IOException {
+        Path dir = Files.createTempDirectory("lexer");
+        Files.write(dir.resolve("Amostra.251"), source.getBytes(StandardCharsets.UTF_8));
+        return new Lexer(new FileHandler("Amostra", dir.toString()), new SymbolTable());
+    }
+
+    private static List<String> lex(String source) throws IOException {
+        Lexer lexer = lexer(source);
+        List<String> result = new ArrayList<>();
+        for (Token token : lexer.tokenize()) {
+            result.add(token.getType().getCode() + ":" + token.getLexeme());
+        }
+        return result;
+    }
+}
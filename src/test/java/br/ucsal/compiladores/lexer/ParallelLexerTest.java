@@ -0,0 +1,83 @@
+package br.ucsal.compiladores.lexer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.symbolTable.Symbol;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+import br.ucsal.compiladores.utils.FileHandler;
+
+public class ParallelLexerTest {
+
+    @Test
+    public void matchesSequentialLexingAcrossEveryLineBoundary() throws IOException {
+        String source = "program p;\r\n"
+                + "declarations vartype integer: a, b, ação; enddeclarations\n"
+                + "/* bloco que\n atravessa \"linhas\" // e tem lixo\n*/ a := b + 1.5e3;\n"
+                + "print \"texto /* sem comentario\", 'x', a; // fim\r"
+                + "\"aberta /* tambem\n"
+                + "b := a; /*/ ainda comentario\n*/ ação := 'q';\n"
+                + "while (a < 10) a := a + 1; endwhile\n"
+                + "endprogram";
+        Path dir = Files.createTempDirectory("parallel");
+        Path file = dir.resolve("Amostra.251");
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+
+        SymbolTable sequentialSymbols = new SymbolTable();
+        TokenBuffer sequential = new Lexer(new FileHandler("Amostra", dir.toString()), sequentialSymbols)
+                .tokenizeToBuffer();
+
+        for (long chunkBytes : new long[] { 1, 7, 40, 1 << 20 }) {
+            SymbolTable parallelSymbols = new SymbolTable();
+            TokenBuffer parallel = new ParallelLexer(file.toString(), parallelSymbols, chunkBytes).tokenize();
+            assertEquals(describe(sequential), describe(parallel));
+            assertEquals(describe(sequentialSymbols), describe(parallelSymbols));
+        }
+    }
+
+    @Test
+    public void assignsSequentialSymbolIndicesWhateverOrderChunksFinish() throws IOException {
+        // Cada linha cita um nome novo e outros já vistos, de modo que os blocos registram os mesmos nomes em
+        // ordens diferentes da sequencial e os índices provisórios precisam ser traduzidos
+        StringBuilder source = new StringBuilder();
+        for (int line = 0; line < 400; line++) {
+            source.append("n").append(line).append(" := n").append(line * 7 % (line + 1)).append(" + n")
+                    .append(399 - line).append(";\n");
+        }
+        Path dir = Files.createTempDirectory("parallel");
+        Path file = dir.resolve("Nomes.251");
+        Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+
+        SymbolTable sequentialSymbols = new SymbolTable();
+        TokenBuffer sequential = new Lexer(new FileHandler("Nomes", dir.toString()), sequentialSymbols)
+                .tokenizeToBuffer();
+        SymbolTable parallelSymbols = new SymbolTable();
+        TokenBuffer parallel = new ParallelLexer(file.toString(), parallelSymbols, 64).tokenize();
+        assertEquals(describe(sequential), describe(parallel));
+        assertEquals(describe(sequentialSymbols), describe(parallelSymbols));
+    }
+
+    private static List<String> describe(TokenBuffer tokens) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            result.add(tokens.describe(i) + " @" + tokens.getOffset(i));
+        }
+        return result;
+    }
+
+    private static List<String> describe(SymbolTable symbols) {
+        List<String> result = new ArrayList<>();
+        for (Symbol symbol : symbols.getAllSymbols()) {
+            result.add(symbol.toString());
+        }
+        return result;
+    }
+}
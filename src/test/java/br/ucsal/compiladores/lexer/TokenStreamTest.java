@@ -0,0 +1,63 @@
+package br.ucsal.compiladores.lexer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+import br.ucsal.compiladores.utils.TextSourceReader;
+
+public class TokenStreamTest {
+
+    @Test
+    public void pullsTokensOnlyWhenAskedAndBoundsLookahead() {
+        TokenStream stream = new Lexer(new TextSourceReader("Amostra", "a := b + 1; c := 2;"), new SymbolTable())
+                .stream();
+        assertEquals(0, stream.getBuffer().size());
+
+        assertEquals(TokenType.IDN_VARIABLE, stream.getType());
+        assertEquals(1, stream.getBuffer().size());
+
+        assertEquals(TokenType.IDN_VARIABLE, stream.peekType(2));
+        assertEquals(3, stream.getBuffer().size());
+
+        int maxDistance = Constants.TOKEN_LOOKAHEAD - 1;
+        stream.peekType(maxDistance);
+        assertEquals(Constants.TOKEN_LOOKAHEAD, stream.getBuffer().size());
+        try {
+            stream.peekType(Constants.TOKEN_LOOKAHEAD);
+            fail("Lookahead além do limite deveria ser recusado");
+        } catch (IllegalArgumentException e) {
+            assertEquals(Constants.TOKEN_LOOKAHEAD, stream.getBuffer().size());
+        }
+
+        stream.advance();
+        assertEquals(TokenType.SRS_ASSIGNMENT, stream.getType());
+        assertEquals(Constants.TOKEN_LOOKAHEAD, stream.getBuffer().size());
+    }
+
+    @Test
+    public void discardsConsumedTokensUnlessRetained() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            source.append("x := ").append(i).append(";\n");
+        }
+        TokenStream discarding = new Lexer(new TextSourceReader("Amostra", source), new SymbolTable()).stream();
+        TokenStream retaining = new Lexer(new TextSourceReader("Amostra", source), new SymbolTable()).stream()
+                .retainTokens();
+        int count = 0;
+        while (discarding.hasNext()) {
+            assertEquals(retaining.next().getLexeme(), discarding.next().getLexeme());
+            TokenBuffer buffer = discarding.getBuffer();
+            assertTrue(buffer.size() - buffer.getFirstIndex() <= 1024);
+            count++;
+        }
+        assertEquals(4 * 5000 + 1, count);
+        assertEquals(0, retaining.getBuffer().getFirstIndex());
+        assertEquals(count, retaining.getBuffer().size());
+        assertTrue(retaining.isComplete());
+    }
+}
@@ -0,0 +1,181 @@
+package br.ucsal.compiladores.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.lexer.Lexer;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenStream;
+import br.ucsal.compiladores.symbolTable.Symbol;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+import br.ucsal.compiladores.utils.TextSourceReader;
+
+public class IncrementalDocumentTest {
+    private static final String SOURCE = "program p;\n"
+            + "declarations vartype integer: a, b; vartype real[]: v; enddeclarations\n"
+            + "functions\n"
+            + "functype real: f(paramtype integer: x) a := x * 2; return a; endfunction\n"
+            + "functype integer: g() if (a > b) print a; endif return 1; endfunction\n"
+            + "functype void: h(paramtype real: a) while (a < 3) a := a + 1; endwhile endfunction\n"
+            + "endfunctions\n"
+            + "a := 1 + 2 * b;\n"
+            + "print a, \"texto\"; // comentário\n"
+            + "if (a >= b) print a; else break; endif\n"
+            + "b 3;\n"
+            + "while (a < 10) a := a + 1; endwhile\n"
+            + "if (b > 1 a := 2; endif\n"
+            + "endprogram\n";
+
+    private static final String[] INSERTIONS = { "", " ", "\n", "a", "x1 := 2;", "print b;", "/*", "*/", "\"",
+            "if (a > 1) ", "endif", "functype integer: k() return 1; endfunction\n", ";", "//", "(", ")",
+            "endfunctions", "while (b < 3) b := b + 1; endwhile\n", "1.5e", ":=", "\r\n", "identificadorMuitoLongo_" };
+
+    @Test
+    public void freshDocumentMatchesBatchAnalysis() {
+        IncrementalDocument document = new IncrementalDocument("Amostra", SOURCE);
+
+        SymbolTable symbolTable = new SymbolTable();
+        TokenBuffer tokens = new Lexer(new TextSourceReader("Amostra", SOURCE), symbolTable).tokenizeToBuffer();
+        List<String> errors = new ArrayList<>();
+        Parser parser = new Parser(TokenStream.of(tokens), symbolTable, collectingErrors(errors));
+        parser.check();
+
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(1).contains("IndexTabSimb: 2,"));
+        assertEquals(errors, document.getDiagnostics());
+        assertEquals(snapshot(parser.getAst(), tokens, symbolTable, errors), snapshot(document));
+    }
+
+    @Test
+    public void quotedReferencesInMessagesAreLeftAsWritten() {
+        // Textos que parecem referências de linha ou de símbolo dentro de um literal citado na mensagem
+        String source = "program p;\n"
+                + "a := 1;\n"
+                + "\"IndexTabSimb: 999\";\n"
+                + "b := 2;\n"
+                + "\"linha 5\";\n"
+                + "endprogram\n";
+        IncrementalDocument document = new IncrementalDocument("Amostra", source);
+        List<String> errors = new ArrayList<>();
+        new Parser(TokenStream.of(new Lexer(new TextSourceReader("Amostra", source), new SymbolTable())
+                .tokenizeToBuffer()), new SymbolTable(), collectingErrors(errors)).check();
+        assertEquals(4, errors.size());
+        assertEquals(errors, document.getDiagnostics());
+
+        document.edit(source.indexOf("a := 1;") + "a :=".length(), 0, "\n");
+        List<String> diagnostics = document.getDiagnostics();
+        assertTrue(diagnostics.get(0), diagnostics.get(0).contains("'\"IndexTabSimb: 999\"' na linha 4 "));
+        assertTrue(diagnostics.get(2), diagnostics.get(2).contains("'\"linha 5\"' na linha 6 "));
+        assertEquals(new IncrementalDocument("Amostra", document.getText()).getDiagnostics(), diagnostics);
+    }
+
+    @Test
+    public void randomEditsMatchFreshAnalysisOfTheFinalText() {
+        for (int round = 0; round < 8; round++) {
+            Random random = new Random(251 + round);
+            IncrementalDocument document = new IncrementalDocument("Amostra", SOURCE);
+            for (int step = 0; step < 60; step++) {
+                String text = document.getText();
+                int offset = random.nextInt(text.length() + 1);
+                int removed = random.nextInt(3) == 0 ? random.nextInt(Math.min(12, text.length() - offset) + 1) : 0;
+                String inserted = INSERTIONS[random.nextInt(INSERTIONS.length)];
+                document.edit(offset, removed, inserted);
+
+                IncrementalDocument fresh = new IncrementalDocument("Amostra", document.getText());
+                assertEquals("rodada " + round + ", edição " + step, snapshot(fresh), snapshot(document));
+            }
+        }
+    }
+
+    @Test
+    public void editInsideOneCommandReparsesOnlyThatCommand() {
+        StringBuilder source = new StringBuilder("program p;\nfunctions\n");
+        for (int i = 0; i < 200; i++) {
+            source.append("functype integer: f").append(i).append("() return ").append(i).append("; endfunction\n");
+        }
+        source.append("endfunctions\n");
+        for (int i = 0; i < 500; i++) {
+            source.append("a := a + ").append(i).append(";\n");
+        }
+        source.append("b 1;\nendprogram\n");
+        IncrementalDocument document = new IncrementalDocument("Amostra", source.toString());
+        assertEquals(1, document.getErrorCount());
+        assertTrue(document.getDiagnostics().get(0).contains("linha 704"));
+
+        int offset = source.indexOf("a := a + 250;") + "a := a + 2".length();
+        document.edit(offset, 0, "0 * b;\nprint a");
+
+        assertFalse(document.isLastFullReparse());
+        assertTrue(document.getLastRelexedTokens() < 10);
+        assertEquals(2, document.getLastReparsedUnits());
+        assertTrue(document.getDiagnostics().get(0).contains("linha 705"));
+        // A mensagem não descreve identificadores: a tabela de símbolos não precisa ser refeita
+        assertFalse(document.isSymbolTableBuilt());
+        assertEquals(snapshot(new IncrementalDocument("Amostra", document.getText())), snapshot(document));
+
+        offset = source.indexOf("return 100;") + "return 10".length();
+        document.edit(offset, 1, "1 + 1");
+        assertFalse(document.isLastFullReparse());
+        assertEquals(1, document.getLastReparsedUnits());
+        assertEquals(snapshot(new IncrementalDocument("Amostra", document.getText())), snapshot(document));
+    }
+
+    private static ParseListener collectingErrors(List<String> errors) {
+        return new ParseListener() {
+            @Override
+            public boolean isTracing() {
+                return false;
+            }
+
+            @Override
+            public void print(String text) {
+            }
+
+            @Override
+            public void println(String text) {
+            }
+
+            @Override
+            public void error(String message) {
+                errors.add(message);
+            }
+        };
+    }
+
+    private static String snapshot(IncrementalDocument document) {
+        return snapshot(document.getAst(), document.getTokens(), document.getSymbolTable(),
+                document.getDiagnostics());
+    }
+
+    private static String snapshot(Ast ast, TokenBuffer tokens, SymbolTable symbolTable, List<String> errors) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < tokens.size(); i++) {
+            sb.append(tokens.describe(i)).append(", Offset: ").append(tokens.getOffset(i)).append('\n');
+        }
+        describe(ast, ast.getRoot(), sb);
+        for (Symbol symbol : symbolTable.getAllSymbols()) {
+            sb.append('\n').append(symbol).append(", Categoria: ").append(symbol.getCategory());
+        }
+        for (String error : errors) {
+            sb.append('\n').append(error);
+        }
+        return sb.toString();
+    }
+
+    // Cada nó com o tipo e o índice do token de origem
+    private static void describe(Ast ast, int node, StringBuilder sb) {
+        sb.append('(').append(ast.getKind(node)).append('@').append(ast.getTokenIndex(node));
+        for (int child = ast.getFirstChild(node); child != Ast.NONE; child = ast.getNextSibling(child)) {
+            sb.append(' ');
+            describe(ast, child, sb);
+        }
+        sb.append(')');
+    }
+}
@@ -0,0 +1,271 @@
+package br.ucsal.compiladores.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.App.FileInputDetails;
+import br.ucsal.compiladores.config.Constants;
+import br.ucsal.compiladores.lexer.Lexer;
+import br.ucsal.compiladores.lexer.Token;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenStream;
+import br.ucsal.compiladores.symbolTable.Symbol;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+import br.ucsal.compiladores.utils.FileHandler;
+import br.ucsal.compiladores.utils.ReadMode;
+
+public class ParserTest {
+
+    @Test
+    public void buildsTreeForEveryProduction() throws IOException {
+        String source = "program p;\n"
+                + "declarations vartype integer: a, b; enddeclarations\n"
+                + "functions functype real: f(paramtype integer: x)\n"
+                + "  return x * (a - 1);\n"
+                + "endfunction endfunctions\n"
+                + "a := 1 + 2 * b;\n"
+                + "if (a >= b) print a, \"ok\"; else break; endif\n"
+                + "while (a < 10) a := a + 1; endwhile\n"
+                + "endprogram";
+
+        assertEquals("(PROGRAM (PROGRAM_NAME P)"
+                + " (DECLARATIONS (VARIABLE_DECLARATION A B))"
+                + " (FUNCTIONS (FUNCTION F (PARAMETER X)"
+                + " (COMMAND_LIST (RETURN (BINARY_OPERATION:* X (BINARY_OPERATION:- A 1))))))"
+                + " (COMMAND_LIST"
+                + " (ASSIGNMENT A (BINARY_OPERATION:+ 1 (BINARY_OPERATION:* 2 B)))"
+                + " (IF (RELATIONAL_OPERATION:>= A B) (COMMAND_LIST (PRINT A \"ok\")) (COMMAND_LIST (BREAK)))"
+                + " (WHILE (RELATIONAL_OPERATION:< A 10)"
+                + " (COMMAND_LIST (ASSIGNMENT A (BINARY_OPERATION:+ A 1))))))",
+                parse(source));
+    }
+
+    @Test
+    public void multiplicativeOperatorsBindTighterAndAssociateLeft() throws IOException {
+        assertEquals("(PROGRAM (PROGRAM_NAME P) (COMMAND_LIST"
+                + " (ASSIGNMENT A (BINARY_OPERATION:-"
+                + " (BINARY_OPERATION:- A (BINARY_OPERATION:% (BINARY_OPERATION:/ B 2) C)) 1))))",
+                parse("program p; a := a - b / 2 % c - 1; endprogram"));
+    }
+
+    @Test
+    public void deeplyNestedExpressionDoesNotUseTheCallStack() throws IOException {
+        int depth = 200_000;
+        String expression = "(".repeat(depth) + "1" + " + 1)".repeat(depth);
+        TokenBuffer tokens = tokenize("program p; a := " + expression + "; endprogram");
+        Parser parser = new Parser(TokenStream.of(tokens), new SymbolTable(), ParseListener.SILENT);
+        parser.check();
+
+        assertEquals(0, parser.getErrorCount());
+        Ast ast = parser.getAst();
+        int assignment = ast.getFirstChild(ast.getNextSibling(ast.getFirstChild(ast.getRoot())));
+        int node = ast.getNextSibling(ast.getFirstChild(assignment));
+        int leftDepth = 0;
+        while (ast.getKind(node) == AstNodeKind.BINARY_OPERATION) {
+            node = ast.getFirstChild(node);
+            leftDepth++;
+        }
+        assertEquals(depth, leftDepth);
+    }
+
+    @Test
+    public void silentListenerStillCountsErrors() throws IOException {
+        TokenBuffer tokens = tokenize("program p; a 1; print a endprogram");
+        RecordingListener listener = new RecordingListener(false);
+        Parser parser = new Parser(TokenStream.of(tokens), new SymbolTable(), listener);
+        parser.check();
+
+        assertEquals(2, parser.getErrorCount());
+        assertEquals(2, listener.messages.size());
+        assertTrue(listener.messages.get(0).startsWith("err:Erro Sintático: Esperado ':=' após variável 'A'"));
+        assertTrue(listener.messages.get(1).startsWith("err:Erro Sintático: Esperado ';' no final do comando PRINT"));
+    }
+
+    @Test
+    public void tokenListWithoutEndOfFileEndsOnTheLastLine() throws IOException {
+        TokenBuffer lexed = tokenize("program p;\n\nif (a > 1");
+        List<Token> withoutEndOfFile = new ArrayList<>();
+        for (int i = 0; i < lexed.size() - 1; i++) {
+            withoutEndOfFile.add(lexed.getToken(i));
+        }
+        TokenBuffer tokens = TokenBuffer.of(withoutEndOfFile);
+        RecordingListener listener = new RecordingListener(false);
+        Parser parser = new Parser(TokenStream.of(tokens), new SymbolTable(), listener);
+        parser.check();
+
+        // O buffer não ganha um EOF: outras threads podem estar lendo o mesmo buffer
+        assertEquals(withoutEndOfFile.size(), tokens.size());
+        assertEquals(listener.messages.toString(), 1, parser.getErrorCount());
+        assertTrue(listener.messages.get(0), listener.messages.get(0).contains("do IF na linha 3."));
+    }
+
+    @Test
+    public void parallelFunctionsMatchSequentialParse() throws IOException {
+        StringBuilder source = new StringBuilder("program p; declarations vartype integer: g; enddeclarations\n"
+                + "functions\n");
+        for (int i = 0; i < 3 * Constants.PARALLEL_PARSE_MIN_FUNCTIONS; i++) {
+            source.append("functype real: f").append(i).append("(paramtype integer: x").append(i)
+                    .append(") g := x").append(i).append(" * ").append(i).append("; return g; endfunction\n");
+            if (i == 2 * Constants.PARALLEL_PARSE_MIN_FUNCTIONS) {
+                // IF sem ENDIF: engole o ENDFUNCTION e invalida o limite previsto desta função
+                source.append("functype integer: broken() if (g > 1) print g; endfunction\n");
+            }
+        }
+        source.append("endfunctions\ng := 1; endprogram");
+
+        Path dir = Files.createTempDirectory("parser");
+        Files.write(dir.resolve("Amostra.251"), source.toString().getBytes(StandardCharsets.UTF_8));
+        String[] results = new String[2];
+        for (int run = 0; run < 2; run++) {
+            SymbolTable symbolTable = new SymbolTable();
+            TokenBuffer tokens = new Lexer(new FileHandler("Amostra", dir.toString()), symbolTable).tokenizeToBuffer();
+            RecordingListener listener = new RecordingListener(true);
+            Parser parser = new Parser(TokenStream.of(tokens), symbolTable, listener);
+            parser.setParallelFunctions(run == 1);
+            parser.check();
+
+            StringBuilder sb = new StringBuilder();
+            describe(parser.getAst(), tokens, parser.getAst().getRoot(), sb);
+            sb.append('\n').append(parser.getErrorCount()).append('\n').append(listener.messages);
+            for (Symbol symbol : symbolTable.getAllSymbols()) {
+                sb.append('\n').append(symbol);
+            }
+            results[run] = sb.toString();
+        }
+        assertTrue(results[0].contains("ENDFUNCTION"));
+        assertEquals(results[0], results[1]);
+    }
+
+    @Test
+    public void largeFileWithFewFunctionsStaysOnTheStreamingPath() throws IOException {
+        Path dir = Files.createTempDirectory("parser");
+        for (int functions : new int[] { 3, Constants.PARALLEL_PARSE_MIN_FUNCTIONS }) {
+            StringBuilder source = new StringBuilder("program p;\ndeclarations vartype integer: a; enddeclarations\n"
+                    + "functions\n");
+            for (int i = 0; i < functions; i++) {
+                source.append("functype integer: f").append(i).append("() return a; endfunction\n");
+            }
+            source.append("endfunctions\n");
+            // FUNCTYPE em comentários e strings não conta como função
+            while (source.length() < Constants.PARALLEL_PARSE_THRESHOLD_BYTES) {
+                source.append("a := a + 1; // functype FUNCTYPE\nprint \"functype\"; /* functype\n functype */\n");
+            }
+            source.append("endprogram\n");
+            Path file = dir.resolve("Funcoes" + functions + ".251");
+            Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+
+            Parser parser = new Parser(ParseListener.SILENT);
+            parser.setParallelFunctions(true);
+            parser.run(FileInputDetails.of(file));
+            assertEquals(0, parser.getErrorCount());
+            // Sem leitura prévia o buffer só guarda a janela de lookahead
+            boolean streamed = parser.getTokens().getFirstIndex() > 0;
+            assertEquals("funções: " + functions, functions < Constants.PARALLEL_PARSE_MIN_FUNCTIONS, streamed);
+        }
+    }
+
+    @Test
+    public void runProducesTheSameReportsInEveryReadMode() throws IOException {
+        StringBuilder source = new StringBuilder("program p;\ndeclarations vartype integer: a, b; enddeclarations\n");
+        for (int i = 0; i < 2000; i++) {
+            source.append("a := b + ").append(i).append("; /* bloco\n que cruza */ b := a;\n");
+        }
+        source.append("if (a > 1) print a;\nendprogram\n");
+        Path dir = Files.createTempDirectory("parser");
+        Path file = dir.resolve("Amostra.251");
+        Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+
+        String expected = null;
+        for (ReadMode mode : new ReadMode[] { ReadMode.LINES, ReadMode.MAPPED, ReadMode.STREAMING }) {
+            RecordingListener listener = new RecordingListener(false);
+            Parser parser = new Parser(listener);
+            parser.setReadMode(mode);
+            parser.run(FileInputDetails.of(file));
+            String result = listener.messages + "\n"
+                    + new String(Files.readAllBytes(dir.resolve("Amostra.LEX")), StandardCharsets.UTF_8)
+                    + new String(Files.readAllBytes(dir.resolve("Amostra.TAB")), StandardCharsets.UTF_8);
+            if (expected == null) {
+                assertTrue(listener.messages.toString(), parser.getErrorCount() > 0);
+                expected = result;
+            }
+            assertEquals(mode.toString(), expected, result);
+        }
+    }
+
+    private static TokenBuffer tokenize(String source) throws IOException {
+        Path dir = Files.createTempDirectory("parser");
+        Files.write(dir.resolve("Amostra.251"), source.getBytes(StandardCharsets.UTF_8));
+        return new Lexer(new FileHandler("Amostra", dir.toString()), new SymbolTable()).tokenizeToBuffer();
+    }
+
+    private static String parse(String source) throws IOException {
+        Path dir = Files.createTempDirectory("parser");
+        Files.write(dir.resolve("Amostra.251"), source.getBytes(StandardCharsets.UTF_8));
+        SymbolTable symbolTable = new SymbolTable();
+        TokenBuffer tokens = new Lexer(new FileHandler("Amostra", dir.toString()), symbolTable).tokenizeToBuffer();
+        Parser parser = new Parser(TokenStream.of(tokens), symbolTable);
+        parser.check();
+        StringBuilder sb = new StringBuilder();
+        describe(parser.getAst(), tokens, parser.getAst().getRoot(), sb);
+        return sb.toString();
+    }
+
+    // Folhas mostram o lexema; nós internos, o tipo (e o operador, quando houver)
+    private static void describe(Ast ast, TokenBuffer tokens, int node, StringBuilder sb) {
+        AstNodeKind kind = ast.getKind(node);
+        if (kind == AstNodeKind.IDENTIFIER || kind == AstNodeKind.LITERAL) {
+            sb.append(tokens.getLexeme(ast.getTokenIndex(node)));
+            return;
+        }
+        sb.append('(').append(kind);
+        if (kind == AstNodeKind.BINARY_OPERATION || kind == AstNodeKind.RELATIONAL_OPERATION) {
+            sb.append(':').append(tokens.getLexeme(ast.getTokenIndex(node)));
+        }
+        if (kind == AstNodeKind.PROGRAM_NAME) {
+            sb.append(' ').append(tokens.getLexeme(ast.getTokenIndex(node)));
+        }
+        for (int child = ast.getFirstChild(node); child != Ast.NONE; child = ast.getNextSibling(child)) {
+            sb.append(' ');
+            describe(ast, tokens, child, sb);
+        }
+        sb.append(')');
+    }
+
+    private static final class RecordingListener implements ParseListener {
+        final List<String> messages = new ArrayList<>();
+        private final boolean tracing;
+
+        RecordingListener(boolean tracing) {
+            this.tracing = tracing;
+        }
+
+        @Override
+        public boolean isTracing() {
+            return tracing;
+        }
+
+        @Override
+        public void print(String text) {
+            messages.add("out:" + text);
+        }
+
+        @Override
+        public void println(String text) {
+            messages.add("out:" + text + "\n");
+        }
+
+        @Override
+        public void error(String message) {
+            messages.add("err:" + message);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package br.ucsal.compiladores.symbolTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenType;
+
+public class SymbolTableTest {
+
+    @Test
+    public void keepsIndicesStableAcrossGrowthAndLookupStyles() {
+        SymbolTable table = new SymbolTable();
+        for (int i = 0; i < 5000; i++) {
+            char[] lexeme = ("VAR" + i).toCharArray();
+            assertEquals(i + 1, table.addOrGetSymbol(lexeme, lexeme.length, lexeme.length, TokenType.IDN_VARIABLE,
+                    lexeme.length, i + 1));
+        }
+        for (int i = 4999; i >= 0; i--) {
+            String key = "VAR" + i;
+            assertEquals(i + 1, table.addOrGetSymbol(key, key, TokenType.IDN_VARIABLE, key.length(), 7));
+            assertSame(table.getSymbolByIndex(i + 1), table.getSymbol(key));
+        }
+
+        char[] longLexeme = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+        int index = table.addOrGetSymbol(longLexeme, 32, 35, TokenType.IDN_VARIABLE, 36, 1);
+        assertEquals(index, table.addOrGetSymbol(longLexeme, 32, 35, TokenType.IDN_VARIABLE, 36, 2));
+        Symbol symbol = table.getSymbol("ABCDEFGHIJKLMNOPQRSTUVWXYZ012345");
+        assertEquals("ABCDEFGHIJKLMNOPQRSTUVWXYZ012345678", symbol.getLexeme());
+        assertEquals(List.of(1, 2), symbol.getLineAppearances());
+        assertEquals(5001, table.getAllSymbols().size());
+    }
+
+    @Test
+    public void concurrentInsertsMatchSequentialFirstSeenOrder() throws InterruptedException {
+        Random random = new Random(42);
+        List<String> lexemes = new ArrayList<>();
+        for (int position = 0; position < 20000; position++) {
+            int name = random.nextInt(500);
+            // Nomes longos compartilham a chave de 32 caracteres mas diferem no lexema exibido
+            lexemes.add(name % 10 == 0 ? "PREFIXO_LONGO_COMPARTILHADO_ATE_" + name : "V" + name);
+        }
+
+        SymbolTable sequential = new SymbolTable();
+        int[] sequentialIndices = new int[lexemes.size()];
+        for (int position = 0; position < lexemes.size(); position++) {
+            char[] lexeme = lexemes.get(position).toCharArray();
+            sequentialIndices[position] = sequential.addOrGetSymbol(lexeme, Math.min(lexeme.length, 32),
+                    Math.min(lexeme.length, 35), TokenType.IDN_VARIABLE, lexeme.length, position / 10 + 1);
+        }
+
+        ConcurrentSymbolTable concurrent = new ConcurrentSymbolTable();
+        int[] provisionalIndices = new int[lexemes.size()];
+        List<Integer> order = new ArrayList<>();
+        for (int position = 0; position < lexemes.size(); position++) {
+            order.add(position);
+        }
+        Collections.shuffle(order, random);
+        AtomicInteger next = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = next.getAndIncrement(); i < order.size(); i = next.getAndIncrement()) {
+                    int position = order.get(i);
+                    char[] lexeme = lexemes.get(position).toCharArray();
+                    provisionalIndices[position] = concurrent.addOrGetSymbol(lexeme, Math.min(lexeme.length, 32),
+                            Math.min(lexeme.length, 35), TokenType.IDN_VARIABLE, lexeme.length,
+                            position / 10 + 1, position);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        SymbolTable merged = new SymbolTable();
+        // Como no ParallelLexer: os tokens saem com o índice provisório e são traduzidos depois da junção
+        TokenBuffer tokens = new TokenBuffer();
+        for (int position = 0; position < lexemes.size(); position++) {
+            tokens.add(TokenType.IDN_VARIABLE, lexemes.get(position), 1, 1, position, provisionalIndices[position]);
+            tokens.add(TokenType.SRS_SEMICOLON, ";", 1, 1, position, TokenBuffer.NO_SYMBOL);
+        }
+        tokens.remapSymbols(concurrent.mergeInto(merged));
+        for (int position = 0; position < lexemes.size(); position++) {
+            assertEquals(sequentialIndices[position], tokens.getSymbolIndex(2 * position));
+            assertEquals(TokenBuffer.NO_SYMBOL, tokens.getSymbolIndex(2 * position + 1));
+        }
+        assertEquals(sequential.getAllSymbols().toString(), merged.getAllSymbols().toString());
+    }
+}
@@ -0,0 +1,59 @@
+package br.ucsal.compiladores.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.parser.ParseListener;
+import br.ucsal.compiladores.parser.Parser;
+
+public class ProgramGeneratorTest {
+
+    @Test
+    public void sameSeedGivesSameValidProgram() throws IOException {
+        ProgramGenerator.Settings settings = new ProgramGenerator.Settings();
+        settings.targetBytes = 200 * 1024;
+        settings.commentDensity = 0.3;
+        String program = generate(settings);
+
+        assertEquals(program, generate(settings));
+        assertTrue(program.length() >= settings.targetBytes);
+        assertTrue(program.length() < settings.targetBytes + 4096);
+        assertEquals(0, new Parser(ParseListener.SILENT).checkText("Gerado", program));
+
+        settings.seed++;
+        assertNotEquals(program, generate(settings));
+    }
+
+    @Test
+    public void brokenCommandsAreReportedAndRecovered() throws IOException {
+        ProgramGenerator.Settings settings = new ProgramGenerator.Settings();
+        settings.targetBytes = 200 * 1024;
+        settings.errorRate = 0.02;
+        StringWriter out = new StringWriter();
+        ProgramGenerator generator = new ProgramGenerator(settings, out);
+        generator.generate();
+
+        int errors = new Parser(ParseListener.SILENT).checkText("Gerado", out.toString());
+        assertTrue(generator.getInjectedErrors() > 0);
+        assertEquals(generator.getInjectedErrors(), errors);
+    }
+
+    @Test
+    public void parsesSizeSuffixes() {
+        assertEquals(512, ProgramGenerator.parseSize("512"));
+        assertEquals(10L * 1024 * 1024, ProgramGenerator.parseSize("10MB"));
+        assertEquals(20L * 1024 * 1024 * 1024, ProgramGenerator.parseSize("20gb"));
+    }
+
+    private static String generate(ProgramGenerator.Settings settings) throws IOException {
+        StringWriter out = new StringWriter();
+        new ProgramGenerator(settings, out).generate();
+        return out.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package br.ucsal.compiladores.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class AsyncConsoleWriterTest {
+
+    @Test
+    public void interruptedProducerStillWritesEveryBatch() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        AsyncConsoleWriter console = new AsyncConsoleWriter(new PrintStream(out, false, StandardCharsets.UTF_8),
+                new PrintStream(err, false, StandardCharsets.UTF_8));
+        StringBuilder expected = new StringBuilder();
+        try {
+            Thread.currentThread().interrupt();
+            for (int i = 0; i < 1000; i++) {
+                console.submit(console.getErr(), "Erro " + i + "\n");
+                expected.append("Erro ").append(i).append('\n');
+            }
+            console.flush();
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(expected.toString(), err.toString(StandardCharsets.UTF_8));
+        assertEquals(0, out.size());
+    }
+}
@@ -0,0 +1,70 @@
+package br.ucsal.compiladores.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.lexer.Lexer;
+import br.ucsal.compiladores.lexer.TokenBuffer;
+import br.ucsal.compiladores.lexer.TokenStream;
+import br.ucsal.compiladores.symbolTable.SymbolTable;
+
+public class LexReportWriterTest {
+
+    @Test
+    public void pipelinedReportMatchesReportWrittenAfterAnalysis() throws Exception {
+        StringBuilder source = new StringBuilder("program p;\n");
+        for (int i = 0; i < 5000; i++) {
+            source.append("variavel").append(i % 37).append(" := \"texto\" + ").append(i).append(";\n");
+        }
+        source.append("endprogram\n");
+        Path file = Files.createTempDirectory("lex").resolve("Amostra.251");
+
+        SymbolTable symbolTable = new SymbolTable();
+        TokenBuffer tokens = new Lexer(new TextSourceReader("Amostra", source), symbolTable).tokenizeToBuffer();
+        ReportGenerator generator = new ReportGenerator(symbolTable, tokens, file.toString());
+        byte[] expected = Files.readAllBytes(generator.generateLexReport());
+
+        // Buffer completo, formatado pela thread de escrita
+        LexReportWriter writer = generator.openLexReport();
+        writer.appendCompleted(tokens);
+        assertArrayEquals(expected, Files.readAllBytes(writer.finish()));
+
+        // Tokens repassados um a um enquanto o Lexer avança, descartados depois de consumidos
+        TokenStream stream = new Lexer(new TextSourceReader("Amostra", source), new SymbolTable()).stream();
+        try (LexReportWriter streaming = new ReportGenerator(symbolTable, stream.getBuffer(), file.toString())
+                .openLexReport()) {
+            stream.onTokens(streaming::append);
+            while (stream.hasNext()) {
+                stream.next();
+            }
+            assertArrayEquals(expected, Files.readAllBytes(streaming.finish()));
+        }
+        assertTrue(Files.exists(file.resolveSibling("Amostra.LEX")));
+    }
+
+    @Test
+    public void smallReportIsWrittenByCallerAndDiscardedWhenNotFinished() throws Exception {
+        Path file = Files.createTempDirectory("lex").resolve("Pequeno.251");
+        SymbolTable symbolTable = new SymbolTable();
+        TokenBuffer tokens = new Lexer(new TextSourceReader("Pequeno", "program p;\nx := 1;\nendprogram\n"),
+                symbolTable).tokenizeToBuffer();
+        ReportGenerator generator = new ReportGenerator(symbolTable, tokens, file.toString());
+        byte[] expected = Files.readAllBytes(generator.generateLexReport());
+
+        LexReportWriter writer = generator.openLexReport();
+        writer.appendCompleted(tokens);
+        assertArrayEquals(expected, Files.readAllBytes(writer.finish()));
+
+        // Análise que falhou antes do fim: o relatório não fica truncado no disco
+        try (LexReportWriter failed = generator.openLexReport()) {
+            failed.appendCompleted(tokens);
+        }
+        assertFalse(Files.exists(file.resolveSibling("Pequeno.LEX")));
+    }
+}
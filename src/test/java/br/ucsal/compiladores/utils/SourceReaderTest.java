@@ -0,0 +1,123 @@
+package br.ucsal.compiladores.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import br.ucsal.compiladores.config.Constants;
+
+public class SourceReaderTest {
+    private static final String[] SAMPLES = {
+            "",
+            "\n\n\n   \n",
+            "PROGRAM p;\n// comentario no fim",
+            "PROGRAM Crlf;\r\na := 1;\r\n\r\nENDPROGRAM\r\n",
+            "a := \"x\rb := 1;\r\r/* bloco\r\n*/ ENDPROGRAM",
+            "Ação_Çé := 'a' + 1.5e-3; x😀y /* não fechado",
+    };
+
+    @Test
+    public void mappedReaderMatchesLineReader() throws IOException {
+        for (String sample : SAMPLES) {
+            Path dir = writeSample(sample);
+            assertSameStream(sample, new FileHandler("Amostra", dir.toString()),
+                    new MappedFileHandler("Amostra", dir.toString()));
+        }
+    }
+
+    @Test
+    public void streamingReaderMatchesLineReaderAcrossWindowRefills() throws IOException {
+        for (String sample : SAMPLES) {
+            Path dir = writeSample(sample);
+            for (int windowSize : new int[] { 1, 2, 3, 7, 4096 }) {
+                assertSameStream(sample, new FileHandler("Amostra", dir.toString()),
+                        new StreamingFileHandler("Amostra", dir.toString(), windowSize));
+            }
+        }
+    }
+
+    @Test
+    public void autoModeStreamsFilesThatDoNotFitComfortablyInTheHeap() {
+        long heap = 64L * 1024 * 1024;
+        assertEquals(ReadMode.LINES, SourceReader.autoMode(1024, heap));
+        assertEquals(ReadMode.MAPPED, SourceReader.autoMode(Constants.MAPPED_READ_THRESHOLD_BYTES, heap));
+        assertEquals(ReadMode.STREAMING, SourceReader.autoMode(heap / Constants.STREAMING_READ_HEAP_DIVISOR, heap));
+        assertEquals(ReadMode.STREAMING, SourceReader.autoMode(4 * heap, heap));
+    }
+
+    @Test
+    public void mappedReaderReplacesMalformedBytes() throws IOException {
+        Path dir = Files.createTempDirectory("source-reader");
+        Files.write(dir.resolve("Amostra.251"), new byte[] { 'a', (byte) 0xFF, 'b', (byte) 0xE2, (byte) 0x82 });
+        assertSameStream("bytes inválidos", new FileHandler("Amostra", dir.toString()),
+                new MappedFileHandler("Amostra", dir.toString()));
+    }
+
+    @Test
+    public void streamingReaderClosesInputWhenFirstReadFails() {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("disco indisponível");
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        try {
+            new StreamingFileHandler("Amostra.251", failing, 16);
+            fail("A leitura da primeira janela deveria falhar");
+        } catch (UncheckedIOException e) {
+            assertTrue(closed.get());
+        }
+    }
+
+    static Path writeSample(String sample) throws IOException {
+        Path dir = Files.createTempDirectory("source-reader");
+        Files.write(dir.resolve("Amostra.251"), sample.getBytes(StandardCharsets.UTF_8));
+        return dir;
+    }
+
+    static void assertSameStream(String sample, SourceReader expected, SourceReader actual) throws IOException {
+        try (SourceReader first = expected; SourceReader second = actual) {
+            assertEquals("amostra '" + sample + "'", describe(first), describe(second));
+        }
+    }
+
+    // O FileHandler emite dois '\n' para linhas vazias; só o primeiro de cada linha é comparado.
+    private static List<String> describe(SourceReader reader) {
+        List<String> positions = new ArrayList<>();
+        int lastLineBreakLine = 0;
+        while (true) {
+            char c = reader.getCurrentChar();
+            int line = reader.getCurrentLineNumber();
+            if (c == '\n') {
+                if (line != lastLineBreakLine) {
+                    positions.add("\\n@" + line);
+                }
+                lastLineBreakLine = line;
+            } else {
+                positions.add(c + "@" + line + ":" + reader.getCurrentColumnNumber() + ">" + (int) reader.peek());
+            }
+            if (c == SourceReader.END_OF_FILE_CHAR) {
+                return positions;
+            }
+            reader.advance();
+        }
+    }
+}
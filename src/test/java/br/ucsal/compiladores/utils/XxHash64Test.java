@@ -0,0 +1,29 @@
+package br.ucsal.compiladores.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class XxHash64Test {
+
+    @Test
+    public void matchesReferenceValues() {
+        assertEquals(0xEF46DB3751D8E999L, XxHash64.hash(bytes(""), 0));
+        assertEquals(0xD24EC4F1A98C6E5BL, XxHash64.hash(bytes("a"), 0));
+        assertEquals(0x44BC2CF5AD770999L, XxHash64.hash(bytes("abc"), 0));
+        assertEquals(0xFBCEA83C8A378BF1L, XxHash64.hash(bytes("Nobody inspects the spammish repetition"), 0));
+
+        // Só os bytes entre position() e limit() entram no hash
+        ByteBuffer buffer = ByteBuffer.wrap(bytes("--abc--"));
+        buffer.position(2).limit(5);
+        assertEquals(0x44BC2CF5AD770999L, XxHash64.hash(buffer, 0));
+        assertEquals(2, buffer.position());
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}